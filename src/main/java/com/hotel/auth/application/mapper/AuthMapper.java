@@ -4,9 +4,11 @@ import com.hotel.auth.api.dto.AuthResponse;
 import com.hotel.auth.api.dto.LoginRequest;
 import com.hotel.auth.api.dto.RegisterRequest;
 import com.hotel.auth.api.dto.TokenValidationResponse;
+import com.hotel.auth.api.dto.UserLookupResult;
 import com.hotel.auth.api.dto.UserResponse;
 import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.repository.UserRepository;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
@@ -41,6 +43,22 @@ public class AuthMapper {
         return response;
     }
 
+    public static UserResponse toUserResponse(UserRepository.UserView view) {
+        UserResponse response = new UserResponse();
+        response.setId(view.getId());
+        response.setUsername(view.getNombre());
+        response.setEmail(view.getEmail());
+        response.setTelefono(view.getTelefono());
+        response.setActivo(Boolean.TRUE.equals(view.getActivo()));
+        if (view.getFechaCreacion() != null) {
+            response.setFechaCreacion(view.getFechaCreacion().atOffset(java.time.ZoneOffset.UTC));
+        }
+        if (view.getRolename() != null) {
+            response.setRole(UserResponse.RoleEnum.fromValue(view.getRolename()));
+        }
+        return response;
+    }
+
     public static AuthResponse toAuthResponse(User user, String accessToken, String refreshToken, Integer expiresIn) {
         AuthResponse response = new AuthResponse();
         response.setAccessToken(accessToken);
@@ -60,6 +78,21 @@ public class AuthMapper {
         return response;
     }
 
+    public static TokenValidationResponse toInvalidTokenValidationResponse(String error) {
+        TokenValidationResponse response = new TokenValidationResponse();
+        response.setValid(false);
+        response.setError(error);
+        return response;
+    }
+
+    public static UserLookupResult toUserLookupResult(Long id, UserResponse user) {
+        UserLookupResult result = new UserLookupResult();
+        result.setId(id);
+        result.setFound(user != null);
+        result.setUser(user);
+        return result;
+    }
+
     private static UserResponse.RoleEnum resolveRole(Role role) {
         if (role == null) {
             return null;
@@ -3,41 +3,52 @@ package com.hotel.auth.application.service;
 import com.hotel.auth.application.mapper.AuthMapper;
 import com.hotel.auth.api.dto.LoginRequest;
 import com.hotel.auth.api.dto.RegisterRequest;
+import com.hotel.auth.domain.model.AuthTokens;
 import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.User;
-import com.hotel.auth.domain.model.PasswordResetToken;
-import com.hotel.auth.domain.repository.PasswordResetTokenRepository;
+import com.hotel.auth.domain.model.VerifiedToken;
 import com.hotel.auth.domain.repository.RoleRepository;
 import com.hotel.auth.domain.repository.UserRepository;
 import com.hotel.auth.domain.service.AuthService;
+import com.hotel.auth.domain.service.LoginThrottle;
+import com.hotel.auth.domain.service.ResetCodeStore;
 import com.hotel.auth.domain.service.TokenService;
+import com.hotel.auth.domain.service.UserService;
 import com.hotel.auth.helpers.exceptions.ConflictException;
 import com.hotel.auth.helpers.exceptions.EntityNotFoundException;
+import com.hotel.auth.helpers.exceptions.ServiceOverloadedException;
 import com.hotel.auth.helpers.exceptions.ValidationException;
+import com.hotel.auth.infrastructure.cache.KnownEmailFilter;
+import com.hotel.auth.infrastructure.config.CacheConfig;
+import com.hotel.auth.infrastructure.events.EventOutbox;
 import com.hotel.auth.infrastructure.events.EventPublisher;
 import com.hotel.auth.infrastructure.events.PasswordResetEvent;
 import com.hotel.auth.infrastructure.events.UserLoginEvent;
 import com.hotel.auth.infrastructure.events.UserRegisteredEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Map;
-import java.time.LocalDateTime;
 import java.security.SecureRandom;
+import java.util.Optional;
 
 @Service
-public class AuthServiceImpl implements AuthService, UserDetailsService {
+public class AuthServiceImpl implements AuthService, UserDetailsService, UserDetailsPasswordService {
 
     private static final String DEFAULT_ROLE = "USER";
 
@@ -51,16 +62,12 @@ public class AuthServiceImpl implements AuthService, UserDetailsService {
     private final AuthenticationConfiguration authenticationConfiguration;
     private final RoleRepository roleRepository;
     private final EventPublisher eventPublisher;
-    private final PasswordResetTokenRepository passwordResetTokenRepository;
-
-    @Value("${application.security.password-reset-expiration-minutes:30}")
-    private int passwordResetExpirationMinutes;
-
-    @Value("${application.security.password-reset-max-attempts:3}")
-    private int passwordResetMaxAttempts;
-
-    @Value("${application.security.password-reset-block-minutes:15}")
-    private int passwordResetBlockMinutes;
+    private final EventOutbox eventOutbox;
+    private final TransactionTemplate transaction;
+    private final ResetCodeStore resetCodeStore;
+    private final KnownEmailFilter knownEmailFilter;
+    private final LoginThrottle loginThrottle;
+    private final UserService userService;
 
     public AuthServiceImpl(UserRepository userRepository,
                            TokenService tokenService,
@@ -68,45 +75,59 @@ public class AuthServiceImpl implements AuthService, UserDetailsService {
                            AuthenticationConfiguration authenticationConfiguration,
                            RoleRepository roleRepository,
                            EventPublisher eventPublisher,
-                           PasswordResetTokenRepository passwordResetTokenRepository) {
+                           EventOutbox eventOutbox,
+                           PlatformTransactionManager transactionManager,
+                           ResetCodeStore resetCodeStore,
+                           KnownEmailFilter knownEmailFilter,
+                           LoginThrottle loginThrottle,
+                           UserService userService) {
         this.userRepository = userRepository;
         this.tokenService = tokenService;
         this.passwordEncoder = passwordEncoder;
         this.authenticationConfiguration = authenticationConfiguration;
         this.roleRepository = roleRepository;
         this.eventPublisher = eventPublisher;
-        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.eventOutbox = eventOutbox;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.resetCodeStore = resetCodeStore;
+        this.knownEmailFilter = knownEmailFilter;
+        this.loginThrottle = loginThrottle;
+        this.userService = userService;
     }
 
     @Override
-    public Map<String, String> login(LoginRequest loginRequest) {
+    public AuthTokens login(LoginRequest loginRequest) {
+        // Cuenta bloqueada: se rechaza antes de leer el usuario o hashear
+        loginThrottle.checkAllowed(loginRequest.getEmail());
         try {
             AuthenticationManager authenticationManager = authenticationConfiguration.getAuthenticationManager();
             Authentication authRequest = AuthMapper.fromDto(loginRequest);
             Authentication authentication = authenticationManager.authenticate(authRequest);
 
-            User user = (User) authentication.getPrincipal();
-            String token = tokenService.generateToken(authentication);
+            // el principal ya es la entidad leida por loadUserByUsername: ambos tokens salen de ahi
+            AuthTokens tokens = tokenService.generateTokens(authentication);
+            publishLogin(tokens.user());
 
-            UserLoginEvent loginEvent = new UserLoginEvent(
-                    user.getId(),
-                    user.getNombre(),
-                    user.getEmail(),
-                    user.getRole().getRolename()
-            );
-            eventPublisher.publishUserLogin(loginEvent);
-
-            return Map.of("access-token", token);
+            loginThrottle.recordSuccess(loginRequest.getEmail());
+            return tokens;
         } catch (BadCredentialsException e) {
             LOGGER.error("ERROR: Credenciales incorrectas para: {}", loginRequest.getEmail());
+            loginThrottle.recordFailure(loginRequest.getEmail());
             throw new BadCredentialsException("Credenciales inválidas", e);
         } catch (UsernameNotFoundException e) {
             LOGGER.error("ERROR: Usuario no encontrado: {}", loginRequest.getEmail());
+            loginThrottle.recordFailure(loginRequest.getEmail());
             throw new UsernameNotFoundException("Usuario no encontrado", e);
         } catch (DisabledException e) {
             LOGGER.error("ERROR: Usuario deshabilitado: {}", loginRequest.getEmail());
             throw new DisabledException("Usuario deshabilitado", e);
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (Exception e) {
+            // DaoAuthenticationProvider envuelve lo que falla en retrieveUser (hash anti timing-attack)
+            if (e.getCause() instanceof ServiceOverloadedException overloaded) {
+                throw overloaded;
+            }
             LOGGER.error("ERROR INESPERADO durante login: {}", e.getMessage(), e);
             throw new BadCredentialsException("Error en autenticación", e);
         }
@@ -117,14 +138,21 @@ public class AuthServiceImpl implements AuthService, UserDetailsService {
         return tokenService.validateToken(token);
     }
 
+    @Override
+    public VerifiedToken verifyToken(String token) {
+        return tokenService.verifyToken(token);
+    }
+
     @Override
     public String getUserFromToken(String token) {
         return tokenService.getUserFromToken(token);
     }
 
     @Override
-    public void createUser(RegisterRequest registerRequest) {
-        if (userRepository.findByEmail(registerRequest.getEmail()).isPresent()) {
+    public AuthTokens register(RegisterRequest registerRequest) {
+        // Siempre contra la base: un "no" del filtro puede llegar tarde para altas de otras
+        // instancias y la violacion de uk_users_email saldria como 500 en vez de 409
+        if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new ConflictException("Email ya registrado", "EMAIL_DUPLICATE");
         }
 
@@ -136,17 +164,27 @@ public class AuthServiceImpl implements AuthService, UserDetailsService {
         createUser.setRole(roleClient);
         createUser.setTelefono(registerRequest.getTelefono());
 
-        User user = userRepository.save(createUser);
+        // Usuario y evento en la misma transaccion (outbox); el hash de arriba queda afuera
+        // para no retener una conexion del pool mientras corre BCrypt
+        User user = transaction.execute(status -> {
+            User saved = userRepository.save(createUser);
+            eventOutbox.userRegistered(new UserRegisteredEvent(
+                    saved.getId(),
+                    saved.getNombre(),
+                    saved.getEmail(),
+                    saved.getRole().getRolename()
+            ));
+            return saved;
+        });
+        knownEmailFilter.add(user.getEmail());
         LOGGER.info("[USER] : User successfully created with id {}", user.getId());
 
-        // Publicar evento de usuario registrado
-        UserRegisteredEvent event = new UserRegisteredEvent(
-                user.getId(),
-                user.getNombre(),
-                user.getEmail(),
-                user.getRole().getRolename()
-        );
-        eventPublisher.publishUserRegistered(event);
+        // La password se acaba de hashear: no hace falta re-autenticar con BCrypt ni releer el usuario
+        AuthTokens tokens = tokenService.generateTokens(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        // El registro deja la sesion iniciada: se publica el login como cuando pasaba por login()
+        publishLogin(user);
+        return tokens;
     }
 
     @Override
@@ -159,84 +197,119 @@ public class AuthServiceImpl implements AuthService, UserDetailsService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL_CACHE, key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
+        return findKnownUser(username)
                 .orElseThrow(() -> {
                     LOGGER.error("[USER] : User not found with email {}", username);
                     return new UsernameNotFoundException("User not found");
                 });
     }
 
+    /**
+     * Lo invoca DaoAuthenticationProvider tras un login exitoso cuando el hash guardado usa
+     * parametros mas debiles que los actuales ({@code PasswordEncoder.upgradeEncoding}).
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL_CACHE, key = "#user.username")
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        LOGGER.info("[USER] : Password rehashed with current parameters for {}", user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
+
     @Override
     public void requestPasswordReset(String email) {
-        User user = userRepository.findByEmail(email).orElse(null);
+        // Lookup por la cache de usuarios y fuera de toda transaccion: un email desconocido no abre conexion
+        User user = knownEmailFilter.mightExist(email) ? userService.findByEmail(email).orElse(null) : null;
         if (user == null) {
             LOGGER.info("[PASSWORD RESET] Email not found: {}", email);
             return;
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        long recentAttempts = passwordResetTokenRepository.countByUserAndCreatedAtAfter(
-                user,
-                now.minusMinutes(passwordResetBlockMinutes)
-        );
-        if (recentAttempts >= passwordResetMaxAttempts) {
-            throw new ValidationException("email", "Demasiados intentos. Intenta nuevamente en 15 minutos");
-        }
-
-        passwordResetTokenRepository.findByUserAndUsedAtIsNull(user)
-                .forEach(token -> {
-                    token.setUsedAt(LocalDateTime.now());
-                    passwordResetTokenRepository.save(token);
-                });
-
         String code = generateCode();
-        PasswordResetToken token = new PasswordResetToken();
-        token.setUser(user);
-        token.setCode(code);
-        token.setCreatedAt(now);
-        token.setExpiresAt(now.plusMinutes(passwordResetExpirationMinutes));
-        passwordResetTokenRepository.save(token);
-
         PasswordResetEvent event = new PasswordResetEvent(
                 user.getId(),
                 user.getNombre(),
                 user.getEmail(),
                 code
         );
-        eventPublisher.publishPasswordReset(event);
+        if (!resetCodeStore.isTransactional()) {
+            // Store en memoria: sin transaccion ni fila en el outbox (el payload lleva el codigo en claro).
+            // El publisher aplica caller-runs al reset, asi que con la cola llena se publica aca mismo
+            if (!resetCodeStore.issue(user, code)) {
+                throw tooManyResetRequests();
+            }
+            eventPublisher.publishPasswordReset(event);
+            return;
+        }
+        // codigo y evento en la misma transaccion: no queda un codigo emitido sin su email
+        Boolean issued = transaction.execute(status -> {
+            if (!resetCodeStore.issue(user, code)) {
+                return false;
+            }
+            eventOutbox.passwordReset(event);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(issued)) {
+            throw tooManyResetRequests();
+        }
+    }
+
+    private static ValidationException tooManyResetRequests() {
+        return new ValidationException("email", "Demasiados intentos. Intenta nuevamente en 15 minutos");
     }
 
     @Override
     public void verifyPasswordResetCode(String email, String code) {
-        User user = userRepository.findByEmail(email).orElse(null);
-        if (user == null) {
-            throw new ValidationException("email", "Email inválido");
-        }
-        PasswordResetToken token = passwordResetTokenRepository.findByUserAndCodeAndUsedAtIsNull(user, code)
-                .orElseThrow(() -> new ValidationException("code", "Código inválido"));
-        if (token.getExpiresAt() != null && token.getExpiresAt().isBefore(LocalDateTime.now())) {
-            throw new ValidationException("code", "Código expirado");
-        }
+        requireValidCode(email, code, false);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL_CACHE, key = "#email")
     public void resetPassword(String email, String code, String newPassword) {
-        User user = userRepository.findByEmail(email).orElse(null);
-        if (user == null) {
+        // Se verifica antes de hashear (un codigo erroneo no cuesta un BCrypt) y se consume despues:
+        // si el pool de hashing rechaza, el codigo sigue sirviendo
+        requireValidCode(email, code, false);
+        String encoded = passwordEncoder.encode(newPassword);
+        requireValidCode(email, code, true);
+        userRepository.updatePasswordByEmail(email, encoded);
+    }
+
+    private void requireValidCode(String email, String code, boolean consume) {
+        if (!knownEmailFilter.mightExist(email)) {
             throw new ValidationException("email", "Email inválido");
         }
-        PasswordResetToken token = passwordResetTokenRepository.findByUserAndCodeAndUsedAtIsNull(user, code)
-                .orElseThrow(() -> new ValidationException("code", "Código inválido"));
-
-        if (token.getExpiresAt() != null && token.getExpiresAt().isBefore(LocalDateTime.now())) {
-            throw new ValidationException("code", "Código expirado");
+        ResetCodeStore.Verification result = consume
+                ? resetCodeStore.consume(email, code)
+                : resetCodeStore.verify(email, code);
+        switch (result) {
+            case VALID -> {
+            }
+            case EXPIRED -> throw new ValidationException("code", "Código expirado");
+            case BLOCKED -> throw new ValidationException("code", "Demasiados intentos fallidos. Solicita un nuevo código");
+            default -> throw new ValidationException("code", "Código inválido");
         }
+    }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+    // Emails que el filtro descarta no llegan a MySQL (credential stuffing, sondeos de reset)
+    private Optional<User> findKnownUser(String email) {
+        if (!knownEmailFilter.mightExist(email)) {
+            return Optional.empty();
+        }
+        return userRepository.findByEmail(email);
+    }
 
-        passwordResetTokenRepository.delete(token);
+    private void publishLogin(User user) {
+        eventPublisher.publishUserLogin(new UserLoginEvent(
+                user.getId(),
+                user.getNombre(),
+                user.getEmail(),
+                user.getRole().getRolename()
+        ));
     }
 
     private String generateCode() {
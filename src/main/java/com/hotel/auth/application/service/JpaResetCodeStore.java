@@ -0,0 +1,132 @@
+package com.hotel.auth.application.service;
+
+import com.hotel.auth.domain.model.PasswordResetToken;
+import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.repository.PasswordResetTokenRepository;
+import com.hotel.auth.domain.repository.UserRepository;
+import com.hotel.auth.domain.service.ResetCodeStore;
+import com.hotel.auth.infrastructure.security.ResetCodeHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@link ResetCodeStore} sobre {@code password_reset_tokens}: compartido entre instancias. El
+ * pedido bloquea la fila del usuario (rate limit atomico) y cada verificacion bloquea el token
+ * activo, asi que fallos y consumo concurrentes sobre el mismo codigo se serializan.
+ */
+public class JpaResetCodeStore implements ResetCodeStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JpaResetCodeStore.class);
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final UserRepository userRepository;
+    private final ResetCodeHasher hasher;
+    private final TransactionTemplate transaction;
+    private final Duration expiration;
+    private final int maxRequests;
+    private final Duration requestWindow;
+    private final int maxFailures;
+
+    private final Counter failures;
+    private final Counter blocked;
+
+    public JpaResetCodeStore(PasswordResetTokenRepository passwordResetTokenRepository,
+                             UserRepository userRepository,
+                             ResetCodeHasher hasher,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             Duration expiration,
+                             int maxRequests,
+                             Duration requestWindow,
+                             int maxFailures) {
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.userRepository = userRepository;
+        this.hasher = hasher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.expiration = expiration;
+        this.maxRequests = maxRequests;
+        this.requestWindow = requestWindow;
+        this.maxFailures = maxFailures;
+
+        this.failures = meterRegistry.counter("reset_codes.failures", "store", "jpa");
+        this.blocked = meterRegistry.counter("reset_codes.blocked", "store", "jpa");
+    }
+
+    // Se une a la transaccion del pedido si hay una (la del outbox)
+    @Override
+    public boolean issue(User user, String code) {
+        Boolean issued = transaction.execute(status -> {
+            userRepository.lockById(user.getId());
+            LocalDateTime now = LocalDateTime.now();
+            if (passwordResetTokenRepository.countCreatedSince(user.getId(), now.minus(requestWindow)) >= maxRequests) {
+                return false;
+            }
+            passwordResetTokenRepository.invalidateActive(user.getId(), now);
+
+            PasswordResetToken token = new PasswordResetToken();
+            token.setUser(user);
+            token.setCode(hasher.hash(user.getId(), code));
+            token.setCreatedAt(now);
+            token.setExpiresAt(now.plus(expiration));
+            passwordResetTokenRepository.save(token);
+            return true;
+        });
+        return Boolean.TRUE.equals(issued);
+    }
+
+    @Override
+    public Verification verify(String email, String code) {
+        return check(email, code, false);
+    }
+
+    @Override
+    public Verification consume(String email, String code) {
+        return check(email, code, true);
+    }
+
+    // Devuelve el resultado en vez de lanzar: el contador de fallos tiene que commitear
+    private Verification check(String email, String code, boolean consume) {
+        return transaction.execute(status -> {
+            List<PasswordResetToken> active = passwordResetTokenRepository.lockActiveByEmail(email);
+            if (active.isEmpty()) {
+                return Verification.INVALID;
+            }
+            PasswordResetToken token = active.get(0);
+            LocalDateTime now = LocalDateTime.now();
+            if (token.getExpiresAt() != null && token.getExpiresAt().isBefore(now)) {
+                return Verification.EXPIRED;
+            }
+            if (token.getFailedAttempts() >= maxFailures) {
+                return Verification.BLOCKED;
+            }
+            // getId() sobre el proxy lazy no dispara la carga del usuario
+            if (!hasher.matches(token.getCode(), token.getUser().getId(), code)) {
+                return recordFailure(token, now);
+            }
+            if (consume) {
+                passwordResetTokenRepository.consume(token.getId());
+            }
+            return Verification.VALID;
+        });
+    }
+
+    private Verification recordFailure(PasswordResetToken token, LocalDateTime now) {
+        failures.increment();
+        token.setFailedAttempts(token.getFailedAttempts() + 1);
+        if (token.getFailedAttempts() < maxFailures) {
+            return Verification.INVALID;
+        }
+        token.setUsedAt(now);
+        blocked.increment();
+        LOGGER.warn("[PASSWORD RESET] Codigo {} invalidado tras {} verificaciones fallidas", token.getId(), maxFailures);
+        return Verification.BLOCKED;
+    }
+}
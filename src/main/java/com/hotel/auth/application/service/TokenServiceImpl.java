@@ -1,6 +1,8 @@
 package com.hotel.auth.application.service;
 
+import com.hotel.auth.domain.model.AuthTokens;
 import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.model.VerifiedToken;
 import com.hotel.auth.domain.service.TokenService;
 import com.hotel.auth.helpers.exceptions.TokenExpiredException;
 import org.slf4j.Logger;
@@ -40,6 +42,16 @@ public class TokenServiceImpl implements TokenService {
     @Value("${application.security.jwt.audience}")
     private String jwtAudience;
 
+    // RS256 | ES256; cada algoritmo necesita su clave activa en JwtKeyRing
+    @Value("${application.security.jwt.algorithms.access:RS256}")
+    private String accessTokenAlgorithm;
+
+    @Value("${application.security.jwt.algorithms.refresh:RS256}")
+    private String refreshTokenAlgorithm;
+
+    @Value("${application.security.jwt.algorithms.service:RS256}")
+    private String serviceTokenAlgorithm;
+
     private final JwtEncoder jwtEncoder;
     private final JwtDecoder jwtDecoder;
 
@@ -50,74 +62,47 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public String generateToken(Authentication authentication) {
-        Instant now = Instant.now();
-        String roles = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(" "));
-
         User currentUser = (User) authentication.getPrincipal();
-
-        JwtClaimsSet claims = JwtClaimsSet.builder()
-                .issuer(jwtIssuer)
-                .audience(List.of(jwtAudience))
-                .subject(currentUser.getEmail())
-                .issuedAt(now)
-                .expiresAt(now.plus(jwtExpiration, ChronoUnit.SECONDS))
-                .claim("roles", roles)
-                .claim("userId", currentUser.getId())
-                .build();
-
-        JwtEncoderParameters jwtEncoderParameters = JwtEncoderParameters.from(
-                JwsHeader.with(SignatureAlgorithm.RS256).build(),
-                claims
-        );
-
-        return jwtEncoder.encode(jwtEncoderParameters).getTokenValue();
+        return encode(accessTokenAlgorithm, accessClaims(currentUser, roles(authentication), Instant.now()));
     }
 
     @Override
     public String generateRefreshToken(Authentication authentication) {
-        Instant now = Instant.now();
         User currentUser = (User) authentication.getPrincipal();
+        return encode(refreshTokenAlgorithm, refreshClaims(currentUser, Instant.now()));
+    }
 
-        JwtClaimsSet claims = JwtClaimsSet.builder()
-                .issuer(jwtIssuer)
-                .audience(List.of(jwtAudience))
-                .subject(currentUser.getEmail())
-                .issuedAt(now)
-                .expiresAt(now.plus(jwtRefreshExpiration, ChronoUnit.SECONDS))
-                .claim("type", "refresh")
-                .build();
-
-        JwtEncoderParameters jwtEncoderParameters = JwtEncoderParameters.from(
-                JwsHeader.with(SignatureAlgorithm.RS256).build(),
-                claims
-        );
-
-        return jwtEncoder.encode(jwtEncoderParameters).getTokenValue();
+    @Override
+    public AuthTokens generateTokens(Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+        Instant now = Instant.now();
+        String accessToken = encode(accessTokenAlgorithm, accessClaims(currentUser, roles(authentication), now));
+        String refreshToken = encode(refreshTokenAlgorithm, refreshClaims(currentUser, now));
+        return new AuthTokens(currentUser, accessToken, refreshToken);
     }
 
     @Override
     public String generateServiceToken(String clientId, String scope) {
         Instant now = Instant.now();
 
-        JwtClaimsSet claims = JwtClaimsSet.builder()
-                .issuer(jwtIssuer)
-                .audience(List.of(jwtAudience))
-                .subject(clientId)
-                .issuedAt(now)
+        JwtClaimsSet claims = baseClaims(clientId, now)
                 .expiresAt(now.plus(jwtExpiration, ChronoUnit.SECONDS))
                 .claim("client_id", clientId)
                 .claim("scope", scope)
                 .claim("type", "service")
                 .build();
 
-        JwtEncoderParameters jwtEncoderParameters = JwtEncoderParameters.from(
-                JwsHeader.with(SignatureAlgorithm.RS256).build(),
-                claims
-        );
+        return encode(serviceTokenAlgorithm, claims);
+    }
 
-        return jwtEncoder.encode(jwtEncoderParameters).getTokenValue();
+    @Override
+    public VerifiedToken verifyToken(String token) {
+        try {
+            return new VerifiedToken(jwtDecoder.decode(token));
+        } catch (JwtException exception) {
+            LOGGER.warn("Token inválido o expirado: {}", exception.getMessage());
+            throw new TokenExpiredException("Error while trying to validate token");
+        }
     }
 
     @Override
@@ -128,12 +113,48 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public boolean validateToken(String token) {
-        try {
-            jwtDecoder.decode(token);
-            return true;
-        } catch (JwtException exception) {
-            LOGGER.warn("Token inválido o expirado: {}", exception.getMessage());
-            throw new TokenExpiredException("Error while trying to validate token");
+        verifyToken(token);
+        return true;
+    }
+
+    private JwtClaimsSet.Builder baseClaims(String subject, Instant now) {
+        return JwtClaimsSet.builder()
+                .issuer(jwtIssuer)
+                .audience(List.of(jwtAudience))
+                .subject(subject)
+                .issuedAt(now);
+    }
+
+    private JwtClaimsSet accessClaims(User user, String roles, Instant now) {
+        return baseClaims(user.getEmail(), now)
+                .expiresAt(now.plus(jwtExpiration, ChronoUnit.SECONDS))
+                .claim("roles", roles)
+                .claim("userId", user.getId())
+                .build();
+    }
+
+    private JwtClaimsSet refreshClaims(User user, Instant now) {
+        return baseClaims(user.getEmail(), now)
+                .expiresAt(now.plus(jwtRefreshExpiration, ChronoUnit.SECONDS))
+                .claim("type", "refresh")
+                .build();
+    }
+
+    private static String roles(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(" "));
+    }
+
+    private String encode(String algorithm, JwtClaimsSet claims) {
+        return jwtEncoder.encode(JwtEncoderParameters.from(header(algorithm), claims)).getTokenValue();
+    }
+
+    private static JwsHeader header(String algorithm) {
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.from(algorithm);
+        if (signatureAlgorithm == null) {
+            throw new IllegalStateException("Algoritmo de firma JWT no soportado: " + algorithm);
         }
+        return JwsHeader.with(signatureAlgorithm).build();
     }
 }
@@ -1,30 +1,78 @@
 package com.hotel.auth.application.service;
 
 import com.hotel.auth.application.mapper.AuthMapper;
+import com.hotel.auth.api.dto.UserPage;
 import com.hotel.auth.api.dto.UserResponse;
 import com.hotel.auth.domain.model.User;
 import com.hotel.auth.domain.repository.UserRepository;
 import com.hotel.auth.domain.service.UserService;
 import com.hotel.auth.helpers.exceptions.EntityNotFoundException;
+import com.hotel.auth.infrastructure.cache.KnownEmailFilter;
+import com.hotel.auth.infrastructure.config.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final KnownEmailFilter knownEmailFilter;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           KnownEmailFilter knownEmailFilter,
+                           PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.knownEmailFilter = knownEmailFilter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
-    public List<UserResponse> findAll() {
-        return userRepository.findAll().stream()
-                .map(AuthMapper::toUserResponse)
-                .toList();
+    public UserPage findPage(Long afterId, int limit, String role, Boolean activo) {
+        // una fila de mas indica si hay pagina siguiente, sin count
+        List<UserRepository.UserView> rows = userRepository.findPageAfter(
+                afterId != null ? afterId : 0L, role, activo, PageRequest.ofSize(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<UserRepository.UserView> items = hasMore ? rows.subList(0, limit) : rows;
+
+        UserPage page = new UserPage();
+        page.setItems(items.stream().map(AuthMapper::toUserResponse).toList());
+        if (hasMore) {
+            page.setNextAfterId(items.get(items.size() - 1).getId());
+        }
+        return page;
+    }
+
+    // Memoria constante: cada fila se mapea y se entrega antes de leer la siguiente
+    @Override
+    public long forEachUser(String role, Boolean activo, Consumer<UserResponse> consumer) {
+        Long delivered = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<UserRepository.UserView> rows = userRepository.streamAll(role, activo)) {
+                Iterator<UserRepository.UserView> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    consumer.accept(AuthMapper.toUserResponse(iterator.next()));
+                    count++;
+                }
+            }
+            return count;
+        });
+        return delivered != null ? delivered : 0;
     }
 
     @Override
@@ -34,18 +82,42 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    public Map<Long, UserResponse> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserRepository.UserView::getId, AuthMapper::toUserResponse));
+    }
+
+    // save/delete son operaciones administrativas poco frecuentes: se vacia la cache
+    // completa para no dejar entradas bajo un email anterior
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL_CACHE, allEntries = true)
     public UserResponse save(User user) {
         User saved = userRepository.save(user);
+        knownEmailFilter.add(saved.getEmail());
         return AuthMapper.toUserResponse(saved);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL_CACHE, allEntries = true)
     public void deleteById(Long id) {
         userRepository.deleteById(id);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL_CACHE, key = "#email", unless = "#result == null")
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
+
+    @Override
+    public Map<String, User> findByEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findByEmailIn(emails).stream()
+                .collect(Collectors.toMap(User::getEmail, Function.identity()));
+    }
 }
@@ -0,0 +1,8 @@
+package com.hotel.auth.domain.model;
+
+/**
+ * Resultado de un login/registro/refresh: el usuario autenticado y el par de tokens
+ * emitido en la misma pasada, sin volver a leer el usuario.
+ */
+public record AuthTokens(User user, String accessToken, String refreshToken) {
+}
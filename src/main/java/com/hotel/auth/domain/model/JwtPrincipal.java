@@ -0,0 +1,59 @@
+package com.hotel.auth.domain.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal construido solo con los claims del access token (modo claims-only).
+ * No toca la base de datos; quien necesite la entidad {@link User} completa la
+ * carga a demanda por email o id.
+ */
+public final class JwtPrincipal implements Principal {
+
+    private final Long userId;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtPrincipal(Long userId, String email, List<GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.email = email;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    public static JwtPrincipal from(VerifiedToken verifiedToken) {
+        String roles = verifiedToken.getRoles();
+        List<GrantedAuthority> authorities = roles == null || roles.isBlank()
+                ? List.of()
+                : Arrays.stream(roles.trim().split("\\s+"))
+                        .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                        .toList();
+        return new JwtPrincipal(verifiedToken.getUserId(), verifiedToken.getSubject(), authorities);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal{userId=" + userId + ", email='" + email + "'}";
+    }
+}
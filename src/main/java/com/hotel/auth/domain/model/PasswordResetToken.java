@@ -1,6 +1,7 @@
 package com.hotel.auth.domain.model;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -24,10 +25,12 @@ public class PasswordResetToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // HMAC del codigo (ResetCodeHasher). El codigo en claro solo viaja en el PasswordResetEvent;
+    // la fila del outbox se borra al entregarse
     private String code;
 
     private LocalDateTime expiresAt;
@@ -36,4 +39,6 @@ public class PasswordResetToken {
 
     private LocalDateTime createdAt;
 
+    private int failedAttempts;
+
 }
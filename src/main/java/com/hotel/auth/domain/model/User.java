@@ -49,6 +49,10 @@ public class User implements UserDetails {
     @Column(name = "fecha_creacion")
     private LocalDateTime fechaCreacion = LocalDateTime.now();
 
+    // La mantiene MySQL (DEFAULT / ON UPDATE CURRENT_TIMESTAMP)
+    @Column(name = "fecha_actualizacion", insertable = false, updatable = false)
+    private LocalDateTime fechaActualizacion;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.<GrantedAuthority>singletonList(new SimpleGrantedAuthority("ROLE_" + role.getRolename()));
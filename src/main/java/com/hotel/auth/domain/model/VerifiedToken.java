@@ -0,0 +1,60 @@
+package com.hotel.auth.domain.model;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+
+/**
+ * JWT cuya firma y expiracion ya fueron verificadas. Se obtiene una unica vez por
+ * request desde {@code TokenService#verifyToken} y se pasa tal cual al resto del
+ * flujo para no repetir la verificacion RS256.
+ */
+public final class VerifiedToken {
+
+    private final Jwt jwt;
+
+    public VerifiedToken(Jwt jwt) {
+        this.jwt = jwt;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public String getTokenValue() {
+        return jwt.getTokenValue();
+    }
+
+    public String getSubject() {
+        return jwt.getSubject();
+    }
+
+    public Long getUserId() {
+        Object userId = jwt.getClaim("userId");
+        if (userId instanceof Number number) {
+            return number.longValue();
+        }
+        return userId != null ? Long.valueOf(userId.toString()) : null;
+    }
+
+    public String getRoles() {
+        return jwt.getClaimAsString("roles");
+    }
+
+    public String getType() {
+        return jwt.getClaimAsString("type");
+    }
+
+    public Instant getExpiresAt() {
+        return jwt.getExpiresAt();
+    }
+
+    public boolean isServiceToken() {
+        return jwt.getClaim("client_id") != null
+                || (jwt.getClaim("scope") != null && jwt.getClaim("userId") == null);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(getType());
+    }
+}
@@ -0,0 +1,49 @@
+package com.hotel.auth.domain.repository;
+
+import com.hotel.auth.domain.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Pendientes sin lease vigente. SKIP LOCKED: con varias instancias cada relay toma filas
+    // distintas sin esperar al otro. Requiere transaccion abierta, que dura hasta claim().
+    @Query(value = """
+            select * from event_outbox
+            where sent_at is null and (claimed_until is null or claimed_until < :now)
+            order by id limit :limit for update skip locked
+            """, nativeQuery = true)
+    List<OutboxEvent> lockUnsent(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :claimedUntil where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int releaseClaim(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update OutboxEvent e set e.sentAt = :sentAt, e.claimedUntil = null where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    // Filas entregadas que no se retienen (el payload del reset lleva el codigo en claro)
+    @Modifying
+    @Transactional
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from event_outbox where sent_at < :cutoff limit :limit", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
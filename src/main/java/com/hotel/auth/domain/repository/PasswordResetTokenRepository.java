@@ -1,15 +1,48 @@
 package com.hotel.auth.domain.repository;
 
 import com.hotel.auth.domain.model.PasswordResetToken;
-import com.hotel.auth.domain.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
-    Optional<PasswordResetToken> findByUserAndCodeAndUsedAtIsNull(User user, String code);
-    List<PasswordResetToken> findByUserAndUsedAtIsNull(User user);
-    long countByUserAndCreatedAtAfter(User user, LocalDateTime createdAt);
+
+    // FOR UPDATE sobre el token (y la fila del usuario por el join): las verificaciones
+    // concurrentes contra el mismo codigo se serializan y no se pisan el contador de fallos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from PasswordResetToken t join t.user u where u.email = :email and t.usedAt is null "
+            + "order by t.id desc")
+    List<PasswordResetToken> lockActiveByEmail(@Param("email") String email);
+
+    @Query("select count(t) from PasswordResetToken t where t.user.id = :userId and t.createdAt > :since")
+    long countCreatedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("update PasswordResetToken t set t.usedAt = :usedAt where t.user.id = :userId and t.usedAt is null")
+    int invalidateActive(@Param("userId") Long userId, @Param("usedAt") LocalDateTime usedAt);
+
+    // 0 filas = otro request ya lo consumio: un codigo no se puede usar dos veces
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.id = :id and t.usedAt is null")
+    int consume(@Param("id") Long id);
+
+    @Query("select max(t.id) from PasswordResetToken t")
+    Long maxId();
+
+    @Query("select min(t.id) from PasswordResetToken t where t.id >= :from")
+    Long firstIdFrom(@Param("from") long from);
+
+    // Rango de PK [from, to): la sentencia solo bloquea ese tramo del indice primario
+    @Modifying
+    @Transactional
+    @Query("delete from PasswordResetToken t where t.id >= :from and t.id < :to "
+            + "and (t.usedAt < :cutoff or t.expiresAt < :cutoff)")
+    int deleteExpiredInRange(@Param("from") long from, @Param("to") long to, @Param("cutoff") LocalDateTime cutoff);
 }
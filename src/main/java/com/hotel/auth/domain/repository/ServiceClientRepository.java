@@ -3,6 +3,7 @@ package com.hotel.auth.domain.repository;
 import com.hotel.auth.domain.model.ServiceClient;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ServiceClientRepository extends JpaRepository<ServiceClient, Long> {
@@ -10,4 +11,6 @@ public interface ServiceClientRepository extends JpaRepository<ServiceClient, Lo
     Optional<ServiceClient> findByClientIdAndEnabledTrue(String clientId);
 
     Optional<ServiceClient> findByClientId(String clientId);
+
+    List<ServiceClient> findAllByEnabledTrue();
 }
@@ -1,11 +1,119 @@
 package com.hotel.auth.domain.repository;
 
 import com.hotel.auth.domain.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    // Bloquea solo la fila del usuario: serializa los pedidos de reset concurrentes del mismo
+    // usuario. Requiere transaccion abierta.
+    @Query(value = "select id from users where id = :id for update", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = "role")
+    List<User> findByEmailIn(Collection<String> emails);
+
+    // Solo (id, email, ultima modificacion) sin hidratar entidades; MIN_VALUE hace que Connector/J
+    // entregue filas de a una en vez de cargar el resultado completo. Requiere transaccion abierta.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            select u.id as id, u.email as email, u.fechaActualizacion as fechaActualizacion
+            from User u where u.id > :afterId order by u.id
+            """)
+    Stream<EmailView> streamEmailsAfter(@Param("afterId") long afterId);
+
+    // Altas y cambios desde una marca (idx_users_fecha_actualizacion). Requiere transaccion abierta.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            select u.id as id, u.email as email, u.fechaActualizacion as fechaActualizacion
+            from User u where u.fechaActualizacion >= :since
+            """)
+    Stream<EmailView> streamEmailsChangedSince(@Param("since") LocalDateTime since);
+
+    // Keyset: la pagina arranca despues del ultimo id visto, sin OFFSET. Proyeccion sin entidades
+    // ni persistence context; el rol sale del mismo join.
+    @Query("""
+            select u.id as id, u.username as nombre, u.email as email, u.telefono as telefono,
+                   u.activo as activo, u.fechaCreacion as fechaCreacion, r.rolename as rolename
+            from User u left join u.role r
+            where u.id > :afterId
+              and (:rolename is null or r.rolename = :rolename)
+              and (:activo is null or u.activo = :activo)
+            order by u.id
+            """)
+    List<UserView> findPageAfter(@Param("afterId") long afterId,
+                                 @Param("rolename") String rolename,
+                                 @Param("activo") Boolean activo,
+                                 Pageable pageable);
+
+    // Misma consulta en streaming (cursor de Connector/J, fila por fila). Requiere transaccion abierta.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            select u.id as id, u.username as nombre, u.email as email, u.telefono as telefono,
+                   u.activo as activo, u.fechaCreacion as fechaCreacion, r.rolename as rolename
+            from User u left join u.role r
+            where (:rolename is null or r.rolename = :rolename)
+              and (:activo is null or u.activo = :activo)
+            order by u.id
+            """)
+    Stream<UserView> streamAll(@Param("rolename") String rolename, @Param("activo") Boolean activo);
+
+    // Lote por PK con un unico IN, misma proyeccion que el listado
+    @Query("""
+            select u.id as id, u.username as nombre, u.email as email, u.telefono as telefono,
+                   u.activo as activo, u.fechaCreacion as fechaCreacion, r.rolename as rolename
+            from User u left join u.role r
+            where u.id in :ids
+            """)
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface EmailView {
+
+        Long getId();
+
+        String getEmail();
+
+        LocalDateTime getFechaActualizacion();
+    }
+
+    interface UserView {
+
+        Long getId();
+
+        String getNombre();
+
+        String getEmail();
+
+        String getTelefono();
+
+        Boolean getActivo();
+
+        LocalDateTime getFechaCreacion();
+
+        String getRolename();
+    }
 }
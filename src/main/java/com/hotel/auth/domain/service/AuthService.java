@@ -2,19 +2,21 @@ package com.hotel.auth.domain.service;
 
 import com.hotel.auth.api.dto.LoginRequest;
 import com.hotel.auth.api.dto.RegisterRequest;
+import com.hotel.auth.domain.model.AuthTokens;
 import com.hotel.auth.domain.model.User;
-
-import java.util.Map;
+import com.hotel.auth.domain.model.VerifiedToken;
 
 public interface AuthService {
 
-    Map<String, String> login(LoginRequest loginRequest);
+    AuthTokens login(LoginRequest loginRequest);
 
     boolean validateToken(String token);
 
+    VerifiedToken verifyToken(String token);
+
     String getUserFromToken(String token);
 
-    void createUser(RegisterRequest registerRequest);
+    AuthTokens register(RegisterRequest registerRequest);
 
     User getUser(Long id);
 
@@ -0,0 +1,14 @@
+package com.hotel.auth.domain.service;
+
+/**
+ * Limite de logins fallidos por cuenta. {@code checkAllowed} corre antes de cualquier hash y
+ * lanza {@code TooManyAttemptsException} mientras la cuenta este bloqueada.
+ */
+public interface LoginThrottle {
+
+    void checkAllowed(String email);
+
+    void recordFailure(String email);
+
+    void recordSuccess(String email);
+}
@@ -0,0 +1,35 @@
+package com.hotel.auth.domain.service;
+
+import com.hotel.auth.domain.model.User;
+
+/**
+ * Codigos de reset de password con TTL. Se guardan hasheados y cada verificacion fallida suma
+ * al codigo activo del email: al llegar al maximo el codigo se invalida, asi que no se puede
+ * recorrer el espacio de 6 digitos contra un mismo codigo.
+ */
+public interface ResetCodeStore {
+
+    /** Emite {@code code} e invalida los anteriores del usuario. {@code false} si supero el limite de pedidos. */
+    boolean issue(User user, String code);
+
+    /**
+     * {@code true} si el store escribe en la base: {@link #issue} se une a la transaccion del
+     * llamador y el evento del reset va al outbox en esa misma transaccion.
+     */
+    default boolean isTransactional() {
+        return true;
+    }
+
+    /** Verifica sin consumir. */
+    Verification verify(String email, String code);
+
+    /** Verifica y consume: un mismo codigo nunca devuelve {@code VALID} dos veces. */
+    Verification consume(String email, String code);
+
+    enum Verification {
+        VALID,
+        INVALID,
+        EXPIRED,
+        BLOCKED
+    }
+}
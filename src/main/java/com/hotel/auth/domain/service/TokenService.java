@@ -1,5 +1,7 @@
 package com.hotel.auth.domain.service;
 
+import com.hotel.auth.domain.model.AuthTokens;
+import com.hotel.auth.domain.model.VerifiedToken;
 import org.springframework.security.core.Authentication;
 
 public interface TokenService {
@@ -8,8 +10,12 @@ public interface TokenService {
 
     String generateRefreshToken(Authentication authentication);
 
+    AuthTokens generateTokens(Authentication authentication);
+
     String generateServiceToken(String clientId, String scope);
 
+    VerifiedToken verifyToken(String token);
+
     String getUserFromToken(String token);
 
     boolean validateToken(String token);
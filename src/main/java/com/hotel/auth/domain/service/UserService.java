@@ -1,20 +1,32 @@
 package com.hotel.auth.domain.service;
 
+import com.hotel.auth.api.dto.UserPage;
 import com.hotel.auth.api.dto.UserResponse;
 import com.hotel.auth.domain.model.User;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
 
-    List<UserResponse> findAll();
+    /** Pagina por keyset: usuarios con id > {@code afterId}, ordenados por id. */
+    UserPage findPage(Long afterId, int limit, String role, Boolean activo);
+
+    /** Recorre todos los usuarios con un cursor, de a uno; devuelve cuantos entrego. */
+    long forEachUser(String role, Boolean activo, Consumer<UserResponse> consumer);
 
     User findById(Long id);
 
+    /** Usuarios existentes entre {@code ids}, por id; los inexistentes no aparecen. */
+    Map<Long, UserResponse> findByIds(Collection<Long> ids);
+
     UserResponse save(User user);
 
     void deleteById(Long id);
 
     Optional<User> findByEmail(String email);
+
+    Map<String, User> findByEmails(Collection<String> emails);
 }
@@ -4,19 +4,26 @@ import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.ServiceClient;
 import com.hotel.auth.domain.repository.RoleRepository;
 import com.hotel.auth.domain.repository.ServiceClientRepository;
+import com.hotel.auth.infrastructure.cache.ServiceClientRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.stereotype.Component;
 
+/**
+ * Siembra roles y service clients y carga {@link ServiceClientRegistry}. Corre al terminar de
+ * crear los singletons, antes de que Tomcat acepte conexiones: un {@code CommandLineRunner}
+ * corre con el puerto ya abierto y los primeros {@code /oauth/token} veian el registro vacio.
+ */
 @Component
-public class DataInit implements CommandLineRunner {
+public class DataInit implements SmartInitializingSingleton {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DataInit.class);
 
     private final RoleRepository roleRepository;
     private final ServiceClientRepository serviceClientRepository;
+    private final ServiceClientRegistry serviceClientRegistry;
 
     @Value("${internal.clients.hotel-service.client-id:}")
     private String hotelClientId;
@@ -45,15 +52,19 @@ public class DataInit implements CommandLineRunner {
     @Value("${internal.clients.notificacion-service.scope:service:notificacion}")
     private String notificacionClientScope;
 
-    public DataInit(RoleRepository roleRepository, ServiceClientRepository serviceClientRepository) {
+    public DataInit(RoleRepository roleRepository,
+                    ServiceClientRepository serviceClientRepository,
+                    ServiceClientRegistry serviceClientRegistry) {
         this.roleRepository = roleRepository;
         this.serviceClientRepository = serviceClientRepository;
+        this.serviceClientRegistry = serviceClientRegistry;
     }
 
     @Override
-    public void run(String... args) {
+    public void afterSingletonsInstantiated() {
         initRoles();
         initServiceClients();
+        serviceClientRegistry.refresh();
     }
 
     private void initRoles() {
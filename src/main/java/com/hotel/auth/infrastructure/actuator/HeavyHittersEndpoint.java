@@ -0,0 +1,28 @@
+package com.hotel.auth.infrastructure.actuator;
+
+import com.hotel.auth.infrastructure.filters.IpRateLimitFilter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/heavyhitters}: IPs rechazadas recientemente por {@link IpRateLimitFilter}.
+ * Hay que incluirlo en {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+public class HeavyHittersEndpoint {
+
+    private final IpRateLimitFilter ipRateLimitFilter;
+
+    public HeavyHittersEndpoint(IpRateLimitFilter ipRateLimitFilter) {
+        this.ipRateLimitFilter = ipRateLimitFilter;
+    }
+
+    @ReadOperation
+    public List<IpRateLimitFilter.HeavyHitterView> heavyHitters() {
+        return ipRateLimitFilter.heavyHitters();
+    }
+}
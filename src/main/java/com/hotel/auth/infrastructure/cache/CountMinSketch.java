@@ -0,0 +1,63 @@
+package com.hotel.auth.infrastructure.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch de memoria fija: {@code depth} filas de {@code width} contadores. La
+ * estimacion nunca subestima (solo suma colisiones), asi que un limite sobre ella no deja
+ * pasar a nadie que lo supere. Los contadores son atomicos; no hay locks.
+ */
+public final class CountMinSketch {
+
+    private final AtomicIntegerArray counters;
+    private final int width;
+    private final int depth;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("El sketch necesita width y depth >= 1");
+        }
+        // potencia de 2: el indice sale con una mascara
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.depth = depth;
+        this.counters = new AtomicIntegerArray(Math.multiplyExact(this.width, depth));
+    }
+
+    /** Suma una ocurrencia y devuelve la estimacion resultante. */
+    public int add(String key) {
+        long hash = BloomFilter.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int value = counters.incrementAndGet(index(row, h1, h2));
+            estimate = Math.min(estimate, value);
+        }
+        return estimate;
+    }
+
+    public int estimate(String key) {
+        long hash = BloomFilter.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    public long memoryBytes() {
+        return (long) counters.length() * Integer.BYTES;
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * width + ((h1 + (row + 1) * h2) & (width - 1));
+    }
+}
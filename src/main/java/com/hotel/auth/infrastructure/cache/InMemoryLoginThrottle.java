@@ -0,0 +1,134 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.auth.domain.service.LoginThrottle;
+import com.hotel.auth.helpers.exceptions.TooManyAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * {@link LoginThrottle} en memoria de la instancia. Cada email guarda los ultimos
+ * {@code max-failures} fallos en un ring buffer; si entran todos en {@code window-seconds}
+ * la cuenta se bloquea {@code base-lockout-seconds}, duplicando el bloqueo en cada
+ * reincidencia hasta {@code max-lockout-seconds}. Caffeine acota la memoria (tamaño maximo
+ * y expiracion por inactividad) y reparte la contencion; cada entrada se sincroniza sola.
+ * <p>
+ * Lo registra {@code LoginThrottleConfig} solo si no hay otro {@link LoginThrottle}: un backend
+ * compartido entre instancias lo reemplaza declarando su propio bean.
+ */
+public class InMemoryLoginThrottle implements LoginThrottle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryLoginThrottle.class);
+
+    public static final String CACHE_NAME = "loginAttempts";
+
+    private final Cache<String, Attempts> attempts;
+    private final Clock clock;
+    private final int maxFailures;
+    private final long windowMillis;
+    private final long baseLockoutMillis;
+    private final long maxLockoutMillis;
+
+    private final Counter rejections;
+    private final Counter lockouts;
+
+    public InMemoryLoginThrottle(MeterRegistry meterRegistry,
+                                 int maxFailures,
+                                 Duration window,
+                                 Duration baseLockout,
+                                 Duration maxLockout,
+                                 long maximumSize,
+                                 Clock clock) {
+        if (maxFailures < 1) {
+            throw new IllegalArgumentException("application.security.login-throttle.max-failures debe ser >= 1");
+        }
+        this.clock = clock;
+        this.maxFailures = maxFailures;
+        this.windowMillis = window.toMillis();
+        this.baseLockoutMillis = baseLockout.toMillis();
+        this.maxLockoutMillis = Math.max(baseLockout.toMillis(), maxLockout.toMillis());
+        // Una cuenta inactiva mas alla de ventana + bloqueo maximo ya no aporta informacion
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(window.plus(maxLockout))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, attempts, CACHE_NAME);
+        this.rejections = meterRegistry.counter("login_throttle.rejections");
+        this.lockouts = meterRegistry.counter("login_throttle.lockouts");
+    }
+
+    @Override
+    public void checkAllowed(String email) {
+        Attempts entry = attempts.getIfPresent(key(email));
+        if (entry == null) {
+            return;
+        }
+        long remainingMillis = entry.lockedUntil() - clock.millis();
+        if (remainingMillis > 0) {
+            rejections.increment();
+            throw new TooManyAttemptsException("Demasiados intentos fallidos. Intenta nuevamente más tarde",
+                    Math.ceilDiv(remainingMillis, 1000));
+        }
+    }
+
+    @Override
+    public void recordFailure(String email) {
+        Attempts entry = attempts.get(key(email), k -> new Attempts(maxFailures));
+        long lockout = entry.recordFailure(clock.millis(), windowMillis, baseLockoutMillis, maxLockoutMillis);
+        if (lockout > 0) {
+            lockouts.increment();
+            LOGGER.warn("[LOGIN-THROTTLE] Cuenta {} bloqueada {} s tras {} fallos", email, lockout / 1000, maxFailures);
+        }
+    }
+
+    @Override
+    public void recordSuccess(String email) {
+        attempts.invalidate(key(email));
+    }
+
+    // Misma clave que la collation de users.email: "User@x.com" no esquiva el limite de "user@x.com"
+    private static String key(String email) {
+        return KnownEmailFilter.collationKey(email);
+    }
+
+    private static final class Attempts {
+
+        private final long[] failures;
+        private int next;
+        private int count;
+        private int lockoutCount;
+        private long lockedUntil;
+
+        Attempts(int maxFailures) {
+            this.failures = new long[maxFailures];
+        }
+
+        synchronized long lockedUntil() {
+            return lockedUntil;
+        }
+
+        /** Devuelve la duracion del bloqueo aplicado, o 0 si todavia no se supero el limite. */
+        synchronized long recordFailure(long now, long windowMillis, long baseLockoutMillis, long maxLockoutMillis) {
+            failures[next] = now;
+            next = (next + 1) % failures.length;
+            count = Math.min(count + 1, failures.length);
+            // con el buffer lleno, failures[next] es el fallo mas viejo de los ultimos N
+            if (count < failures.length || now - failures[next] > windowMillis) {
+                return 0;
+            }
+            long lockout = Math.min(maxLockoutMillis, baseLockoutMillis << Math.min(lockoutCount, 30));
+            lockoutCount++;
+            lockedUntil = now + lockout;
+            count = 0;
+            return lockout;
+        }
+    }
+}
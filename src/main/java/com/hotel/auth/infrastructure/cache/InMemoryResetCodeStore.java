@@ -0,0 +1,208 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.service.ResetCodeStore;
+import com.hotel.auth.infrastructure.security.ResetCodeHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ResetCodeStore} en memoria de la instancia: el codigo no pasa por MySQL y verificar no
+ * consulta la base (pedir igual lee el usuario y resetear actualiza la password). Cada email guarda el HMAC de su codigo activo, los fallos contra ese codigo y los
+ * ultimos {@code max-attempts} pedidos (ring buffer, como {@link InMemoryLoginThrottle}).
+ * <p>
+ * La expiracion es variable por entrada ({@code expireAfter} de Caffeine, que programa cada
+ * entrada en un timer wheel jerarquico): se descarta un TTL despues de vencer el codigo o al salir
+ * el ultimo pedido de la ventana del rate limit, lo que pase despues, con costo O(1) por entrada.
+ * <p>
+ * Los codigos no se comparten entre instancias: con mas de una hace falta afinidad por email en
+ * el gateway, o el store {@code jpa}.
+ */
+public class InMemoryResetCodeStore implements ResetCodeStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryResetCodeStore.class);
+
+    public static final String CACHE_NAME = "resetCodes";
+
+    private final Cache<String, Entry> entries;
+    private final ResetCodeHasher hasher;
+    private final Clock clock;
+    private final long expirationMillis;
+    private final int maxRequests;
+    private final long requestWindowMillis;
+    private final int maxFailures;
+
+    private final Counter failures;
+    private final Counter blocked;
+
+    public InMemoryResetCodeStore(ResetCodeHasher hasher,
+                                  MeterRegistry meterRegistry,
+                                  Duration expiration,
+                                  int maxRequests,
+                                  Duration requestWindow,
+                                  int maxFailures,
+                                  long maximumSize,
+                                  Clock clock) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("application.security.password-reset-max-attempts debe ser >= 1");
+        }
+        this.hasher = hasher;
+        this.clock = clock;
+        this.expirationMillis = expiration.toMillis();
+        this.maxRequests = maxRequests;
+        this.requestWindowMillis = requestWindow.toMillis();
+        this.maxFailures = maxFailures;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new RetentionExpiry())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+        this.failures = meterRegistry.counter("reset_codes.failures", "store", "memory");
+        this.blocked = meterRegistry.counter("reset_codes.blocked", "store", "memory");
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    @Override
+    public boolean issue(User user, String code) {
+        long now = clock.millis();
+        String hash = hasher.hash(user.getId(), code);
+        boolean[] issued = new boolean[1];
+        // compute: la expiracion de la entrada se recalcula con la retencion nueva
+        entries.asMap().compute(key(user.getEmail()), (key, entry) -> {
+            Entry target = entry != null ? entry : new Entry(maxRequests);
+            issued[0] = target.issue(now, user.getId(), hash, now + expirationMillis, requestWindowMillis);
+            return target;
+        });
+        return issued[0];
+    }
+
+    @Override
+    public Verification verify(String email, String code) {
+        return check(email, code, false);
+    }
+
+    @Override
+    public Verification consume(String email, String code) {
+        return check(email, code, true);
+    }
+
+    long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private Verification check(String email, String code, boolean consume) {
+        Entry entry = entries.getIfPresent(key(email));
+        if (entry == null) {
+            return Verification.INVALID;
+        }
+        synchronized (entry) {
+            if (entry.hash == null) {
+                return Verification.INVALID;
+            }
+            if (entry.expiresAt < clock.millis()) {
+                return Verification.EXPIRED;
+            }
+            if (entry.failures >= maxFailures) {
+                return Verification.BLOCKED;
+            }
+            if (!hasher.matches(entry.hash, entry.userId, code)) {
+                failures.increment();
+                entry.failures++;
+                if (entry.failures < maxFailures) {
+                    return Verification.INVALID;
+                }
+                entry.hash = null;
+                blocked.increment();
+                LOGGER.warn("[PASSWORD RESET] Codigo de {} invalidado tras {} verificaciones fallidas", email, maxFailures);
+                return Verification.BLOCKED;
+            }
+            if (consume) {
+                entry.hash = null;
+            }
+            return Verification.VALID;
+        }
+    }
+
+    // Misma clave que la collation de users.email
+    private static String key(String email) {
+        return KnownEmailFilter.collationKey(email);
+    }
+
+    private static final class Entry {
+
+        private final long[] requests;
+        private int next;
+        private int count;
+
+        private long userId;
+        private String hash;
+        private long expiresAt;
+        private int failures;
+        private long retainUntil;
+
+        Entry(int maxRequests) {
+            this.requests = new long[maxRequests];
+        }
+
+        synchronized boolean issue(long now, long userId, String hash, long expiresAt, long windowMillis) {
+            // con el buffer lleno, requests[next] es el pedido mas viejo de los ultimos N
+            if (count == requests.length && now - requests[next] < windowMillis) {
+                return false;
+            }
+            requests[next] = now;
+            next = (next + 1) % requests.length;
+            count = Math.min(count + 1, requests.length);
+
+            this.userId = userId;
+            this.hash = hash;
+            this.expiresAt = expiresAt;
+            this.failures = 0;
+            // un TTL mas despues de vencer: el usuario ve "expirado" y no "invalido"
+            this.retainUntil = Math.max(expiresAt + (expiresAt - now), now + windowMillis);
+            return true;
+        }
+
+        synchronized long retainUntil() {
+            return retainUntil;
+        }
+    }
+
+    private final class RetentionExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            return remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remainingNanos(Entry value) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.retainUntil() - clock.millis()));
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.hotel.auth.domain.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Collator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter de los emails registrados. Un "no" es definitivo: login y reset de password se
+ * ahorran la consulta a MySQL para emails inexistentes. Un "tal vez" (o filtro todavia sin
+ * cargar) siempre consulta la base, y el registro tambien.
+ * <p>
+ * Se arma al arrancar con un scan en streaming de {@code users}, suma los altas locales al
+ * instante y cada {@code sync-interval-ms} lee las filas con {@code fecha_actualizacion}
+ * posterior a la ultima vista menos {@code sync-overlap-ms}: asi entran las altas y cambios de
+ * email de otras instancias, y tambien las altas que commitean despues de otras mas nuevas.
+ * Un email de otra instancia se ve a mas tardar en el siguiente sync. Si los syncs fallan y el
+ * filtro queda desactualizado, deja de descartar emails hasta que uno vuelva a funcionar.
+ * Las bajas no se pueden quitar de un Bloom filter: desaparecen en el rebuild periodico.
+ */
+@Component
+public class KnownEmailFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KnownEmailFilter.class);
+
+    private static final String METRIC_PREFIX = "email_filter";
+
+    private static final LocalDateTime BEFORE_ANY_USER = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Syncs fallidos seguidos que se toleran antes de dejar de confiar en los "no"
+    private static final int MAX_MISSED_SYNCS = 3;
+
+    private static final ThreadLocal<Collator> COLLATOR = ThreadLocal.withInitial(() -> {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        collator.setDecomposition(Collator.FULL_DECOMPOSITION);
+        return collator;
+    });
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long minimumCapacity;
+    private final double falsePositiveRate;
+    private final Duration syncOverlap;
+    private final long maxStalenessMillis;
+    private final Clock clock;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private volatile LocalDateTime lastChangeSeen = BEFORE_ANY_USER;
+    private volatile long freshAt;
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter staleLookups;
+    private final Counter refreshFailures;
+    private final Timer rebuildTimer;
+
+    @Autowired
+    public KnownEmailFilter(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${application.security.email-filter.enabled:true}") boolean enabled,
+                            @Value("${application.security.email-filter.expected-insertions:100000}") long minimumCapacity,
+                            @Value("${application.security.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${application.security.email-filter.sync-interval-ms:5000}") long syncIntervalMs,
+                            @Value("${application.security.email-filter.sync-overlap-ms:60000}") long syncOverlapMs) {
+        this(userRepository, transactionManager, meterRegistry, enabled, minimumCapacity, falsePositiveRate,
+                Duration.ofMillis(syncIntervalMs), Duration.ofMillis(syncOverlapMs), Clock.systemUTC());
+    }
+
+    public KnownEmailFilter(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            boolean enabled,
+                            long minimumCapacity,
+                            double falsePositiveRate,
+                            Duration syncInterval,
+                            Duration syncOverlap,
+                            Clock clock) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.minimumCapacity = minimumCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlap = syncOverlap;
+        this.maxStalenessMillis = syncInterval.toMillis() * MAX_MISSED_SYNCS;
+        this.clock = clock;
+
+        this.negatives = meterRegistry.counter(METRIC_PREFIX + ".lookups", "result", "negative");
+        this.positives = meterRegistry.counter(METRIC_PREFIX + ".lookups", "result", "positive");
+        this.staleLookups = meterRegistry.counter(METRIC_PREFIX + ".lookups", "result", "stale");
+        this.refreshFailures = meterRegistry.counter(METRIC_PREFIX + ".refresh.failures");
+        this.rebuildTimer = meterRegistry.timer(METRIC_PREFIX + ".rebuild");
+        Gauge.builder(METRIC_PREFIX + ".memory", this, f -> f.filter != null ? f.filter.memoryBytes() : 0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".false_positive_rate", this,
+                        f -> f.filter != null ? f.filter.expectedFalsePositiveRate() : Double.NaN)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".insertions", this, f -> f.filter != null ? f.filter.insertions() : 0)
+                .register(meterRegistry);
+    }
+
+    /** {@code false} solo si el email seguro no existe. */
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null || email == null) {
+            return true;
+        }
+        // Fuera de ASCII la equivalencia del Collator y la de MySQL pueden diferir: va a la base
+        if (!isAscii(email)) {
+            return true;
+        }
+        // Sin syncs recientes pueden faltar altas de otras instancias: un "no" ya no es seguro
+        if (clock.millis() - freshAt > maxStalenessMillis) {
+            staleLookups.increment();
+            return true;
+        }
+        boolean result = current.mightContain(collationKey(email));
+        (result ? positives : negatives).increment();
+        return result;
+    }
+
+    /** Registra un alta (o cambio de email) hecha en esta instancia. */
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = collationKey(email);
+        // building se escribe antes del scan: un alta concurrente cae en alguno de los dos
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    /** Reconstruye el filtro completo; descarta los emails de usuarios borrados y redimensiona. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${application.security.email-filter.rebuild-interval-ms:21600000}",
+            fixedDelayString = "${application.security.email-filter.rebuild-interval-ms:21600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long expected = Math.max(minimumCapacity, userRepository.count() * 2);
+            BloomFilter next = BloomFilter.create(expected, falsePositiveRate);
+            building = next;
+            long startedAt = clock.millis();
+            LocalDateTime lastChange = rebuildTimer.recordCallable(() -> scanAll(next));
+            filter = next;
+            lastChangeSeen = lastChange;
+            freshAt = startedAt;
+            LOGGER.info("[EMAIL-FILTER] Filtro reconstruido: {} emails, {} KiB, k={}",
+                    next.insertions(), next.memoryBytes() / 1024, next.hashFunctions());
+        } catch (Exception e) {
+            refreshFailures.increment();
+            LOGGER.error("[EMAIL-FILTER] Rebuild fallido, se mantiene el filtro anterior: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Suma las altas y cambios de email de otras instancias. Relee una ventana de
+     * {@code sync-overlap-ms} antes del ultimo cambio visto: una fila que commitea tarde (id o
+     * marca menor que otra ya leida) entra en alguno de los syncs siguientes.
+     */
+    @Scheduled(initialDelayString = "${application.security.email-filter.sync-interval-ms:5000}",
+            fixedDelayString = "${application.security.email-filter.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        try {
+            long startedAt = clock.millis();
+            LocalDateTime since = lastChangeSeen.minus(syncOverlap);
+            lastChangeSeen = scanChangedSince(current, since);
+            freshAt = startedAt;
+        } catch (Exception e) {
+            refreshFailures.increment();
+            LOGGER.error("[EMAIL-FILTER] Sync fallido: {}", e.getMessage());
+        }
+    }
+
+    private LocalDateTime scanAll(BloomFilter target) {
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<UserRepository.EmailView> rows = userRepository.streamEmailsAfter(0)) {
+                return putAll(target, rows, BEFORE_ANY_USER);
+            }
+        });
+    }
+
+    private LocalDateTime scanChangedSince(BloomFilter target, LocalDateTime since) {
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<UserRepository.EmailView> rows = userRepository.streamEmailsChangedSince(since)) {
+                return putAll(target, rows, lastChangeSeen);
+            }
+        });
+    }
+
+    // Devuelve la marca de modificacion mas reciente entre la previa y las filas leidas
+    private static LocalDateTime putAll(BloomFilter target, Stream<UserRepository.EmailView> rows,
+                                        LocalDateTime lastChange) {
+        LocalDateTime latest = lastChange;
+        for (UserRepository.EmailView row : (Iterable<UserRepository.EmailView>) rows::iterator) {
+            target.put(collationKey(row.getEmail()));
+            LocalDateTime changedAt = row.getFechaActualizacion();
+            if (changedAt != null && changedAt.isAfter(latest)) {
+                latest = changedAt;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Clave de comparacion equivalente a {@code utf8mb4_unicode_ci} (UCA a nivel primario, sin
+     * espacios finales): "User@X.com", "user@x.com" y "straße"/"strasse" dan la misma clave.
+     * El Collator de Java puede ser mas grueso que MySQL (solo suma falsos positivos).
+     */
+    static String collationKey(String email) {
+        byte[] key = COLLATOR.get().getCollationKey(email.stripTrailing()).toByteArray();
+        return new String(key, StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean isAscii(String email) {
+        for (int i = 0; i < email.length(); i++) {
+            if (email.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
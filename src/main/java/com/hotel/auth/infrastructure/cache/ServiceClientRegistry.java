@@ -0,0 +1,101 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.hotel.auth.domain.model.ServiceClient;
+import com.hotel.auth.domain.repository.ServiceClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Copia inmutable de los {@link ServiceClient} habilitados. {@code /oauth/token} resuelve
+ * clientes con un lookup en memoria; la base solo se consulta al refrescar (al arrancar,
+ * desde {@code DataInit} antes de abrir el puerto HTTP, y periodicamente). Cada refresh reemplaza el mapa completo
+ * de forma atomica.
+ */
+@Component
+public class ServiceClientRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceClientRegistry.class);
+
+    private static final String METRIC_PREFIX = "service_clients";
+
+    private final ServiceClientRepository serviceClientRepository;
+    private final ServiceTokenCache serviceTokenCache;
+    private volatile Map<String, RegisteredClient> clients = Map.of();
+
+    private final Counter lookupHits;
+    private final Counter lookupMisses;
+    private final Counter refreshFailures;
+    private final Timer refreshTimer;
+
+    public ServiceClientRegistry(ServiceClientRepository serviceClientRepository,
+                                 ServiceTokenCache serviceTokenCache,
+                                 MeterRegistry meterRegistry) {
+        this.serviceClientRepository = serviceClientRepository;
+        this.serviceTokenCache = serviceTokenCache;
+        this.lookupHits = meterRegistry.counter(METRIC_PREFIX + ".lookups", "result", "hit");
+        this.lookupMisses = meterRegistry.counter(METRIC_PREFIX + ".lookups", "result", "miss");
+        this.refreshFailures = meterRegistry.counter(METRIC_PREFIX + ".refresh.failures");
+        this.refreshTimer = meterRegistry.timer(METRIC_PREFIX + ".refresh");
+        Gauge.builder(METRIC_PREFIX + ".size", this, registry -> registry.clients.size())
+                .register(meterRegistry);
+    }
+
+    public Optional<RegisteredClient> find(String clientId) {
+        RegisteredClient client = clientId != null ? clients.get(clientId) : null;
+        (client != null ? lookupHits : lookupMisses).increment();
+        return Optional.ofNullable(client);
+    }
+
+    /**
+     * Recarga los clientes habilitados. Si la base falla se mantiene el mapa anterior;
+     * los clientes que desaparecen o cambian pierden sus tokens cacheados.
+     */
+    @Scheduled(initialDelayString = "${application.service-clients.refresh-interval-ms:60000}",
+            fixedDelayString = "${application.service-clients.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        Map<String, RegisteredClient> loaded;
+        try {
+            loaded = refreshTimer.recordCallable(() -> serviceClientRepository.findAllByEnabledTrue().stream()
+                    .map(RegisteredClient::from)
+                    .collect(Collectors.toUnmodifiableMap(RegisteredClient::clientId, Function.identity())));
+        } catch (Exception e) {
+            refreshFailures.increment();
+            LOGGER.error("[SERVICE-CLIENTS] Refresh fallido, se mantienen {} clientes: {}", clients.size(), e.getMessage());
+            return;
+        }
+
+        Map<String, RegisteredClient> previous = clients;
+        clients = loaded;
+        previous.forEach((clientId, client) -> {
+            if (!client.equals(loaded.get(clientId))) {
+                serviceTokenCache.evict(clientId);
+            }
+        });
+        if (!previous.equals(loaded)) {
+            LOGGER.info("[SERVICE-CLIENTS] Registro actualizado: {} clientes habilitados", loaded.size());
+        }
+    }
+
+    public record RegisteredClient(String clientId, String clientSecret, String scope) {
+
+        static RegisteredClient from(ServiceClient client) {
+            return new RegisteredClient(client.getClientId(), client.getClientSecret(), client.getScope());
+        }
+
+        @Override
+        public String toString() {
+            return "RegisteredClient{clientId='" + clientId + "', scope='" + scope + "'}";
+        }
+    }
+}
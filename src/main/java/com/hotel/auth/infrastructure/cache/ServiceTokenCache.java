@@ -0,0 +1,70 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.auth.domain.service.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Tokens de servicio ya firmados por (clientId, scope). Se reutilizan hasta que pasa
+ * {@code refresh-fraction} de su vida; despues el siguiente pedido firma uno nuevo.
+ * Pedidos concurrentes del mismo cliente esperan a una unica firma ({@link Cache#get}).
+ */
+@Component
+public class ServiceTokenCache {
+
+    public static final String CACHE_NAME = "serviceTokens";
+
+    private final Cache<Key, ServiceToken> cache;
+    private final TokenService tokenService;
+    private final Duration tokenLifetime;
+
+    public ServiceTokenCache(TokenService tokenService,
+                             MeterRegistry meterRegistry,
+                             @Value("${application.security.jwt.expiration}") long jwtExpirationSeconds,
+                             @Value("${application.cache.service-tokens.refresh-fraction:0.5}") double refreshFraction,
+                             @Value("${application.cache.service-tokens.maximum-size:1000}") long maximumSize) {
+        if (refreshFraction <= 0 || refreshFraction > 1) {
+            throw new IllegalArgumentException("application.cache.service-tokens.refresh-fraction debe estar en (0, 1]");
+        }
+        this.tokenService = tokenService;
+        this.tokenLifetime = Duration.ofSeconds(jwtExpirationSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofNanos((long) (tokenLifetime.toNanos() * refreshFraction)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public ServiceToken get(String clientId, String scope) {
+        return cache.get(new Key(clientId, scope), this::issue);
+    }
+
+    /** Descarta los tokens cacheados del cliente (ej. al deshabilitarlo o rotar su secret). */
+    public void evict(String clientId) {
+        cache.asMap().keySet().removeIf(key -> key.clientId().equals(clientId));
+    }
+
+    private ServiceToken issue(Key key) {
+        // expiresAt se toma antes de firmar: nunca queda despues del exp real del JWT
+        Instant expiresAt = Instant.now().plus(tokenLifetime);
+        return new ServiceToken(tokenService.generateServiceToken(key.clientId(), key.scope()), expiresAt);
+    }
+
+    public record ServiceToken(String value, Instant expiresAt) {
+
+        public long expiresInSeconds() {
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).getSeconds());
+        }
+    }
+
+    private record Key(String clientId, String scope) {
+    }
+}
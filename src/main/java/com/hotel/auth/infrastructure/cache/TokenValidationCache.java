@@ -0,0 +1,94 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hotel.auth.api.dto.TokenValidationResponse;
+import com.hotel.auth.domain.model.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Resultados de {@code /auth/validate} indexados por SHA-256 del token. Cada entrada
+ * vive hasta min(exp del token, ceiling configurado), asi una validacion repetida no
+ * paga ni la verificacion RSA ni la consulta del usuario.
+ */
+@Component
+public class TokenValidationCache {
+
+    public static final String CACHE_NAME = "tokenValidations";
+
+    private final Cache<String, CachedValidation> cache;
+    private final Duration maxTtl;
+
+    public TokenValidationCache(MeterRegistry meterRegistry,
+                                @Value("${application.cache.token-validation.maximum-size:50000}") long maximumSize,
+                                @Value("${application.cache.token-validation.max-ttl-seconds:60}") long maxTtlSeconds) {
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ValidationExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public TokenValidationResponse get(String token) {
+        CachedValidation cached = cache.getIfPresent(digest(token));
+        return cached != null ? cached.response() : null;
+    }
+
+    public void put(VerifiedToken verifiedToken, TokenValidationResponse response) {
+        Duration ttl = maxTtl;
+        Instant expiresAt = verifiedToken.getExpiresAt();
+        if (expiresAt != null) {
+            Duration untilExpiry = Duration.between(Instant.now(), expiresAt);
+            if (untilExpiry.compareTo(ttl) < 0) {
+                ttl = untilExpiry;
+            }
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        cache.put(digest(verifiedToken.getTokenValue()), new CachedValidation(response, ttl.toNanos()));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record CachedValidation(TokenValidationResponse response, long ttlNanos) {
+    }
+
+    private static final class ValidationExpiry implements Expiry<String, CachedValidation> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedValidation value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
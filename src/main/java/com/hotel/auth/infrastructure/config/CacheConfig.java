@@ -0,0 +1,38 @@
+package com.hotel.auth.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Usuarios por email: usado por loadUserByUsername y UserService.findByEmail
+    public static final String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
+    @Value("${application.cache.users.maximum-size:10000}")
+    private long usersMaximumSize;
+
+    @Value("${application.cache.users.ttl-seconds:300}")
+    private long usersTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // recordStats: hit/miss/eviction quedan expuestos como cache.* en /actuator/prometheus
+        cacheManager.registerCustomCache(USERS_BY_EMAIL_CACHE, Caffeine.newBuilder()
+                .maximumSize(usersMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(usersTtlSeconds))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hotel.auth.infrastructure.config;
+
+import com.hotel.auth.domain.service.LoginThrottle;
+import com.hotel.auth.infrastructure.cache.InMemoryLoginThrottle;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * {@link InMemoryLoginThrottle} por defecto. Se registra como auto-configuracion (ver
+ * {@code META-INF/spring/...AutoConfiguration.imports}) para que {@link ConditionalOnMissingBean}
+ * se evalue despues de todos los beans del servicio: cualquier otro {@link LoginThrottle},
+ * declarado con {@code @Component} o {@code @Bean}, lo reemplaza.
+ */
+@AutoConfiguration
+public class LoginThrottleConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(LoginThrottle.class)
+    InMemoryLoginThrottle loginThrottle(MeterRegistry meterRegistry,
+                                        @Value("${application.security.login-throttle.max-failures:5}") int maxFailures,
+                                        @Value("${application.security.login-throttle.window-seconds:300}") long windowSeconds,
+                                        @Value("${application.security.login-throttle.base-lockout-seconds:30}") long baseLockoutSeconds,
+                                        @Value("${application.security.login-throttle.max-lockout-seconds:3600}") long maxLockoutSeconds,
+                                        @Value("${application.security.login-throttle.maximum-size:100000}") long maximumSize) {
+        return new InMemoryLoginThrottle(meterRegistry, maxFailures, Duration.ofSeconds(windowSeconds),
+                Duration.ofSeconds(baseLockoutSeconds), Duration.ofSeconds(maxLockoutSeconds), maximumSize,
+                Clock.systemUTC());
+    }
+}
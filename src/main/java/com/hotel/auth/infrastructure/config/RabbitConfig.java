@@ -1,6 +1,7 @@
 package com.hotel.auth.infrastructure.config;
 
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -32,7 +33,14 @@ public class RabbitConfig {
     }
 
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
+                                         MessageConverter messageConverter,
+                                         @Value("${application.events.publisher.confirms:true}") boolean confirms) {
+        // EventPublisher espera los confirms por lote con waitForConfirmsOrDie: necesita canales en modo confirm
+        if (confirms && connectionFactory instanceof CachingConnectionFactory caching
+                && !caching.isSimplePublisherConfirms() && !caching.isPublisherConfirms()) {
+            caching.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        }
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(messageConverter);
         return rabbitTemplate;
@@ -0,0 +1,57 @@
+package com.hotel.auth.infrastructure.config;
+
+import com.hotel.auth.application.service.JpaResetCodeStore;
+import com.hotel.auth.domain.repository.PasswordResetTokenRepository;
+import com.hotel.auth.domain.repository.UserRepository;
+import com.hotel.auth.domain.service.ResetCodeStore;
+import com.hotel.auth.infrastructure.cache.InMemoryResetCodeStore;
+import com.hotel.auth.infrastructure.security.ResetCodeHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class ResetCodeStoreConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResetCodeStoreConfig.class);
+
+    private static final String JPA_STORE = "jpa";
+    private static final String MEMORY_STORE = "memory";
+
+    @Bean
+    ResetCodeStore resetCodeStore(PasswordResetTokenRepository passwordResetTokenRepository,
+                                  UserRepository userRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${application.security.reset-codes.store:jpa}") String store,
+                                  @Value("${application.security.reset-codes.pepper:}") String pepper,
+                                  @Value("${application.security.reset-codes.max-failed-attempts:5}") int maxFailures,
+                                  @Value("${application.security.reset-codes.maximum-size:100000}") long maximumSize,
+                                  @Value("${application.security.password-reset-expiration-minutes:30}") long expirationMinutes,
+                                  @Value("${application.security.password-reset-max-attempts:3}") int maxRequests,
+                                  @Value("${application.security.password-reset-block-minutes:15}") long blockMinutes) {
+        ResetCodeHasher hasher = new ResetCodeHasher(pepper);
+        Duration expiration = Duration.ofMinutes(expirationMinutes);
+        Duration requestWindow = Duration.ofMinutes(blockMinutes);
+        if (pepper.isBlank()) {
+            LOGGER.warn("[PASSWORD RESET] reset-codes.pepper vacio: los HMAC de los codigos usan una clave fija");
+        }
+        if (MEMORY_STORE.equals(store)) {
+            LOGGER.info("[PASSWORD RESET] Codigos de reset en memoria (por instancia)");
+            return new InMemoryResetCodeStore(hasher, meterRegistry, expiration, maxRequests, requestWindow,
+                    maxFailures, maximumSize, Clock.systemUTC());
+        }
+        if (!JPA_STORE.equals(store)) {
+            throw new IllegalStateException("application.security.reset-codes.store desconocido: " + store);
+        }
+        return new JpaResetCodeStore(passwordResetTokenRepository, userRepository, hasher, transactionManager,
+                meterRegistry, expiration, maxRequests, requestWindow, maxFailures);
+    }
+}
@@ -1,8 +1,11 @@
 package com.hotel.auth.infrastructure.config;
 
+import com.hotel.auth.infrastructure.controllers.UserExportController;
+import com.hotel.auth.infrastructure.filters.IpRateLimitFilter;
 import com.hotel.auth.infrastructure.filters.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,8 +20,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    private final IpRateLimitFilter ipRateLimitFilter;
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, IpRateLimitFilter ipRateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.ipRateLimitFilter = ipRateLimitFilter;
     }
 
     @Bean
@@ -31,15 +36,23 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/auth/**",
                                 "/oauth/token",
+                                "/.well-known/**",
                                 "/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/actuator/**",
                                 "/error"
                         ).permitAll()
+                        // listado y export completos: solo administradores
+                        .requestMatchers(HttpMethod.GET, "/users", UserExportController.EXPORT_PATH).hasRole("ADMIN")
+                        // devuelve email y telefono en lote: otros microservicios o administradores
+                        .requestMatchers(HttpMethod.POST, "/users/batch-get")
+                        .hasAnyAuthority("ROLE_ADMIN", JwtAuthenticationFilter.SERVICE_CLIENT_AUTHORITY)
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // corta a las IPs abusivas antes de tocar el body, la base o BCrypt
+                .addFilterBefore(ipRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -10,15 +10,26 @@ import com.hotel.auth.api.dto.PasswordResetRequest;
 import com.hotel.auth.api.dto.PasswordResetVerifyRequest;
 import com.hotel.auth.api.dto.RefreshTokenRequest;
 import com.hotel.auth.api.dto.RegisterRequest;
+import com.hotel.auth.api.dto.TokenValidationBatchResponse;
 import com.hotel.auth.api.dto.TokenValidationResponse;
+import com.hotel.auth.api.dto.UserBatchGetRequest;
+import com.hotel.auth.api.dto.UserBatchGetResponse;
+import com.hotel.auth.api.dto.UserPage;
 import com.hotel.auth.api.dto.UserResponse;
+import com.hotel.auth.api.dto.ValidateTokenBatchRequest;
 import com.hotel.auth.api.dto.ValidateTokenRequest;
 import com.hotel.auth.application.mapper.AuthMapper;
+import com.hotel.auth.domain.model.AuthTokens;
+import com.hotel.auth.domain.model.JwtPrincipal;
 import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.model.VerifiedToken;
 import com.hotel.auth.domain.service.AuthService;
 import com.hotel.auth.domain.service.TokenService;
 import com.hotel.auth.domain.service.UserService;
 import com.hotel.auth.helpers.exceptions.EntityNotFoundException;
+import com.hotel.auth.helpers.exceptions.TokenExpiredException;
+import com.hotel.auth.helpers.exceptions.ValidationException;
+import com.hotel.auth.infrastructure.cache.TokenValidationCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,8 +39,15 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.NativeWebRequest;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 public class AuthController implements AuthApi, UsersApi {
@@ -37,64 +55,55 @@ public class AuthController implements AuthApi, UsersApi {
     private final AuthService authService;
     private final TokenService tokenService;
     private final UserService userService;
+    private final TokenValidationCache tokenValidationCache;
 
     @Value("${application.security.jwt.expiration}")
     private int jwtExpiration;
 
-    public AuthController(AuthService authService, TokenService tokenService, UserService userService) {
+    @Value("${application.security.validate-batch.max-size:100}")
+    private int validateBatchMaxSize;
+
+    @Value("${application.users.page-max-size:500}")
+    private int userPageMaxSize;
+
+    @Value("${application.users.batch-get.max-size:100}")
+    private int userBatchGetMaxSize;
+
+    public AuthController(AuthService authService,
+                          TokenService tokenService,
+                          UserService userService,
+                          TokenValidationCache tokenValidationCache) {
         this.authService = authService;
         this.tokenService = tokenService;
         this.userService = userService;
+        this.tokenValidationCache = tokenValidationCache;
     }
 
     @Override
     public ResponseEntity<AuthResponse> register(RegisterRequest registerRequest) {
-        authService.createUser(registerRequest);
-
-        LoginRequest loginRequest = new LoginRequest();
-        loginRequest.setEmail(registerRequest.getEmail());
-        loginRequest.setPassword(registerRequest.getPassword());
+        AuthTokens tokens = authService.register(registerRequest);
 
-        Map<String, String> token = authService.login(loginRequest);
-        User user = userService.findByEmail(registerRequest.getEmail()).orElseThrow(
-                () -> new EntityNotFoundException("User", registerRequest.getEmail())
-        );
-
-        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                user,
-                null,
-                user.getAuthorities()
-        );
-        String refreshToken = tokenService.generateRefreshToken(authentication);
-
-        AuthResponse authResponse = AuthMapper.toAuthResponse(user, token.get("access-token"), refreshToken, jwtExpiration);
+        AuthResponse authResponse = AuthMapper.toAuthResponse(
+                tokens.user(), tokens.accessToken(), tokens.refreshToken(), jwtExpiration);
         return ResponseEntity.status(HttpStatus.CREATED).body(authResponse);
     }
 
     @Override
     public ResponseEntity<AuthResponse> login(LoginRequest loginRequest) {
-        Map<String, String> token = authService.login(loginRequest);
-        User user = userService.findByEmail(loginRequest.getEmail()).orElseThrow(
-                () -> new EntityNotFoundException("User", loginRequest.getEmail())
-        );
+        AuthTokens tokens = authService.login(loginRequest);
 
-        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                user,
-                null,
-                user.getAuthorities()
-        );
-        String refreshToken = tokenService.generateRefreshToken(authentication);
-
-        AuthResponse authResponse = AuthMapper.toAuthResponse(user, token.get("access-token"), refreshToken, jwtExpiration);
+        AuthResponse authResponse = AuthMapper.toAuthResponse(
+                tokens.user(), tokens.accessToken(), tokens.refreshToken(), jwtExpiration);
         return ResponseEntity.ok(authResponse);
     }
 
     @Override
     public ResponseEntity<AuthResponse> refreshToken(RefreshTokenRequest refreshTokenRequest) {
-        String refreshToken = refreshTokenRequest.getRefreshToken();
-        authService.validateToken(refreshToken);
-        String email = authService.getUserFromToken(refreshToken);
+        VerifiedToken verifiedToken = authService.verifyToken(refreshTokenRequest.getRefreshToken());
+        String email = verifiedToken.getSubject();
 
+        // A diferencia del login, el refresh si relee al usuario (cache por email): uno borrado
+        // no renueva, y el access token nuevo lleva el rol actual y no el del refresh token
         User user = userService.findByEmail(email)
                 .orElseThrow(() -> new EntityNotFoundException("User", email));
 
@@ -104,21 +113,77 @@ public class AuthController implements AuthApi, UsersApi {
                 user.getAuthorities()
         );
 
-        String accessToken = tokenService.generateToken(authentication);
-        String newRefreshToken = tokenService.generateRefreshToken(authentication);
-        AuthResponse authResponse = AuthMapper.toAuthResponse(user, accessToken, newRefreshToken, jwtExpiration);
+        AuthTokens tokens = tokenService.generateTokens(authentication);
+        AuthResponse authResponse = AuthMapper.toAuthResponse(user, tokens.accessToken(), tokens.refreshToken(), jwtExpiration);
         return ResponseEntity.ok(authResponse);
     }
 
     @Override
     public ResponseEntity<TokenValidationResponse> validateToken(ValidateTokenRequest request) {
-        authService.validateToken(request.getToken());
-        String email = authService.getUserFromToken(request.getToken());
+        TokenValidationResponse cached = tokenValidationCache.get(request.getToken());
+        if (cached != null) {
+            return ResponseEntity.ok(cached);
+        }
+
+        VerifiedToken verifiedToken = authService.verifyToken(request.getToken());
+        String email = verifiedToken.getSubject();
 
         User user = userService.findByEmail(email)
                 .orElseThrow(() -> new EntityNotFoundException("User", email));
 
         TokenValidationResponse response = AuthMapper.toTokenValidationResponse(user, true);
+        tokenValidationCache.put(verifiedToken, response);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<TokenValidationBatchResponse> validateTokenBatch(ValidateTokenBatchRequest request) {
+        List<String> tokens = request.getTokens();
+        if (tokens.size() > validateBatchMaxSize) {
+            throw new ValidationException("tokens", "Máximo " + validateBatchMaxSize + " tokens por lote");
+        }
+        if (tokens.stream().anyMatch(token -> token == null || token.isBlank())) {
+            throw new ValidationException("tokens", "tokens no puede contener valores vacíos");
+        }
+
+        // Cada token distinto se verifica una sola vez; los que no estan en cache
+        // se resuelven con una unica consulta por todos sus emails
+        Map<String, TokenValidationResponse> results = new HashMap<>();
+        Map<String, VerifiedToken> pending = new LinkedHashMap<>();
+        for (String token : tokens) {
+            if (results.containsKey(token) || pending.containsKey(token)) {
+                continue;
+            }
+            TokenValidationResponse cached = tokenValidationCache.get(token);
+            if (cached != null) {
+                results.put(token, cached);
+                continue;
+            }
+            try {
+                pending.put(token, authService.verifyToken(token));
+            } catch (TokenExpiredException ex) {
+                results.put(token, AuthMapper.toInvalidTokenValidationResponse("Token inválido o expirado"));
+            }
+        }
+
+        Set<String> emails = pending.values().stream()
+                .map(VerifiedToken::getSubject)
+                .collect(Collectors.toSet());
+        Map<String, User> users = userService.findByEmails(emails);
+
+        pending.forEach((token, verifiedToken) -> {
+            User user = users.get(verifiedToken.getSubject());
+            if (user == null) {
+                results.put(token, AuthMapper.toInvalidTokenValidationResponse("Usuario no encontrado"));
+                return;
+            }
+            TokenValidationResponse response = AuthMapper.toTokenValidationResponse(user, true);
+            tokenValidationCache.put(verifiedToken, response);
+            results.put(token, response);
+        });
+
+        TokenValidationBatchResponse response = new TokenValidationBatchResponse();
+        response.setResults(tokens.stream().map(results::get).toList());
         return ResponseEntity.ok(response);
     }
 
@@ -149,24 +214,64 @@ public class AuthController implements AuthApi, UsersApi {
     @Override
     public ResponseEntity<UserResponse> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !(authentication.getPrincipal() instanceof User)) {
-            throw new EntityNotFoundException("User", "current");
-        }
+        String email = currentEmail(authentication)
+                .orElseThrow(() -> new EntityNotFoundException("User", "current"));
 
-        User user = (User) authentication.getPrincipal();
-        User currentUser = userService.findByEmail(user.getEmail())
-                .orElseThrow(() -> new EntityNotFoundException("User", user.getEmail()));
+        User currentUser = userService.findByEmail(email)
+                .orElseThrow(() -> new EntityNotFoundException("User", email));
 
         UserResponse userResponse = AuthMapper.toUserResponse(currentUser);
         return ResponseEntity.ok(userResponse);
     }
 
+    @Override
+    public ResponseEntity<UserPage> listUsers(Long afterId, Integer limit, String role, Boolean activo) {
+        if (limit < 1 || limit > userPageMaxSize) {
+            throw new ValidationException("limit", "limit debe estar entre 1 y " + userPageMaxSize);
+        }
+        return ResponseEntity.ok(userService.findPage(afterId, limit, role, activo));
+    }
+
+    @Override
+    public ResponseEntity<UserBatchGetResponse> batchGetUsers(UserBatchGetRequest request) {
+        List<Long> ids = request.getIds();
+        if (ids.size() > userBatchGetMaxSize) {
+            throw new ValidationException("ids", "Máximo " + userBatchGetMaxSize + " ids por lote");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("ids", "ids no puede contener valores nulos");
+        }
+
+        // Los ids repetidos se consultan una vez; la respuesta respeta el orden del request
+        Map<Long, UserResponse> users = userService.findByIds(new LinkedHashSet<>(ids));
+
+        UserBatchGetResponse response = new UserBatchGetResponse();
+        response.setResults(ids.stream()
+                .map(id -> AuthMapper.toUserLookupResult(id, users.get(id)))
+                .toList());
+        return ResponseEntity.ok(response);
+    }
+
     @Override
     public ResponseEntity<UserResponse> getUserById(Long id) {
         User user = authService.getUser(id);
         return ResponseEntity.ok(AuthMapper.toUserResponse(user));
     }
 
+    private Optional<String> currentEmail(Authentication authentication) {
+        if (authentication == null) {
+            return Optional.empty();
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return Optional.ofNullable(user.getEmail());
+        }
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            return Optional.ofNullable(jwtPrincipal.getEmail());
+        }
+        return Optional.empty();
+    }
+
     @Override
     public Optional<NativeWebRequest> getRequest() {
         return Optional.empty();
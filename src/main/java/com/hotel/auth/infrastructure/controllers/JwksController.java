@@ -0,0 +1,102 @@
+package com.hotel.auth.infrastructure.controllers;
+
+import com.hotel.auth.infrastructure.security.JwtKeyRing;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Publica las claves publicas de firma para que gateway y microservicios verifiquen
+ * los JWT localmente, sin llamar a {@code /auth/validate}.
+ */
+@RestController
+public class JwksController {
+
+    public static final String JWKS_PATH = "/.well-known/jwks.json";
+    public static final String OPENID_CONFIGURATION_PATH = "/.well-known/openid-configuration";
+
+    private final JwtKeyRing keyRing;
+
+    @Value("${application.security.jwt.issuer}")
+    private String jwtIssuer;
+
+    @Value("${application.security.jwks.cache-max-age-seconds:3600}")
+    private long jwksCacheMaxAgeSeconds;
+
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @GetMapping(value = JWKS_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> jwks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        JWKSet publicJwkSet = keyRing.publicJwkSet();
+        String etag = etag(publicJwkSet);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(jwksCacheMaxAgeSeconds)).cachePublic();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(publicJwkSet.toJSONObject());
+    }
+
+    @GetMapping(value = OPENID_CONFIGURATION_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> openidConfiguration() {
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+        List<String> algorithms = keyRing.publicJwkSet().getKeys().stream()
+                .map(JWK::getAlgorithm)
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .distinct()
+                .toList();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("issuer", jwtIssuer);
+        body.put("jwks_uri", baseUrl + JWKS_PATH);
+        body.put("token_endpoint", baseUrl + "/oauth/token");
+        body.put("grant_types_supported", List.of("client_credentials"));
+        body.put("token_endpoint_auth_methods_supported", List.of("client_secret_post"));
+        body.put("response_types_supported", List.of("token"));
+        body.put("subject_types_supported", List.of("public"));
+        body.put("id_token_signing_alg_values_supported", algorithms);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwksCacheMaxAgeSeconds)).cachePublic())
+                .body(body);
+    }
+
+    private static String etag(JWKSet publicJwkSet) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(publicJwkSet.toString().getBytes(StandardCharsets.UTF_8));
+            return '"' + HexFormat.of().formatHex(hash, 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package com.hotel.auth.infrastructure.controllers;
 
-import com.hotel.auth.domain.model.ServiceClient;
-import com.hotel.auth.domain.repository.ServiceClientRepository;
-import com.hotel.auth.domain.service.TokenService;
-import org.springframework.beans.factory.annotation.Value;
+import com.hotel.auth.infrastructure.cache.ServiceClientRegistry;
+import com.hotel.auth.infrastructure.cache.ServiceTokenCache;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,15 +14,12 @@ import java.util.Map;
 @RestController
 public class ServiceTokenController {
 
-    private final ServiceClientRepository serviceClientRepository;
-    private final TokenService tokenService;
+    private final ServiceClientRegistry serviceClientRegistry;
+    private final ServiceTokenCache serviceTokenCache;
 
-    @Value("${application.security.jwt.expiration}")
-    private int jwtExpiration;
-
-    public ServiceTokenController(ServiceClientRepository serviceClientRepository, TokenService tokenService) {
-        this.serviceClientRepository = serviceClientRepository;
-        this.tokenService = tokenService;
+    public ServiceTokenController(ServiceClientRegistry serviceClientRegistry, ServiceTokenCache serviceTokenCache) {
+        this.serviceClientRegistry = serviceClientRegistry;
+        this.serviceTokenCache = serviceTokenCache;
     }
 
     @PostMapping(value = "/oauth/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
@@ -39,21 +34,20 @@ public class ServiceTokenController {
                     .body(Map.of("error", "unsupported_grant_type"));
         }
 
-        ServiceClient client = serviceClientRepository.findByClientIdAndEnabledTrue(clientId)
-                .orElse(null);
+        ServiceClientRegistry.RegisteredClient client = serviceClientRegistry.find(clientId).orElse(null);
 
-        if (client == null || !clientSecret.equals(client.getClientSecret())) {
+        if (client == null || !clientSecret.equals(client.clientSecret())) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "invalid_client"));
         }
 
-        String token = tokenService.generateServiceToken(client.getClientId(), client.getScope());
+        ServiceTokenCache.ServiceToken token = serviceTokenCache.get(client.clientId(), client.scope());
 
         return ResponseEntity.ok(Map.of(
-                "access_token", token,
+                "access_token", token.value(),
                 "token_type", "bearer",
-                "expires_in", jwtExpiration,
-                "scope", client.getScope()
+                "expires_in", token.expiresInSeconds(),
+                "scope", client.scope()
         ));
     }
 }
@@ -0,0 +1,66 @@
+package com.hotel.auth.infrastructure.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.auth.domain.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Exporta todos los usuarios como NDJSON (un {@code UserResponse} por linea). Las filas salen
+ * de un cursor JDBC y se escriben a medida que llegan: la memoria no depende de la cantidad de
+ * usuarios. Fuera del contrato OpenAPI (como el JWKS) porque el generador no modela respuestas
+ * en streaming; la variante paginada es {@code GET /users}.
+ * <p>
+ * La conexion a MySQL queda tomada mientras dura la descarga.
+ */
+@RestController
+public class UserExportController {
+
+    public static final String EXPORT_PATH = "/users/export";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserExportController.class);
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    public UserExportController(UserService userService, ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(value = EXPORT_PATH, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String role,
+                                                             @RequestParam(required = false) Boolean activo) {
+        StreamingResponseBody body = out -> {
+            // el generador no cierra la salida: el servlet la cierra al terminar
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                long exported = userService.forEachUser(role, activo, user -> {
+                    try {
+                        generator.writeObject(user);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                LOGGER.info("[USERS] Export NDJSON: {} usuarios", exported);
+            } catch (UncheckedIOException e) {
+                // el cliente corto la descarga: el cursor ya se cerro con la transaccion
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,89 @@
+package com.hotel.auth.infrastructure.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.auth.domain.model.OutboxEvent;
+import com.hotel.auth.domain.repository.OutboxEventRepository;
+import com.hotel.auth.infrastructure.config.RabbitConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Registra los eventos de alta de usuario y reset de password en {@code event_outbox} dentro
+ * de la transaccion del cambio: si la transaccion hace rollback el evento no existe, y si
+ * commitea {@link OutboxRelay} lo entrega aunque RabbitMQ este caido en ese momento.
+ * <p>
+ * Con {@code application.events.outbox.enabled=false} se publican con {@link EventPublisher}
+ * despues del commit (sin garantia de entrega).
+ */
+@Component
+public class EventOutbox {
+
+    // Tipo de cada payload por routing key, para que el relay publique el mismo objeto (y el mismo __TypeId__)
+    static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            RabbitConfig.USER_REGISTERED_ROUTING_KEY, UserRegisteredEvent.class,
+            RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, PasswordResetEvent.class,
+            RabbitConfig.USER_LOGIN_ROUTING_KEY, UserLoginEvent.class
+    );
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public EventOutbox(OutboxEventRepository outboxEventRepository,
+                       EventPublisher eventPublisher,
+                       ObjectMapper objectMapper,
+                       @Value("${application.events.outbox.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userRegistered(UserRegisteredEvent event) {
+        if (enabled) {
+            append(RabbitConfig.USER_REGISTERED_ROUTING_KEY, event);
+        } else {
+            afterCommit(() -> eventPublisher.publishUserRegistered(event));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void passwordReset(PasswordResetEvent event) {
+        if (enabled) {
+            append(RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, event);
+        } else {
+            afterCommit(() -> eventPublisher.publishPasswordReset(event));
+        }
+    }
+
+    private void append(String routingKey, Object event) {
+        OutboxEvent row = new OutboxEvent();
+        row.setRoutingKey(routingKey);
+        row.setCreatedAt(LocalDateTime.now());
+        try {
+            row.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + routingKey, e);
+        }
+        outboxEventRepository.save(row);
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,62 +1,268 @@
 package com.hotel.auth.infrastructure.events;
 
 import com.hotel.auth.infrastructure.config.RabbitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica los eventos fuera del thread del request: los {@code publish*} encolan en una cola
+ * acotada y un thread de fondo la vacia en lotes de hasta {@code batch-size}, esperando los
+ * publisher confirms del broker por lote. Un broker lento ya no suma latencia al login.
+ * <p>
+ * Con la cola llena cada tipo de evento aplica su {@link OverflowPolicy}: el login se descarta,
+ * registro y reset esperan o se publican en el thread del request. Un lote que falla se
+ * reintenta {@code max-attempts} veces. Lo que se iba a descartar va al {@link EventSpool} en
+ * disco (si tiene lugar) y el mismo worker lo re-publica en orden cuando el broker responde;
+ * el reset de password, que lleva el codigo en claro, nunca se escribe al spool.
+ */
 @Component
-public class EventPublisher {
+public class EventPublisher implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EventPublisher.class);
 
+    private static final String METRIC_PREFIX = "events";
+
     private final RabbitTemplate rabbitTemplate;
+    private final EventSpool eventSpool;
+    private final MeterRegistry meterRegistry;
+    private final String eventsExchange;
+    private final BlockingQueue<PendingEvent> queue;
+    private final int batchSize;
+    private final boolean confirms;
+    private final long confirmTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long blockTimeoutMillis;
+    private final long replayIntervalNanos;
+    private final Map<String, OverflowPolicy> overflowPolicies;
+
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long nextReplayAt;
 
-    @Value("${app.rabbitmq.sesion.exchange:hotel.events}")
-    private String eventsExchange;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> latencies = new ConcurrentHashMap<>();
 
-    public EventPublisher(RabbitTemplate rabbitTemplate) {
+    public EventPublisher(RabbitTemplate rabbitTemplate,
+                          EventSpool eventSpool,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.rabbitmq.sesion.exchange:hotel.events}") String eventsExchange,
+                          @Value("${application.events.publisher.queue-capacity:10000}") int queueCapacity,
+                          @Value("${application.events.publisher.batch-size:100}") int batchSize,
+                          @Value("${application.events.publisher.confirms:true}") boolean confirms,
+                          @Value("${application.events.publisher.confirm-timeout-ms:5000}") long confirmTimeoutMillis,
+                          @Value("${application.events.publisher.max-attempts:3}") int maxAttempts,
+                          @Value("${application.events.publisher.retry-backoff-ms:500}") long retryBackoffMillis,
+                          @Value("${application.events.publisher.block-timeout-ms:200}") long blockTimeoutMillis,
+                          @Value("${application.events.spool.replay-interval-ms:1000}") long replayIntervalMillis,
+                          @Value("${application.events.publisher.overflow.user-login:drop}") String loginOverflow,
+                          @Value("${application.events.publisher.overflow.user-registered:block}") String registeredOverflow,
+                          @Value("${application.events.publisher.overflow.password-reset:caller-runs}") String resetOverflow) {
+        if (queueCapacity < 1 || batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("queue-capacity, batch-size y max-attempts deben ser >= 1");
+        }
         this.rabbitTemplate = rabbitTemplate;
+        this.eventSpool = eventSpool;
+        this.meterRegistry = meterRegistry;
+        this.eventsExchange = eventsExchange;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.confirms = confirms;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.replayIntervalNanos = TimeUnit.MILLISECONDS.toNanos(replayIntervalMillis);
+        this.overflowPolicies = Map.of(
+                RabbitConfig.USER_LOGIN_ROUTING_KEY, OverflowPolicy.from(loginOverflow),
+                RabbitConfig.USER_REGISTERED_ROUTING_KEY, OverflowPolicy.from(registeredOverflow),
+                RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, OverflowPolicy.from(resetOverflow)
+        );
+
+        this.batchTimer = meterRegistry.timer(METRIC_PREFIX + ".batch.publish");
+        this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch.size").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::drainLoop, "event-publisher");
+        this.worker.setDaemon(true);
+        this.worker.start();
     }
 
     public void publishUserRegistered(UserRegisteredEvent event) {
-        try {
-            rabbitTemplate.convertAndSend(
-                    eventsExchange,
-                    RabbitConfig.USER_REGISTERED_ROUTING_KEY,
-                    event
-            );
-            LOGGER.info("[EVENT] UserRegistered published for userId: {}", event.getUserId());
-        } catch (Exception e) {
-            LOGGER.error("[EVENT] Error publishing UserRegistered event: {}", e.getMessage(), e);
-        }
+        enqueue(RabbitConfig.USER_REGISTERED_ROUTING_KEY, event, event.getUserId());
     }
 
     public void publishUserLogin(UserLoginEvent event) {
-        try {
-            rabbitTemplate.convertAndSend(
-                    eventsExchange,
-                    RabbitConfig.USER_LOGIN_ROUTING_KEY,
-                    event
-            );
-            LOGGER.info("[EVENT] UserLogin published for userId: {}", event.getUserId());
-        } catch (Exception e) {
-            LOGGER.error("[EVENT] Error publishing UserLogin event: {}", e.getMessage(), e);
-        }
+        enqueue(RabbitConfig.USER_LOGIN_ROUTING_KEY, event, event.getUserId());
     }
 
     public void publishPasswordReset(PasswordResetEvent event) {
+        enqueue(RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, event, event.getUserId());
+    }
+
+    /** Deja de aceptar trabajo nuevo en el worker y espera que vacie la cola (o se agote el timeout). */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        worker.join(confirmTimeoutMillis + retryBackoffMillis * maxAttempts);
+        if (!queue.isEmpty()) {
+            LOGGER.warn("[EVENT] Shutdown with {} events still queued", queue.size());
+        }
+    }
+
+    /** Publica el lote en el thread actual y espera los confirms; lo usa {@link OutboxRelay}. */
+    boolean publishNow(List<PendingEvent> batch) {
+        return publish(batch);
+    }
+
+    private void enqueue(String routingKey, Object payload, Long userId) {
+        PendingEvent pending = new PendingEvent(routingKey, payload, System.nanoTime());
+        if (queue.offer(pending)) {
+            return;
+        }
+        switch (overflowPolicies.get(routingKey)) {
+            case DROP -> drop(pending, "overflow", userId);
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(pending, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        drop(pending, "overflow", userId);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(pending, "interrupted", userId);
+                }
+            }
+            case CALLER_RUNS -> {
+                if (!publish(List.of(pending))) {
+                    drop(pending, "failed", userId);
+                }
+            }
+        }
+    }
+
+    private void drop(PendingEvent pending, String reason, Long userId) {
+        // el reset lleva el codigo en claro: no va a disco. Vence en minutos y se puede pedir otro
+        if (!RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY.equals(pending.routingKey())
+                && eventSpool.append(pending.routingKey(), pending.payload())) {
+            counter("spooled", pending.routingKey(), reason).increment();
+            LOGGER.warn("[EVENT] {} event spooled to disk ({}) for userId: {}", pending.routingKey(), reason, userId);
+            return;
+        }
+        counter("dropped", pending.routingKey(), reason).increment();
+        LOGGER.error("[EVENT] {} event dropped ({}) for userId: {}", pending.routingKey(), reason, userId);
+    }
+
+    private void drainLoop() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    publishWithRetry(batch);
+                }
+                replaySpool();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("[EVENT] Unexpected error in publisher loop: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publishWithRetry(List<PendingEvent> batch) throws InterruptedException {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (publish(batch)) {
+                return;
+            }
+            if (attempt < maxAttempts) {
+                Thread.sleep(retryBackoffMillis * attempt);
+            }
+        }
+        LOGGER.error("[EVENT] Batch of {} events failed after {} attempts", batch.size(), maxAttempts);
+        for (PendingEvent pending : batch) {
+            drop(pending, "failed", null);
+        }
+        // el broker no responde: no tiene sentido re-publicar el spool enseguida
+        nextReplayAt = System.nanoTime() + replayIntervalNanos;
+    }
+
+    // Entre lotes vivos, re-publica el spool en orden; si el broker sigue caido espera replay-interval-ms
+    private void replaySpool() {
+        if (System.nanoTime() - nextReplayAt < 0 || eventSpool.isEmpty()) {
+            return;
+        }
+        EventSpool.ReplayBatch spooled = eventSpool.read(batchSize);
+        if (spooled.events().isEmpty() || publish(spooled.events())) {
+            eventSpool.acknowledge(spooled);
+        } else {
+            nextReplayAt = System.nanoTime() + replayIntervalNanos;
+        }
+    }
+
+    // Un canal dedicado por lote: todos los convertAndSend y un unico wait por los confirms
+    private boolean publish(List<PendingEvent> batch) {
+        long start = System.nanoTime();
         try {
-            rabbitTemplate.convertAndSend(
-                    eventsExchange,
-                    RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY,
-                    event
-            );
-            LOGGER.info("[EVENT] PasswordReset published for userId: {}", event.getUserId());
+            rabbitTemplate.invoke(operations -> {
+                for (PendingEvent pending : batch) {
+                    operations.convertAndSend(eventsExchange, pending.routingKey(), pending.payload());
+                }
+                if (confirms) {
+                    operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+                }
+                return null;
+            });
         } catch (Exception e) {
-            LOGGER.error("[EVENT] Error publishing PasswordReset event: {}", e.getMessage(), e);
+            LOGGER.error("[EVENT] Error publishing batch of {} events: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        long end = System.nanoTime();
+        batchTimer.record(end - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        for (PendingEvent pending : batch) {
+            counter("published", pending.routingKey(), null).increment();
+            latency(pending.routingKey()).record(end - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
         }
+        LOGGER.debug("[EVENT] Batch of {} events published", batch.size());
+        return true;
+    }
+
+    private Counter counter(String name, String routingKey, String reason) {
+        return counters.computeIfAbsent(name + '|' + routingKey + '|' + reason, key -> reason == null
+                ? meterRegistry.counter(METRIC_PREFIX + "." + name, "routing_key", routingKey)
+                : meterRegistry.counter(METRIC_PREFIX + "." + name, "routing_key", routingKey, "reason", reason));
+    }
+
+    // Encolado -> confirm del broker
+    private Timer latency(String routingKey) {
+        return latencies.computeIfAbsent(routingKey,
+                key -> meterRegistry.timer(METRIC_PREFIX + ".publish.latency", "routing_key", key));
+    }
+
+    record PendingEvent(String routingKey, Object payload, long enqueuedAt) {
     }
 }
@@ -0,0 +1,399 @@
+package com.hotel.auth.infrastructure.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Spool en disco para los eventos que {@link EventPublisher} no pudo entregar (broker caido o
+ * cola llena). Es un log append-only en segmentos de tamaño fijo mapeados en memoria: escribir
+ * un evento es copiar bytes al mapping, sin syscalls ni buffers intermedios.
+ * <p>
+ * Cada registro es {@code [int largo][int crc32][short largo routing key][routing key][payload JSON]};
+ * el largo se escribe ultimo, asi que un registro a medio escribir se ve como fin de datos.
+ * El offset de lectura se guarda en {@code spool.offset} en dos slots alternados con crc:
+ * si el proceso muere a mitad de una escritura queda el slot anterior, y en el peor caso se
+ * re-publica un lote (at-least-once). Los segmentos leidos y confirmados se borran.
+ * <p>
+ * Sin {@code fsync} los datos sobreviven a la caida del proceso (quedan en el page cache) pero
+ * no a la del sistema operativo.
+ * <p>
+ * El directorio es de una sola instancia: {@code open()} toma un lock exclusivo sobre
+ * {@code spool.lock} y falla si otro proceso ya lo tiene, en vez de pisarle los segmentos.
+ * El lock lo libera el sistema operativo si el proceso muere.
+ */
+@Component
+public class EventSpool implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventSpool.class);
+
+    private static final String METRIC_PREFIX = "events.spool";
+    private static final String SEGMENT_PREFIX = "spool-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String OFFSET_FILE = "spool.offset";
+    private static final String LOCK_FILE = "spool.lock";
+
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+    private static final int OFFSET_SLOT = 2 * Long.BYTES + 2 * Integer.BYTES;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean fsync;
+
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private FileChannel lockChannel;
+    private MappedByteBuffer offsetBuffer;
+    private long offsetGeneration;
+    private long writeSegment;
+    private int writePosition;
+    private long readSegment;
+    private int readPosition;
+
+    private final Counter rejected;
+    private final Counter corrupt;
+    private final Counter replayed;
+
+    public EventSpool(ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry,
+                      @Value("${application.events.spool.enabled:true}") boolean enabled,
+                      @Value("${application.events.spool.directory:data/event-spool}") Path directory,
+                      @Value("${application.events.spool.segment-size-bytes:16777216}") int segmentSize,
+                      @Value("${application.events.spool.max-segments:8}") int maxSegments,
+                      @Value("${application.events.spool.fsync:false}") boolean fsync) {
+        if (segmentSize < 1024 || maxSegments < 1) {
+            throw new IllegalArgumentException("El spool necesita segmentos de al menos 1 KiB y max-segments >= 1");
+        }
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.fsync = fsync;
+
+        this.rejected = meterRegistry.counter(METRIC_PREFIX + ".rejected");
+        this.corrupt = meterRegistry.counter(METRIC_PREFIX + ".corrupt");
+        this.replayed = meterRegistry.counter(METRIC_PREFIX + ".replayed");
+        Gauge.builder(METRIC_PREFIX + ".pending", this, EventSpool::pendingBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".segments", this, EventSpool::segmentCount)
+                .register(meterRegistry);
+
+        if (enabled) {
+            try {
+                open();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo abrir el spool de eventos en " + directory, e);
+            }
+        }
+    }
+
+    /** Persiste el evento; {@code false} si el spool esta deshabilitado, lleno o fallo la escritura. */
+    boolean append(String routingKey, Object payload) {
+        if (!enabled) {
+            return false;
+        }
+        byte[] key = routingKey.getBytes(StandardCharsets.UTF_8);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            LOGGER.error("[EVENT-SPOOL] No se pudo serializar {}: {}", routingKey, e.getMessage());
+            return false;
+        }
+        int bodyLength = Short.BYTES + key.length + json.length;
+        if (RECORD_HEADER + bodyLength > segmentSize) {
+            rejected.increment();
+            return false;
+        }
+
+        synchronized (this) {
+            try {
+                if (writePosition + RECORD_HEADER + bodyLength > segmentSize && !rotate()) {
+                    rejected.increment();
+                    return false;
+                }
+            } catch (IOException e) {
+                LOGGER.error("[EVENT-SPOOL] No se pudo rotar el segmento: {}", e.getMessage());
+                rejected.increment();
+                return false;
+            }
+            MappedByteBuffer segment = segments.get(writeSegment);
+            int body = writePosition + RECORD_HEADER;
+            segment.putShort(body, (short) key.length);
+            segment.put(body + Short.BYTES, key);
+            segment.put(body + Short.BYTES + key.length, json);
+            segment.putInt(writePosition + Integer.BYTES, crc(segment, body, bodyLength));
+            // el largo va ultimo: hasta aca el lector ve fin de datos
+            segment.putInt(writePosition, bodyLength);
+            if (fsync) {
+                segment.force(writePosition, RECORD_HEADER + bodyLength);
+            }
+            writePosition += RECORD_HEADER + bodyLength;
+            return true;
+        }
+    }
+
+    /** Hasta {@code maxEvents} eventos pendientes en orden de escritura, sin avanzar el offset. */
+    synchronized ReplayBatch read(int maxEvents) {
+        List<EventPublisher.PendingEvent> events = new ArrayList<>();
+        long segmentId = readSegment;
+        int position = readPosition;
+        while (enabled && events.size() < maxEvents) {
+            MappedByteBuffer segment = segments.get(segmentId);
+            int length = position + RECORD_HEADER <= segmentSize ? segment.getInt(position) : 0;
+            if (length == 0) {
+                // fin de datos del segmento: si ya no se escribe en el, se sigue con el proximo
+                Long next = segments.higherKey(segmentId);
+                if (next == null) {
+                    break;
+                }
+                segmentId = next;
+                position = 0;
+                continue;
+            }
+            int body = position + RECORD_HEADER;
+            if (length < Short.BYTES || body + length > segmentSize
+                    || segment.getInt(position + Integer.BYTES) != crc(segment, body, length)) {
+                corrupt.increment();
+                LOGGER.error("[EVENT-SPOOL] Registro corrupto en segmento {} posicion {}: se descarta el resto del segmento",
+                        segmentId, position);
+                Long next = segments.higherKey(segmentId);
+                if (next == null) {
+                    break;
+                }
+                segmentId = next;
+                position = 0;
+                continue;
+            }
+            EventPublisher.PendingEvent event = decode(segment, body, length);
+            if (event != null) {
+                events.add(event);
+            }
+            position = body + length;
+        }
+        return new ReplayBatch(events, segmentId, position);
+    }
+
+    /** Confirma lo leido en {@code batch}: avanza el offset y borra los segmentos ya consumidos. */
+    synchronized void acknowledge(ReplayBatch batch) {
+        if (!enabled) {
+            return;
+        }
+        readSegment = batch.segment();
+        readPosition = batch.position();
+        writeOffset();
+        replayed.increment(batch.events().size());
+        while (segments.firstKey() < readSegment) {
+            long consumed = segments.pollFirstEntry().getKey();
+            try {
+                Files.deleteIfExists(segmentPath(consumed));
+            } catch (IOException e) {
+                LOGGER.warn("[EVENT-SPOOL] No se pudo borrar el segmento {}: {}", consumed, e.getMessage());
+            }
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return !enabled || (readSegment == writeSegment && readPosition == writePosition);
+    }
+
+    synchronized long pendingBytes() {
+        if (!enabled) {
+            return 0;
+        }
+        return (writeSegment - readSegment) * segmentSize + writePosition - readPosition;
+    }
+
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (enabled && fsync) {
+            segments.values().forEach(MappedByteBuffer::force);
+            offsetBuffer.force();
+        }
+        if (lockChannel != null) {
+            try {
+                // cerrar el canal libera el lock
+                lockChannel.close();
+            } catch (IOException e) {
+                LOGGER.warn("[EVENT-SPOOL] No se pudo liberar el lock de {}: {}", directory, e.getMessage());
+            }
+            lockChannel = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        lock();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(id, map(file, segmentSize));
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(1L, map(segmentPath(1L), segmentSize));
+        }
+        offsetBuffer = map(directory.resolve(OFFSET_FILE), 2 * OFFSET_SLOT);
+        readOffset();
+
+        writeSegment = segments.lastKey();
+        writePosition = recoverWritePosition(segments.get(writeSegment));
+        LOGGER.info("[EVENT-SPOOL] Spool abierto en {}: {} segmentos, {} bytes pendientes",
+                directory, segments.size(), pendingBytes());
+    }
+
+    // Dos instancias sobre el mismo directorio se pisarian segmentos y offset: la segunda no arranca
+    private void lock() throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("El spool de eventos en " + directory
+                    + " ya esta en uso por otra instancia; configurar application.events.spool.directory por instancia");
+        }
+        lockChannel = channel;
+    }
+
+    // Recorre el ultimo segmento hasta el primer registro vacio o invalido y limpia lo que quede
+    // de una escritura cortada, para que un append nuevo no deje basura en el medio
+    private int recoverWritePosition(MappedByteBuffer segment) {
+        int position = 0;
+        while (position + RECORD_HEADER <= segmentSize) {
+            int length = segment.getInt(position);
+            int body = position + RECORD_HEADER;
+            if (length <= 0 || body + length > segmentSize
+                    || segment.getInt(position + Integer.BYTES) != crc(segment, body, length)) {
+                break;
+            }
+            position = body + length;
+        }
+        for (int i = position; i < Math.min(segmentSize, position + RECORD_HEADER); i++) {
+            segment.put(i, (byte) 0);
+        }
+        return position;
+    }
+
+    private boolean rotate() throws IOException {
+        if (segments.size() >= maxSegments) {
+            return false;
+        }
+        long next = writeSegment + 1;
+        segments.put(next, map(segmentPath(next), segmentSize));
+        writeSegment = next;
+        writePosition = 0;
+        return true;
+    }
+
+    private EventPublisher.PendingEvent decode(MappedByteBuffer segment, int body, int length) {
+        byte[] key = new byte[segment.getShort(body)];
+        segment.get(body + Short.BYTES, key);
+        byte[] json = new byte[length - Short.BYTES - key.length];
+        segment.get(body + Short.BYTES + key.length, json);
+        String routingKey = new String(key, StandardCharsets.UTF_8);
+        Class<?> type = EventOutbox.EVENT_TYPES.get(routingKey);
+        try {
+            if (type != null) {
+                return new EventPublisher.PendingEvent(routingKey, objectMapper.readValue(json, type), System.nanoTime());
+            }
+        } catch (IOException e) {
+            LOGGER.error("[EVENT-SPOOL] Payload ilegible para {}: {}", routingKey, e.getMessage());
+        }
+        corrupt.increment();
+        return null;
+    }
+
+    private void readOffset() {
+        long bestGeneration = -1;
+        for (int slot = 0; slot < 2; slot++) {
+            int base = slot * OFFSET_SLOT;
+            long generation = offsetBuffer.getLong(base);
+            long segment = offsetBuffer.getLong(base + Long.BYTES);
+            int position = offsetBuffer.getInt(base + 2 * Long.BYTES);
+            int checksum = offsetBuffer.getInt(base + 2 * Long.BYTES + Integer.BYTES);
+            if (generation > bestGeneration && checksum == crc(offsetBuffer, base, 2 * Long.BYTES + Integer.BYTES)
+                    && segments.containsKey(segment)) {
+                bestGeneration = generation;
+                readSegment = segment;
+                readPosition = position;
+            }
+        }
+        if (bestGeneration < 0) {
+            readSegment = segments.firstKey();
+            readPosition = 0;
+        }
+        offsetGeneration = Math.max(0, bestGeneration);
+    }
+
+    // Slot alternado: una escritura cortada solo puede romper el slot que no es el vigente
+    private void writeOffset() {
+        offsetGeneration++;
+        int base = (int) (offsetGeneration % 2) * OFFSET_SLOT;
+        offsetBuffer.putLong(base, offsetGeneration);
+        offsetBuffer.putLong(base + Long.BYTES, readSegment);
+        offsetBuffer.putInt(base + 2 * Long.BYTES, readPosition);
+        offsetBuffer.putInt(base + 2 * Long.BYTES + Integer.BYTES, crc(offsetBuffer, base, 2 * Long.BYTES + Integer.BYTES));
+        if (fsync) {
+            offsetBuffer.force(base, OFFSET_SLOT);
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // el mapping sigue valido despues de cerrar el canal
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static int crc(MappedByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /** Eventos leidos y posicion a confirmar con {@link #acknowledge}. */
+    record ReplayBatch(List<EventPublisher.PendingEvent> events, long segment, int position) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.hotel.auth.infrastructure.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.auth.domain.model.OutboxEvent;
+import com.hotel.auth.domain.repository.OutboxEventRepository;
+import com.hotel.auth.infrastructure.config.RabbitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vacia {@code event_outbox}. Cada lote se toma en una transaccion corta
+ * ({@code FOR UPDATE SKIP LOCKED} + lease {@code claimed_until}), se publica con confirms via
+ * {@link EventPublisher} fuera de toda transaccion y se marca enviado con un UPDATE aparte: ni
+ * los locks ni la conexion quedan retenidos mientras se esperan los confirms. Si el broker falla
+ * se libera el lease y el relay de esta instancia pausa {@code failure-backoff-ms}; si la
+ * instancia muere, el lease vence solo. Entrega at-least-once: los consumidores deben tolerar
+ * duplicados.
+ * <p>
+ * Las filas de reset de password se borran apenas se entregan en vez de marcarse enviadas: su
+ * payload lleva el codigo en claro y no se retiene durante {@code retention-hours}.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String METRIC_PREFIX = "outbox";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retention;
+    private final int purgeBatchSize;
+    private final Duration claimTtl;
+    private final long failureBackoffNanos;
+    private final long maxRunNanos;
+
+    private volatile long resumeAt = System.nanoTime();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter relayed;
+    private final Counter discarded;
+    private final Counter failures;
+    private final Counter purged;
+    private final Counter budgetExhausted;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       EventPublisher eventPublisher,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${application.events.outbox.enabled:true}") boolean enabled,
+                       @Value("${application.events.outbox.batch-size:100}") int batchSize,
+                       @Value("${application.events.outbox.retention-hours:24}") long retentionHours,
+                       @Value("${application.events.outbox.purge-batch-size:1000}") int purgeBatchSize,
+                       @Value("${application.events.outbox.claim-ttl-ms:60000}") long claimTtlMs,
+                       @Value("${application.events.outbox.failure-backoff-ms:5000}") long failureBackoffMs,
+                       @Value("${application.events.outbox.max-run-ms:5000}") long maxRunMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+        this.purgeBatchSize = purgeBatchSize;
+        this.claimTtl = Duration.ofMillis(claimTtlMs);
+        this.failureBackoffNanos = Duration.ofMillis(failureBackoffMs).toNanos();
+        this.maxRunNanos = Duration.ofMillis(maxRunMs).toNanos();
+
+        this.relayed = meterRegistry.counter(METRIC_PREFIX + ".relayed");
+        this.discarded = meterRegistry.counter(METRIC_PREFIX + ".discarded");
+        this.failures = meterRegistry.counter(METRIC_PREFIX + ".relay.failures");
+        this.purged = meterRegistry.counter(METRIC_PREFIX + ".purged");
+        this.budgetExhausted = meterRegistry.counter(METRIC_PREFIX + ".budget_exhausted");
+        Gauge.builder(METRIC_PREFIX + ".lag", lagMillis, lag -> lag.get() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica lotes mientras vengan llenos (un lote incompleto significa que el outbox quedo al dia)
+     * y no se agote {@code max-run-ms}: el thread del scheduler es compartido con el resto de las
+     * tareas, y un backlog tras una caida del broker lo queda en la pasada siguiente.
+     */
+    @Scheduled(fixedDelayString = "${application.events.outbox.relay-interval-ms:500}")
+    public void relay() {
+        // tras un fallo del broker no se reintenta en cada pasada
+        if (!enabled || System.nanoTime() - resumeAt < 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + maxRunNanos;
+        try {
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize && withinBudget(deadline, "relay"));
+        } catch (Exception e) {
+            failures.increment();
+            LOGGER.error("[OUTBOX] Relay fallido: {}", e.getMessage());
+        }
+    }
+
+    /** Borra en tandas acotadas las filas ya enviadas hace mas de {@code retention-hours}. */
+    @Scheduled(initialDelayString = "${application.events.outbox.purge-interval-ms:3600000}",
+            fixedDelayString = "${application.events.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        long deadline = System.nanoTime() + maxRunNanos;
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int deleted;
+        do {
+            deleted = outboxEventRepository.deleteSentBefore(cutoff, purgeBatchSize);
+            purged.increment(deleted);
+        } while (deleted == purgeBatchSize && withinBudget(deadline, "purge"));
+    }
+
+    private boolean withinBudget(long deadline, String task) {
+        if (System.nanoTime() - deadline < 0) {
+            return true;
+        }
+        budgetExhausted.increment();
+        LOGGER.info("[OUTBOX] Presupuesto de {} agotado: sigue en la proxima pasada", task);
+        return false;
+    }
+
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> rows = transaction.execute(status -> {
+            List<OutboxEvent> locked = outboxEventRepository.lockUnsent(now, batchSize);
+            if (!locked.isEmpty()) {
+                outboxEventRepository.claim(ids(locked), now.plus(claimTtl));
+            }
+            return locked;
+        });
+        if (rows == null || rows.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Math.max(0, Duration.between(rows.get(0).getCreatedAt(), now).toMillis()));
+
+        List<EventPublisher.PendingEvent> batch = new ArrayList<>(rows.size());
+        for (OutboxEvent row : rows) {
+            Object payload = deserialize(row);
+            if (payload != null) {
+                batch.add(new EventPublisher.PendingEvent(row.getRoutingKey(), payload, System.nanoTime()));
+            }
+        }
+        if (!batch.isEmpty() && !eventPublisher.publishNow(batch)) {
+            // quedan pendientes para la proxima pasada, de esta instancia o de otra
+            failures.increment();
+            resumeAt = System.nanoTime() + failureBackoffNanos;
+            outboxEventRepository.releaseClaim(ids(rows));
+            return 0;
+        }
+        List<Long> sent = new ArrayList<>(rows.size());
+        List<Long> secrets = new ArrayList<>();
+        for (OutboxEvent row : rows) {
+            (RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY.equals(row.getRoutingKey()) ? secrets : sent).add(row.getId());
+        }
+        if (!sent.isEmpty()) {
+            outboxEventRepository.markSent(sent, LocalDateTime.now());
+        }
+        if (!secrets.isEmpty()) {
+            outboxEventRepository.deleteByIds(secrets);
+        }
+        relayed.increment(batch.size());
+        return rows.size();
+    }
+
+    private static List<Long> ids(List<OutboxEvent> rows) {
+        return rows.stream().map(OutboxEvent::getId).toList();
+    }
+
+    // Una fila ilegible no puede bloquear el outbox: se marca enviada y se cuenta como descartada
+    private Object deserialize(OutboxEvent row) {
+        Class<?> type = EventOutbox.EVENT_TYPES.get(row.getRoutingKey());
+        try {
+            if (type != null) {
+                return objectMapper.readValue(row.getPayload(), type);
+            }
+            LOGGER.error("[OUTBOX] Fila {} descartada: routing key desconocida {}", row.getId(), row.getRoutingKey());
+        } catch (JsonProcessingException e) {
+            LOGGER.error("[OUTBOX] Fila {} descartada: payload ilegible: {}", row.getId(), e.getOriginalMessage());
+        }
+        discarded.increment();
+        return null;
+    }
+}
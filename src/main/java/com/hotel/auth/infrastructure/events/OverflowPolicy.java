@@ -0,0 +1,21 @@
+package com.hotel.auth.infrastructure.events;
+
+import java.util.Locale;
+
+/** Que hace {@link EventPublisher} cuando la cola de eventos esta llena. */
+public enum OverflowPolicy {
+
+    /** Descarta el evento: para eventos informativos (login). */
+    DROP,
+
+    /** Espera lugar en la cola hasta {@code block-timeout-ms}; si no se libera, descarta. */
+    BLOCK,
+
+    /** Publica en el thread del request, como antes de la cola (mismo criterio que {@code CallerRunsPolicy}). */
+    CALLER_RUNS;
+
+    /** Acepta {@code caller-runs}, {@code CALLER_RUNS}, etc. */
+    public static OverflowPolicy from(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,220 @@
+package com.hotel.auth.infrastructure.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.auth.api.dto.ErrorResponse;
+import com.hotel.auth.infrastructure.cache.CountMinSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de requests por IP en login, registro y reset de password, antes del filtro JWT,
+ * de Jackson, la base y BCrypt. Cuenta con dos count-min sketches de memoria fija (ventana
+ * actual y anterior, ponderada por el tiempo restante): millones de IPs distintas no hacen
+ * crecer el heap. Las IPs rechazadas quedan en una lista acotada de heavy hitters que se
+ * publica en {@code /actuator/heavyhitters}.
+ * <p>
+ * La IP es {@code getRemoteAddr()}. {@code application.yml} fija
+ * {@code server.forward-headers-strategy: native} para que detras del gateway refleje al cliente;
+ * sin eso todos los clientes compartirian el bucket de la IP del gateway.
+ */
+@Component
+public class IpRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IpRateLimitFilter.class);
+
+    private static final String METRIC_PREFIX = "ip_throttle";
+
+    private static final List<String> THROTTLED_PATHS = List.of(
+            "/auth/login",
+            "/auth/register",
+            "/auth/password/"
+    );
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int limit;
+    private final long windowMillis;
+
+    private volatile CountMinSketch current;
+    private volatile CountMinSketch previous;
+    private volatile long windowStart;
+    private final Cache<String, HeavyHitter> heavyHitters;
+
+    private final Counter rejections;
+
+    @Autowired
+    public IpRateLimitFilter(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${application.security.ip-throttle.enabled:true}") boolean enabled,
+                             @Value("${application.security.ip-throttle.requests-per-window:60}") int limit,
+                             @Value("${application.security.ip-throttle.window-seconds:60}") long windowSeconds,
+                             @Value("${application.security.ip-throttle.sketch-width:65536}") int sketchWidth,
+                             @Value("${application.security.ip-throttle.sketch-depth:4}") int sketchDepth,
+                             @Value("${application.security.ip-throttle.heavy-hitters-size:100}") int heavyHittersSize) {
+        this(objectMapper, meterRegistry, enabled, limit, Duration.ofSeconds(windowSeconds),
+                sketchWidth, sketchDepth, heavyHittersSize, Clock.systemUTC());
+    }
+
+    public IpRateLimitFilter(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             boolean enabled,
+                             int limit,
+                             Duration window,
+                             int sketchWidth,
+                             int sketchDepth,
+                             int heavyHittersSize,
+                             Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.current = new CountMinSketch(sketchWidth, sketchDepth);
+        this.previous = new CountMinSketch(sketchWidth, sketchDepth);
+        this.windowStart = clock.millis();
+        this.heavyHitters = Caffeine.newBuilder()
+                .maximumSize(heavyHittersSize)
+                .expireAfterWrite(window.multipliedBy(2))
+                .build();
+
+        this.rejections = meterRegistry.counter(METRIC_PREFIX + ".rejections");
+        Gauge.builder(METRIC_PREFIX + ".memory", this, f -> f.current.memoryBytes() + f.previous.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".heavy_hitters", heavyHitters, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String ip = request.getRemoteAddr();
+        long now = clock.millis();
+        long estimate = record(ip, now);
+        if (estimate <= limit) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejections.increment();
+        heavyHitters.asMap().compute(ip, (key, hitter) -> (hitter != null ? hitter : new HeavyHitter(key))
+                .update(estimate, Instant.ofEpochMilli(now)));
+        long retryAfterSeconds = Math.max(1, Math.ceilDiv(windowStart + windowMillis - now, 1000));
+        LOGGER.warn("[IP-THROTTLE] {} rechazado en {}: ~{} requests en la ventana", ip, request.getServletPath(), estimate);
+        reject(request, response, retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return THROTTLED_PATHS.stream().noneMatch(path::startsWith);
+    }
+
+    /** IPs rechazadas recientemente, de mayor a menor estimacion. */
+    public List<HeavyHitterView> heavyHitters() {
+        return heavyHitters.asMap().values().stream()
+                .map(HeavyHitter::view)
+                .sorted(Comparator.comparingLong(HeavyHitterView::estimatedRequests).reversed())
+                .toList();
+    }
+
+    // Ventana deslizante aproximada: la ventana anterior pesa lo que le falta a la actual
+    long record(String ip, long now) {
+        rotateIfNeeded(now);
+        int inCurrent = current.add(ip);
+        double previousWeight = 1.0 - (double) (now - windowStart) / windowMillis;
+        return inCurrent + (long) Math.floor(previous.estimate(ip) * Math.max(0, previousWeight));
+    }
+
+    private void rotateIfNeeded(long now) {
+        if (now - windowStart < windowMillis) {
+            return;
+        }
+        synchronized (this) {
+            long elapsedWindows = (now - windowStart) / windowMillis;
+            if (elapsedWindows == 0) {
+                return;
+            }
+            // se reciclan los arrays: la memoria queda fija
+            CountMinSketch recycled = previous;
+            recycled.clear();
+            if (elapsedWindows > 1) {
+                current.clear();
+            }
+            previous = current;
+            current = recycled;
+            windowStart += elapsedWindows * windowMillis;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds)
+            throws IOException {
+        ErrorResponse body = new ErrorResponse();
+        body.setTimestamp(OffsetDateTime.now(clock));
+        body.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        body.setError("Too Many Requests");
+        body.setMessage("Demasiadas solicitudes desde esta IP. Intenta nuevamente más tarde");
+        body.setPath(request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class HeavyHitter {
+
+        private final String ip;
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile long estimatedRequests;
+        private volatile Instant lastSeen;
+
+        HeavyHitter(String ip) {
+            this.ip = ip;
+        }
+
+        HeavyHitter update(long estimate, Instant seenAt) {
+            estimatedRequests = estimate;
+            lastSeen = seenAt;
+            rejected.incrementAndGet();
+            return this;
+        }
+
+        HeavyHitterView view() {
+            return new HeavyHitterView(ip, estimatedRequests, rejected.get(), lastSeen);
+        }
+    }
+
+    public record HeavyHitterView(String ip, long estimatedRequests, long rejected, Instant lastSeen) {
+    }
+}
@@ -1,34 +1,39 @@
 package com.hotel.auth.infrastructure.filters;
 
+import com.hotel.auth.domain.model.JwtPrincipal;
+import com.hotel.auth.domain.model.VerifiedToken;
 import com.hotel.auth.domain.service.AuthService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Authority de los tokens de client credentials; sin prefijo ROLE_ para no chocar con un rol de usuario
+    public static final String SERVICE_CLIENT_AUTHORITY = "SERVICE_CLIENT";
+
     private static final List<String> PUBLIC_PATHS = Arrays.asList(
             "/auth/login",
             "/auth/register",
             "/auth/refresh",
             "/auth/validate",
             "/oauth/token",
+            "/.well-known",
             "/api-docs",
             "/swagger-ui",
             "/swagger-ui.html",
@@ -37,14 +42,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final AuthService authService;
     private final UserDetailsService userDetailsService;
-    private final JwtDecoder jwtDecoder;
+
+    // true: el principal se arma con los claims del JWT, sin consultar la base de datos
+    @Value("${application.security.jwt.claims-only-authentication:false}")
+    private boolean claimsOnlyAuthentication;
 
     public JwtAuthenticationFilter(AuthService authService,
-                                   UserDetailsService userDetailsService,
-                                   JwtDecoder jwtDecoder) {
+                                   UserDetailsService userDetailsService) {
         this.authService = authService;
         this.userDetailsService = userDetailsService;
-        this.jwtDecoder = jwtDecoder;
     }
 
     @Override
@@ -63,32 +69,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        Jwt jwt;
+        VerifiedToken verifiedToken;
         try {
-            authService.validateToken(token.get());
-            jwt = jwtDecoder.decode(token.get());
+            verifiedToken = authService.verifyToken(token.get());
         } catch (RuntimeException ex) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
 
-        boolean isServiceToken = jwt.getClaim("client_id") != null
-                || (jwt.getClaim("scope") != null && jwt.getClaim("userId") == null);
-
-        if (isServiceToken) {
+        if (verifiedToken.isServiceToken()) {
             UsernamePasswordAuthenticationToken authenticationToken =
                     new UsernamePasswordAuthenticationToken(
-                            jwt.getSubject(),
+                            verifiedToken.getSubject(),
                             null,
-                            Collections.emptyList());
+                            List.of(new SimpleGrantedAuthority(SERVICE_CLIENT_AUTHORITY)));
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             filterChain.doFilter(request, response);
             return;
         }
 
-        String userName = authService.getUserFromToken(token.get());
+        if (claimsOnlyAuthentication && verifiedToken.getUserId() != null) {
+            JwtPrincipal principal = JwtPrincipal.from(verifiedToken);
+            UsernamePasswordAuthenticationToken authenticationToken =
+                    new UsernamePasswordAuthenticationToken(
+                            principal,
+                            null,
+                            principal.getAuthorities());
+            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(userName);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(verifiedToken.getSubject());
         UsernamePasswordAuthenticationToken authenticationToken =
                 new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -0,0 +1,146 @@
+package com.hotel.auth.infrastructure.maintenance;
+
+import com.hotel.auth.domain.repository.PasswordResetTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Borra de {@code password_reset_tokens} los codigos usados o vencidos hace mas de
+ * {@code retention-hours}. Recorre la tabla por rangos de PK de {@code chunk-size} ids, un
+ * DELETE (y una transaccion) por rango: cada sentencia bloquea solo su tramo del indice
+ * primario y nunca compite largo con los resets en curso. Si una pasada agota
+ * {@code max-run-ms} guarda el cursor y la siguiente sigue desde ahi.
+ */
+@Component
+public class PasswordResetTokenPurger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordResetTokenPurger.class);
+
+    private static final String METRIC_PREFIX = "reset_tokens";
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int chunkSize;
+    private final long maxRunMillis;
+
+    // Estado de la barrida en curso; las pasadas no se solapan (fixedDelay)
+    private long cursor;
+    private long sweepEnd = -1;
+    private long sweepStartedAt;
+    private volatile long lastCompletedSweepAt;
+
+    private final Counter deleted;
+    private final Counter budgetExhausted;
+
+    @Autowired
+    public PasswordResetTokenPurger(PasswordResetTokenRepository passwordResetTokenRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${application.security.reset-token-purge.enabled:true}") boolean enabled,
+                                    @Value("${application.security.reset-token-purge.retention-hours:24}") long retentionHours,
+                                    @Value("${application.security.reset-token-purge.chunk-size:1000}") int chunkSize,
+                                    @Value("${application.security.reset-token-purge.max-run-ms:5000}") long maxRunMillis) {
+        this(passwordResetTokenRepository, meterRegistry, enabled, Duration.ofHours(retentionHours), chunkSize,
+                Duration.ofMillis(maxRunMillis), Clock.systemDefaultZone());
+    }
+
+    public PasswordResetTokenPurger(PasswordResetTokenRepository passwordResetTokenRepository,
+                                    MeterRegistry meterRegistry,
+                                    boolean enabled,
+                                    Duration retention,
+                                    int chunkSize,
+                                    Duration maxRun,
+                                    Clock clock) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("application.security.reset-token-purge.chunk-size debe ser >= 1");
+        }
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.maxRunMillis = maxRun.toMillis();
+        this.lastCompletedSweepAt = clock.millis();
+
+        this.deleted = meterRegistry.counter(METRIC_PREFIX + ".purged");
+        this.budgetExhausted = meterRegistry.counter(METRIC_PREFIX + ".purge.budget_exhausted");
+        // Un token elegible puede sobrevivir retention + lag: lo que tarda en cerrarse una barrida
+        Gauge.builder(METRIC_PREFIX + ".purge.lag", this, p -> (p.clock.millis() - p.lastCompletedSweepAt) / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${application.security.reset-token-purge.interval-ms:600000}",
+            fixedDelayString = "${application.security.reset-token-purge.interval-ms:600000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            purgeWithinBudget();
+        } catch (Exception e) {
+            LOGGER.error("[RESET-PURGE] Pasada fallida en id {}: {}", cursor, e.getMessage());
+        }
+    }
+
+    /** Devuelve las filas borradas en esta pasada. */
+    long purgeWithinBudget() {
+        long startedAt = clock.millis();
+        if (sweepEnd < 0) {
+            // Los ids posteriores al snapshot son tokens recien creados: no pueden ser elegibles
+            Long maxId = passwordResetTokenRepository.maxId();
+            if (maxId == null) {
+                lastCompletedSweepAt = startedAt;
+                return 0;
+            }
+            cursor = 0;
+            sweepEnd = maxId;
+            sweepStartedAt = startedAt;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(retention);
+        long total = 0;
+        while (true) {
+            Long from = passwordResetTokenRepository.firstIdFrom(cursor);
+            if (from == null || from > sweepEnd) {
+                finishSweep(total);
+                return total;
+            }
+            long to = Math.min(from + chunkSize, sweepEnd + 1);
+            int removed = passwordResetTokenRepository.deleteExpiredInRange(from, to, cutoff);
+            deleted.increment(removed);
+            total += removed;
+            cursor = to;
+
+            if (cursor > sweepEnd) {
+                finishSweep(total);
+                return total;
+            }
+            if (clock.millis() - startedAt >= maxRunMillis) {
+                budgetExhausted.increment();
+                LOGGER.info("[RESET-PURGE] Presupuesto agotado en id {} de {}: {} filas borradas", cursor, sweepEnd, total);
+                return total;
+            }
+        }
+    }
+
+    private void finishSweep(long total) {
+        lastCompletedSweepAt = sweepStartedAt;
+        sweepEnd = -1;
+        if (total > 0) {
+            LOGGER.info("[RESET-PURGE] Barrida completa: {} filas borradas", total);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.hotel.auth.infrastructure.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Convierte claves PEM (X.509 / PKCS#8, tal como vienen del config-server) en JWK de firma.
+ * El algoritmo sale del tipo de clave: RSA → RS256, EC P-256 → ES256.
+ * El {@code kid} es el thumbprint RFC 7638 de la parte publica.
+ */
+final class JwkPemParser {
+
+    private static final List<String> KEY_ALGORITHMS = List.of("RSA", "EC");
+
+    private JwkPemParser() {
+    }
+
+    static JWK publicJwk(String publicPem) {
+        return toJwk(parsePublicKey(publicPem), null);
+    }
+
+    static JWK signingJwk(String publicPem, String privatePem) {
+        PublicKey publicKey = parsePublicKey(publicPem);
+        return toJwk(publicKey, parsePrivateKey(privatePem, publicKey.getAlgorithm()));
+    }
+
+    private static JWK toJwk(PublicKey publicKey, PrivateKey privateKey) {
+        try {
+            if (publicKey instanceof RSAPublicKey rsaPublicKey) {
+                RSAKey.Builder builder = new RSAKey.Builder(rsaPublicKey);
+                if (privateKey != null) {
+                    builder.privateKey((RSAPrivateKey) privateKey);
+                }
+                return builder.keyUse(KeyUse.SIGNATURE).algorithm(JWSAlgorithm.RS256).keyIDFromThumbprint().build();
+            }
+            ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+            Curve curve = Curve.forECParameterSpec(ecPublicKey.getParams());
+            if (!Curve.P_256.equals(curve)) {
+                throw new IllegalStateException("Solo se soportan claves EC P-256 (ES256)");
+            }
+            ECKey.Builder builder = new ECKey.Builder(curve, ecPublicKey);
+            if (privateKey != null) {
+                builder.privateKey((ECPrivateKey) privateKey);
+            }
+            return builder.keyUse(KeyUse.SIGNATURE).algorithm(JWSAlgorithm.ES256).keyIDFromThumbprint().build();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("No se pudo calcular el kid de la clave", e);
+        }
+    }
+
+    private static PublicKey parsePublicKey(String pem) {
+        X509EncodedKeySpec spec;
+        try {
+            spec = new X509EncodedKeySpec(Base64.getDecoder().decode(stripPem(pem, "PUBLIC KEY")));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Clave pública inválida", e);
+        }
+        for (String algorithm : KEY_ALGORITHMS) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(spec);
+            } catch (InvalidKeySpecException e) {
+                // probar el siguiente tipo de clave
+            } catch (Exception e) {
+                throw new IllegalStateException("Clave pública inválida", e);
+            }
+        }
+        throw new IllegalStateException("Clave pública inválida: se esperaba RSA o EC P-256");
+    }
+
+    private static PrivateKey parsePrivateKey(String pem, String algorithm) {
+        try {
+            PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(Base64.getDecoder().decode(stripPem(pem, "PRIVATE KEY")));
+            return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+        } catch (Exception e) {
+            throw new IllegalStateException("Clave privada " + algorithm + " inválida", e);
+        }
+    }
+
+    private static String stripPem(String pem, String type) {
+        return pem
+                .replace("\\r", "")
+                .replace("\\n", "\n")
+                .replace("\\", "")
+                .replace("\r", "")
+                .replace("-----BEGIN " + type + "-----", "")
+                .replace("-----END " + type + "-----", "")
+                .replaceAll("\\s+", "");
+    }
+}
@@ -0,0 +1,198 @@
+package com.hotel.auth.infrastructure.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Llavero de claves de firma JWT: una clave activa por algoritmo (RS256 obligatoria, ES256
+ * opcional) y claves anteriores solo de verificacion, indexadas por {@code kid}.
+ * El material se relee del {@link Environment} cuando el config-server publica un cambio
+ * ({@code /actuator/refresh} o Spring Cloud Bus), sin reiniciar el servicio.
+ *
+ * <p>Las claves de verificacion salen solo de la configuracion ({@code previous-public-keys}),
+ * nunca de la memoria del proceso: un reinicio o una instancia nueva verifican lo mismo que las
+ * que ya estaban corriendo. Por eso una rotacion tiene que mover la clave publica saliente a
+ * {@code previous-public-keys} en el mismo cambio; si no, se rechaza y se mantienen las claves
+ * actuales. La clave retirada se quita de la config pasado {@code refresh-expiration}.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    static final String PROPERTY_PREFIX = "application.security.jwt.";
+    static final String PRIVATE_KEY_PROPERTY = PROPERTY_PREFIX + "private-key";
+    static final String PUBLIC_KEY_PROPERTY = PROPERTY_PREFIX + "public-key";
+    static final String PREVIOUS_PUBLIC_KEYS_PROPERTY = PROPERTY_PREFIX + "previous-public-keys";
+    static final String ALGORITHMS_PREFIX = PROPERTY_PREFIX + "algorithms.";
+
+    // Tipos de token con algoritmo configurable (ver TokenServiceImpl)
+    private static final List<String> TOKEN_TYPES = List.of("access", "refresh", "service");
+
+    public static final Set<JWSAlgorithm> SUPPORTED_ALGORITHMS =
+            Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+
+    // Familias opcionales ademas de la RSA obligatoria: application.security.jwt.<familia>.public-key/private-key
+    private static final List<String> OPTIONAL_KEY_FAMILIES = List.of("ec");
+
+    private final Environment environment;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(Environment environment) {
+        this.environment = environment;
+        this.snapshot = load(null);
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PROPERTY_PREFIX))) {
+            reload();
+        }
+    }
+
+    /**
+     * Relee las claves. Si el material nuevo es invalido se conserva el llavero actual:
+     * una rotacion mal configurada no debe dejar al servicio sin poder firmar.
+     */
+    public synchronized void reload() {
+        try {
+            snapshot = load(snapshot);
+        } catch (Exception e) {
+            LOGGER.error("[JWT-KEYS] Rotación rechazada, se mantienen las claves actuales: {}", e.getMessage());
+        }
+    }
+
+    /** {@code kid} de la clave activa para el algoritmo, o {@code null} si no hay clave configurada. */
+    public String activeKeyId(JWSAlgorithm algorithm) {
+        return snapshot.signingJwkSet().getKeys().stream()
+                .filter(key -> algorithm.equals(key.getAlgorithm()))
+                .map(JWK::getKeyID)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /** JWKS publico (activa + verificacion) para {@code /.well-known/jwks.json}. */
+    public JWKSet publicJwkSet() {
+        return snapshot.publicJwkSet();
+    }
+
+    /** Fuente para el encoder: expone solo las claves activas (una por algoritmo), con su parte privada. */
+    public JWKSource<SecurityContext> signingKeySource() {
+        return (selector, context) -> selector.select(snapshot.signingJwkSet());
+    }
+
+    /**
+     * Fuente para el decoder: resuelve por {@code kid} en O(1). Los tokens sin {@code kid}
+     * (emitidos antes de publicarlo) caen al recorrido del JWKS completo.
+     */
+    public JWKSource<SecurityContext> verificationKeySource() {
+        return (selector, context) -> {
+            Snapshot current = snapshot;
+            JWKMatcher matcher = selector.getMatcher();
+            Set<String> keyIds = matcher.getKeyIDs();
+            if (keyIds == null || keyIds.isEmpty()) {
+                return selector.select(current.publicJwkSet());
+            }
+            List<JWK> matches = new ArrayList<>(1);
+            for (String keyId : keyIds) {
+                JWK candidate = current.verificationKeys().get(keyId);
+                if (candidate != null && matcher.matches(candidate)) {
+                    matches.add(candidate);
+                }
+            }
+            return matches;
+        };
+    }
+
+    private Snapshot load(Snapshot previous) {
+        List<JWK> signingKeys = new ArrayList<>();
+        signingKeys.add(JwkPemParser.signingJwk(
+                environment.getRequiredProperty(PUBLIC_KEY_PROPERTY),
+                environment.getRequiredProperty(PRIVATE_KEY_PROPERTY)));
+        for (String family : OPTIONAL_KEY_FAMILIES) {
+            String publicPem = environment.getProperty(PROPERTY_PREFIX + family + ".public-key");
+            String privatePem = environment.getProperty(PROPERTY_PREFIX + family + ".private-key");
+            if (publicPem != null && !publicPem.isBlank() && privatePem != null && !privatePem.isBlank()) {
+                signingKeys.add(JwkPemParser.signingJwk(publicPem, privatePem));
+            }
+        }
+
+        requireKeysForConfiguredAlgorithms(signingKeys);
+
+        Map<String, JWK> verificationKeys = new LinkedHashMap<>();
+        for (JWK signingKey : signingKeys) {
+            verificationKeys.put(signingKey.getKeyID(), signingKey.toPublicJWK());
+        }
+        for (String pem : environment.getProperty(PREVIOUS_PUBLIC_KEYS_PROPERTY, String[].class, new String[0])) {
+            if (!pem.isBlank()) {
+                JWK key = JwkPemParser.publicJwk(pem);
+                verificationKeys.putIfAbsent(key.getKeyID(), key);
+            }
+        }
+
+        if (previous != null) {
+            requireOutgoingKeysRetained(previous, verificationKeys.keySet());
+        }
+        LOGGER.info("[JWT-KEYS] Claves de firma activas: {} ({} claves de verificación)",
+                signingKeys.stream().map(key -> key.getAlgorithm() + "/" + key.getKeyID()).toList(),
+                verificationKeys.size());
+
+        return new Snapshot(new JWKSet(signingKeys), Map.copyOf(verificationKeys),
+                new JWKSet(List.copyOf(verificationKeys.values())));
+    }
+
+    /**
+     * Una clave de firma que deja de estar activa tiene que quedar en {@code previous-public-keys}:
+     * si solo se conservara en memoria, el proximo reinicio rechazaria los tokens que firmo.
+     */
+    private static void requireOutgoingKeysRetained(Snapshot previous, Set<String> verificationKeyIds) {
+        List<String> dropped = previous.signingJwkSet().getKeys().stream()
+                .map(JWK::getKeyID)
+                .filter(keyId -> !verificationKeyIds.contains(keyId))
+                .toList();
+        if (!dropped.isEmpty()) {
+            throw new IllegalStateException("la clave de firma saliente " + dropped + " no esta en "
+                    + PREVIOUS_PUBLIC_KEYS_PROPERTY + "; agregar su clave publica en el mismo cambio");
+        }
+    }
+
+    /**
+     * Cada {@code algorithms.<tipo>} debe ser soportado y tener clave activa. Si no, el servicio
+     * no arranca (o la rotacion se rechaza) en vez de fallar en cada login con un 401.
+     */
+    private void requireKeysForConfiguredAlgorithms(List<JWK> signingKeys) {
+        for (String tokenType : TOKEN_TYPES) {
+            String property = ALGORITHMS_PREFIX + tokenType;
+            String name = environment.getProperty(property, JWSAlgorithm.RS256.getName());
+            JWSAlgorithm algorithm = JWSAlgorithm.parse(name);
+            if (!SUPPORTED_ALGORITHMS.contains(algorithm)) {
+                throw new IllegalStateException(property + "=" + name + " no soportado; valores validos: "
+                        + SUPPORTED_ALGORITHMS.stream().map(JWSAlgorithm::getName).sorted().toList());
+            }
+            if (signingKeys.stream().noneMatch(key -> algorithm.equals(key.getAlgorithm()))) {
+                throw new IllegalStateException(property + "=" + name + " sin clave de firma activa");
+            }
+        }
+    }
+
+    private record Snapshot(JWKSet signingJwkSet,
+                            Map<String, JWK> verificationKeys,
+                            JWKSet publicJwkSet) {
+    }
+}
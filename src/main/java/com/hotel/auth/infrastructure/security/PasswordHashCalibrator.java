@@ -0,0 +1,72 @@
+package com.hotel.auth.infrastructure.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Mide el costo de un hash en el hardware actual y elige el parametro de trabajo mas alto
+ * que entra en la latencia objetivo. BCrypt duplica el costo por cada punto de strength;
+ * Argon2id escala lineal con las iteraciones (memoria y paralelismo quedan fijos).
+ */
+public final class PasswordHashCalibrator {
+
+    // Default de Spring: calibrar nunca baja de aca aunque el hardware sea lento
+    public static final int MIN_BCRYPT_STRENGTH = 10;
+    public static final int MAX_BCRYPT_STRENGTH = 16;
+
+    // Minimo de OWASP para Argon2id con 19 MiB
+    public static final int MIN_ARGON2_ITERATIONS = 2;
+    public static final int MAX_ARGON2_ITERATIONS = 10;
+
+    static final int ARGON2_SALT_LENGTH = 16;
+    static final int ARGON2_HASH_LENGTH = 32;
+
+    private static final int SAMPLES = 5;
+    private static final String SAMPLE_PASSWORD = "calibracion-Password123";
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static int bcryptStrength(Duration target) {
+        Duration cost = measure(new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH));
+        return strengthFor(target, cost);
+    }
+
+    public static int argon2Iterations(Duration target, int memoryKib, int parallelism) {
+        Duration cost = measure(argon2(memoryKib, parallelism, 1));
+        return iterationsFor(target, cost);
+    }
+
+    public static Argon2PasswordEncoder argon2(int memoryKib, int parallelism, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKib, iterations);
+    }
+
+    /** Cada punto de strength duplica el costo medido con {@link #MIN_BCRYPT_STRENGTH}. */
+    static int strengthFor(Duration target, Duration costAtMinStrength) {
+        double ratio = (double) target.toNanos() / Math.max(1, costAtMinStrength.toNanos());
+        int extra = ratio < 1 ? 0 : (int) Math.floor(Math.log(ratio) / Math.log(2));
+        return Math.clamp(MIN_BCRYPT_STRENGTH + extra, MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH);
+    }
+
+    static int iterationsFor(Duration target, Duration costPerIteration) {
+        long iterations = target.toNanos() / Math.max(1, costPerIteration.toNanos());
+        return Math.clamp(iterations, MIN_ARGON2_ITERATIONS, MAX_ARGON2_ITERATIONS);
+    }
+
+    // Mediana de varias corridas despues de un warm-up (JIT, carga de clases)
+    private static Duration measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Duration.ofNanos(samples[SAMPLES / 2]);
+    }
+}
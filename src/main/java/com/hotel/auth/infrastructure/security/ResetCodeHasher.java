@@ -0,0 +1,47 @@
+package com.hotel.auth.infrastructure.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * HMAC-SHA256 de los codigos de reset, atado al id del usuario. Con un {@code pepper} fuera de
+ * la base, un dump de {@code password_reset_tokens} no alcanza para probar el millon de codigos
+ * posibles offline; sin pepper solo evita que los codigos queden en texto plano.
+ */
+public final class ResetCodeHasher {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String DEFAULT_KEY = "auth-service-reset-code";
+
+    private final SecretKeySpec key;
+
+    public ResetCodeHasher(String pepper) {
+        String material = pepper == null || pepper.isBlank() ? DEFAULT_KEY : pepper;
+        this.key = new SecretKeySpec(material.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String hash(long userId, String code) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal((userId + ":" + code).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    }
+
+    // Comparacion en tiempo constante
+    public boolean matches(String storedHash, long userId, String code) {
+        if (storedHash == null || code == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                storedHash.getBytes(StandardCharsets.US_ASCII),
+                hash(userId, code).getBytes(StandardCharsets.US_ASCII));
+    }
+}
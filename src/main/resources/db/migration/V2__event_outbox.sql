@@ -0,0 +1,14 @@
+-- Outbox de eventos de dominio: se escribe en la misma transaccion que el usuario o el
+-- token de reset y OutboxRelay lo publica en RabbitMQ. sent_at NULL = pendiente.
+
+CREATE TABLE event_outbox (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    routing_key  VARCHAR(100) NOT NULL,
+    payload      TEXT         NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    sent_at      DATETIME(6),
+    CONSTRAINT pk_event_outbox PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- El relay lee "sent_at IS NULL ORDER BY id" y la purga "sent_at < ?": ambos por este indice
+CREATE INDEX idx_outbox_sent_at_id ON event_outbox (sent_at, id);
@@ -0,0 +1,6 @@
+-- Indice compuesto para el motor de reset: el rate limit (user_id + created_at), la
+-- invalidacion en bloque (user_id + used_at IS NULL) y la purga salen del mismo indice.
+-- Reemplaza a idx_prt_user_id, que es prefijo suyo (la FK fk_prt_user queda cubierta).
+
+CREATE INDEX idx_prt_user_used_created ON password_reset_tokens (user_id, used_at, created_at);
+DROP INDEX idx_prt_user_id ON password_reset_tokens;
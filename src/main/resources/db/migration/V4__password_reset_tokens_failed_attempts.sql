@@ -0,0 +1,5 @@
+-- Los codigos se guardan como HMAC y se buscan por email, no por codigo: idx_prt_code ya no
+-- sirve. failed_attempts cuenta las verificaciones fallidas contra el codigo activo.
+
+ALTER TABLE password_reset_tokens ADD COLUMN failed_attempts INT NOT NULL DEFAULT 0;
+DROP INDEX idx_prt_code ON password_reset_tokens;
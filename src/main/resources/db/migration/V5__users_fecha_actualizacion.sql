@@ -0,0 +1,8 @@
+-- Marca de ultima modificacion mantenida por MySQL (alta y cualquier UPDATE). KnownEmailFilter
+-- la usa para sumar altas y cambios de email hechos en otras instancias, incluidas las altas
+-- que commitean despues de otras con id mayor.
+
+ALTER TABLE users
+    ADD COLUMN fecha_actualizacion DATETIME(6) NOT NULL
+        DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+CREATE INDEX idx_users_fecha_actualizacion ON users (fecha_actualizacion);
@@ -0,0 +1,5 @@
+-- Lease del relay: una fila tomada por una instancia no la toma otra hasta claimed_until, asi
+-- el lote se publica fuera de la transaccion (sin locks ni conexion retenidos durante los
+-- confirms). Si la instancia muere a mitad de camino, la fila vuelve a estar disponible al vencer.
+
+ALTER TABLE event_outbox ADD COLUMN claimed_until DATETIME(6);
@@ -0,0 +1,4 @@
+-- Los eventos de reset llevan el codigo en claro en el payload: desde ahora el relay borra la
+-- fila al entregarla. Se borran las ya enviadas que quedaban retenidas hasta la purga.
+
+DELETE FROM event_outbox WHERE routing_key = 'user.password.reset' AND sent_at IS NOT NULL;
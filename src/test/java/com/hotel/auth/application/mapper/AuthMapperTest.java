@@ -4,6 +4,7 @@ import com.hotel.auth.api.dto.AuthResponse;
 import com.hotel.auth.api.dto.LoginRequest;
 import com.hotel.auth.api.dto.RegisterRequest;
 import com.hotel.auth.api.dto.TokenValidationResponse;
+import com.hotel.auth.api.dto.UserLookupResult;
 import com.hotel.auth.api.dto.UserResponse;
 import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.User;
@@ -188,4 +189,34 @@ class AuthMapperTest {
         assertThat(resp.getRole()).isNull();
         assertThat(resp.getValid()).isFalse();
     }
+
+    @Test
+    void toInvalidTokenValidationResponseSetsErrorAndInvalidFlag() {
+        TokenValidationResponse response = AuthMapper.toInvalidTokenValidationResponse("Token inválido");
+
+        assertThat(response.getValid()).isFalse();
+        assertThat(response.getError()).isEqualTo("Token inválido");
+        assertThat(response.getUserId()).isNull();
+    }
+
+    @Test
+    void toUserLookupResultMarksFoundUser() {
+        UserResponse user = new UserResponse();
+        user.setId(7L);
+
+        UserLookupResult result = AuthMapper.toUserLookupResult(7L, user);
+
+        assertThat(result.getId()).isEqualTo(7L);
+        assertThat(result.getFound()).isTrue();
+        assertThat(result.getUser()).isSameAs(user);
+    }
+
+    @Test
+    void toUserLookupResultMarksMissingUser() {
+        UserLookupResult result = AuthMapper.toUserLookupResult(8L, null);
+
+        assertThat(result.getId()).isEqualTo(8L);
+        assertThat(result.getFound()).isFalse();
+        assertThat(result.getUser()).isNull();
+    }
 }
@@ -2,36 +2,46 @@ package com.hotel.auth.application.service;
 
 import com.hotel.auth.api.dto.LoginRequest;
 import com.hotel.auth.api.dto.RegisterRequest;
-import com.hotel.auth.domain.model.PasswordResetToken;
+import com.hotel.auth.domain.model.AuthTokens;
 import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.User;
-import com.hotel.auth.domain.repository.PasswordResetTokenRepository;
+import com.hotel.auth.domain.model.VerifiedToken;
 import com.hotel.auth.domain.repository.RoleRepository;
 import com.hotel.auth.domain.repository.UserRepository;
+import com.hotel.auth.domain.service.LoginThrottle;
+import com.hotel.auth.domain.service.ResetCodeStore;
+import com.hotel.auth.domain.service.ResetCodeStore.Verification;
 import com.hotel.auth.domain.service.TokenService;
+import com.hotel.auth.domain.service.UserService;
 import com.hotel.auth.helpers.exceptions.ConflictException;
 import com.hotel.auth.helpers.exceptions.EntityNotFoundException;
+import com.hotel.auth.helpers.exceptions.ServiceOverloadedException;
+import com.hotel.auth.helpers.exceptions.TooManyAttemptsException;
 import com.hotel.auth.helpers.exceptions.ValidationException;
+import com.hotel.auth.infrastructure.cache.KnownEmailFilter;
+import com.hotel.auth.infrastructure.events.EventOutbox;
 import com.hotel.auth.infrastructure.events.EventPublisher;
+import com.hotel.auth.infrastructure.events.UserLoginEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -39,10 +49,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,7 +69,12 @@ class AuthServiceImplTest {
     @Mock private AuthenticationConfiguration authenticationConfiguration;
     @Mock private RoleRepository roleRepository;
     @Mock private EventPublisher eventPublisher;
-    @Mock private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Mock private EventOutbox eventOutbox;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ResetCodeStore resetCodeStore;
+    @Mock private KnownEmailFilter knownEmailFilter;
+    @Mock private LoginThrottle loginThrottle;
+    @Mock private UserService userService;
     @Mock private AuthenticationManager authenticationManager;
     @Mock private Authentication authentication;
 
@@ -66,9 +86,8 @@ class AuthServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(authService, "passwordResetExpirationMinutes", 30);
-        ReflectionTestUtils.setField(authService, "passwordResetMaxAttempts", 3);
-        ReflectionTestUtils.setField(authService, "passwordResetBlockMinutes", 15);
+        lenient().when(knownEmailFilter.mightExist(anyString())).thenReturn(true);
+        lenient().when(resetCodeStore.isTransactional()).thenReturn(true);
 
         role = new Role();
         role.setId(1L);
@@ -94,13 +113,31 @@ class AuthServiceImplTest {
 
         when(authenticationConfiguration.getAuthenticationManager()).thenReturn(authenticationManager);
         when(authenticationManager.authenticate(any())).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(user);
-        when(tokenService.generateToken(authentication)).thenReturn("access-token-x");
+        when(tokenService.generateTokens(authentication))
+                .thenReturn(new AuthTokens(user, "access-token-x", "refresh-token-x"));
 
-        Map<String, String> result = authService.login(req);
+        AuthTokens result = authService.login(req);
 
-        assertThat(result).containsEntry("access-token", "access-token-x");
+        assertThat(result.user()).isSameAs(user);
+        assertThat(result.accessToken()).isEqualTo("access-token-x");
+        assertThat(result.refreshToken()).isEqualTo("refresh-token-x");
+        verify(tokenService, times(1)).generateTokens(authentication);
+        verifyNoInteractions(userRepository);
         verify(eventPublisher, times(1)).publishUserLogin(any());
+        verify(loginThrottle).recordSuccess("user@luxestay.com");
+    }
+
+    @Test
+    void loginRejectsThrottledAccountBeforeAuthenticating() {
+        LoginRequest req = new LoginRequest();
+        req.setEmail("user@luxestay.com");
+        req.setPassword("any");
+
+        doThrow(new TooManyAttemptsException("bloqueada", 30)).when(loginThrottle).checkAllowed("user@luxestay.com");
+
+        assertThatThrownBy(() -> authService.login(req))
+                .isInstanceOf(TooManyAttemptsException.class);
+        verifyNoInteractions(authenticationConfiguration, tokenService);
     }
 
     @Test
@@ -115,6 +152,8 @@ class AuthServiceImplTest {
 
         assertThatThrownBy(() -> authService.login(req))
                 .isInstanceOf(BadCredentialsException.class);
+        verify(loginThrottle).recordFailure("user@luxestay.com");
+        verify(loginThrottle, never()).recordSuccess(anyString());
     }
 
     @Test
@@ -159,6 +198,34 @@ class AuthServiceImplTest {
                 .hasMessageContaining("autenticación");
     }
 
+    @Test
+    void loginPropagatesOverloadFromPasswordHashing() throws Exception {
+        LoginRequest req = new LoginRequest();
+        req.setEmail("user@luxestay.com");
+        req.setPassword("any");
+
+        when(authenticationConfiguration.getAuthenticationManager()).thenReturn(authenticationManager);
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new ServiceOverloadedException("saturado", 1));
+
+        assertThatThrownBy(() -> authService.login(req))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    @Test
+    void loginUnwrapsOverloadFromInternalAuthenticationServiceException() throws Exception {
+        LoginRequest req = new LoginRequest();
+        req.setEmail("missing@luxestay.com");
+        req.setPassword("any");
+
+        when(authenticationConfiguration.getAuthenticationManager()).thenReturn(authenticationManager);
+        when(authenticationManager.authenticate(any())).thenThrow(new InternalAuthenticationServiceException(
+                "saturado", new ServiceOverloadedException("saturado", 1)));
+
+        assertThatThrownBy(() -> authService.login(req))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
     // ==================== validateToken / getUserFromToken ====================
 
     @Test
@@ -170,6 +237,19 @@ class AuthServiceImplTest {
         assertThat(result).isTrue();
     }
 
+    @Test
+    void verifyTokenDelegatesToTokenService() {
+        VerifiedToken verified = new VerifiedToken(Jwt.withTokenValue("token-x")
+                .header("alg", "RS256")
+                .subject("user@luxestay.com")
+                .build());
+        when(tokenService.verifyToken("token-x")).thenReturn(verified);
+
+        VerifiedToken result = authService.verifyToken("token-x");
+
+        assertThat(result).isSameAs(verified);
+    }
+
     @Test
     void getUserFromTokenDelegatesToTokenService() {
         when(tokenService.getUserFromToken("token-x")).thenReturn("user@luxestay.com");
@@ -179,17 +259,17 @@ class AuthServiceImplTest {
         assertThat(result).isEqualTo("user@luxestay.com");
     }
 
-    // ==================== createUser ====================
+    // ==================== register ====================
 
     @Test
-    void createUserSuccess() {
+    void registerSavesUserAndIssuesTokensWithoutReauthenticating() {
         RegisterRequest req = new RegisterRequest();
         req.setEmail("new@luxestay.com");
         req.setUsername("newuser");
         req.setPassword("Password123");
         req.setTelefono("+5491100000000");
 
-        when(userRepository.findByEmail("new@luxestay.com")).thenReturn(Optional.empty());
+        when(userRepository.existsByEmail("new@luxestay.com")).thenReturn(false);
         when(roleRepository.findByRolename("USER")).thenReturn(Optional.of(role));
         when(passwordEncoder.encode("Password123")).thenReturn("hashed");
         when(userRepository.save(any(User.class))).thenAnswer(inv -> {
@@ -197,8 +277,12 @@ class AuthServiceImplTest {
             u.setId(42L);
             return u;
         });
+        when(tokenService.generateTokens(any(Authentication.class))).thenAnswer(inv -> {
+            User principal = (User) inv.getArgument(0, Authentication.class).getPrincipal();
+            return new AuthTokens(principal, "access-x", "refresh-x");
+        });
 
-        authService.createUser(req);
+        AuthTokens tokens = authService.register(req);
 
         ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
         verify(userRepository).save(captor.capture());
@@ -206,39 +290,119 @@ class AuthServiceImplTest {
         assertThat(captor.getValue().getPassword()).isEqualTo("hashed");
         assertThat(captor.getValue().getTelefono()).isEqualTo("+5491100000000");
         assertThat(captor.getValue().getRole()).isEqualTo(role);
-        verify(eventPublisher, times(1)).publishUserRegistered(any());
+        assertThat(tokens.user()).isSameAs(captor.getValue());
+        assertThat(tokens.accessToken()).isEqualTo("access-x");
+        assertThat(tokens.refreshToken()).isEqualTo("refresh-x");
+        verify(eventOutbox, times(1)).userRegistered(any());
+        ArgumentCaptor<UserLoginEvent> loginEvent = ArgumentCaptor.forClass(UserLoginEvent.class);
+        verify(eventPublisher, times(1)).publishUserLogin(loginEvent.capture());
+        assertThat(loginEvent.getValue().getEmail()).isEqualTo("new@luxestay.com");
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(userRepository, never()).findByEmail(anyString());
+        verifyNoInteractions(authenticationConfiguration);
+        verify(knownEmailFilter).add("new@luxestay.com");
     }
 
     @Test
-    void createUserThrowsConflictExceptionWhenEmailExists() {
+    void registerHashesOutsideTransactionAndWritesOutboxInside() {
+        RegisterRequest req = new RegisterRequest();
+        req.setEmail("new@luxestay.com");
+        req.setUsername("newuser");
+        req.setPassword("Password123");
+
+        when(roleRepository.findByRolename("USER")).thenReturn(Optional.of(role));
+        when(passwordEncoder.encode("Password123")).thenReturn("hashed");
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        authService.register(req);
+
+        InOrder inOrder = inOrder(passwordEncoder, transactionManager, userRepository, eventOutbox);
+        inOrder.verify(passwordEncoder).encode("Password123");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).save(any(User.class));
+        inOrder.verify(eventOutbox).userRegistered(any());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void registerFailsWithoutIssuingTokensWhenOutboxWriteFails() {
+        RegisterRequest req = new RegisterRequest();
+        req.setEmail("new@luxestay.com");
+        req.setUsername("newuser");
+        req.setPassword("Password123");
+
+        when(roleRepository.findByRolename("USER")).thenReturn(Optional.of(role));
+        when(passwordEncoder.encode("Password123")).thenReturn("hashed");
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new IllegalStateException("db down")).when(eventOutbox).userRegistered(any());
+
+        assertThatThrownBy(() -> authService.register(req))
+                .isInstanceOf(IllegalStateException.class);
+        verify(transactionManager).rollback(any());
+        verify(knownEmailFilter, never()).add(anyString());
+        verifyNoInteractions(tokenService);
+        verify(eventPublisher, never()).publishUserLogin(any());
+    }
+
+    @Test
+    void registerChecksDuplicatesAgainstDatabaseEvenForFilterNegatives() {
+        RegisterRequest req = new RegisterRequest();
+        req.setEmail("late@luxestay.com");
+        req.setUsername("late");
+        req.setPassword("Password123");
+
+        lenient().when(knownEmailFilter.mightExist("late@luxestay.com")).thenReturn(false);
+        when(userRepository.existsByEmail("late@luxestay.com")).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.register(req))
+                .isInstanceOf(ConflictException.class);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void registerThrowsConflictExceptionWhenEmailExists() {
         RegisterRequest req = new RegisterRequest();
         req.setEmail("dup@luxestay.com");
         req.setUsername("dup");
         req.setPassword("any");
 
-        when(userRepository.findByEmail("dup@luxestay.com")).thenReturn(Optional.of(user));
+        when(userRepository.existsByEmail("dup@luxestay.com")).thenReturn(true);
 
-        assertThatThrownBy(() -> authService.createUser(req))
+        assertThatThrownBy(() -> authService.register(req))
                 .isInstanceOf(ConflictException.class)
                 .hasMessageContaining("Email ya registrado");
 
         verify(userRepository, never()).save(any());
+        verifyNoInteractions(passwordEncoder, tokenService);
     }
 
     @Test
-    void createUserThrowsEntityNotFoundExceptionWhenDefaultRoleMissing() {
+    void registerThrowsEntityNotFoundExceptionWhenDefaultRoleMissing() {
         RegisterRequest req = new RegisterRequest();
         req.setEmail("new@luxestay.com");
         req.setUsername("new");
         req.setPassword("any");
 
-        when(userRepository.findByEmail("new@luxestay.com")).thenReturn(Optional.empty());
+        when(userRepository.existsByEmail("new@luxestay.com")).thenReturn(false);
         when(roleRepository.findByRolename("USER")).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> authService.createUser(req))
+        assertThatThrownBy(() -> authService.register(req))
                 .isInstanceOf(EntityNotFoundException.class);
     }
 
+    // ==================== updatePassword ====================
+
+    @Test
+    void updatePasswordStoresRehashWithSingleUpdate() {
+        UserDetails result = authService.updatePassword(user, "{bcrypt}rehashed");
+
+        assertThat(result).isSameAs(user);
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}rehashed");
+        verify(userRepository).updatePasswordByEmail(user.getEmail(), "{bcrypt}rehashed");
+        verify(userRepository, never()).save(any());
+    }
+
     // ==================== getUser / loadUserByUsername ====================
 
     @Test
@@ -275,87 +439,114 @@ class AuthServiceImplTest {
                 .isInstanceOf(UsernameNotFoundException.class);
     }
 
+    @Test
+    void loadUserByUsernameSkipsDatabaseForDefinitelyUnknownEmail() {
+        when(knownEmailFilter.mightExist("ghost@luxestay.com")).thenReturn(false);
+
+        assertThatThrownBy(() -> authService.loadUserByUsername("ghost@luxestay.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verifyNoInteractions(userRepository);
+    }
+
     // ==================== requestPasswordReset ====================
 
     @Test
     void requestPasswordResetSuccess() {
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.countByUserAndCreatedAtAfter(eq(user), any())).thenReturn(0L);
-        when(passwordResetTokenRepository.findByUserAndUsedAtIsNull(user)).thenReturn(List.of());
+        when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+        when(resetCodeStore.issue(eq(user), anyString())).thenReturn(true);
 
         authService.requestPasswordReset("user@luxestay.com");
 
-        verify(passwordResetTokenRepository, times(1)).save(any(PasswordResetToken.class));
-        verify(eventPublisher, times(1)).publishPasswordReset(any());
+        ArgumentCaptor<String> code = ArgumentCaptor.forClass(String.class);
+        verify(resetCodeStore).issue(eq(user), code.capture());
+        assertThat(code.getValue()).matches("\\d{6}");
+        verify(eventOutbox).passwordReset(argThat(event -> event.getCode().equals(code.getValue())));
+        verify(transactionManager).commit(any());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void requestPasswordResetSilentWhenUserNotFound() {
-        when(userRepository.findByEmail("missing@luxestay.com")).thenReturn(Optional.empty());
+        when(userService.findByEmail("missing@luxestay.com")).thenReturn(Optional.empty());
 
         authService.requestPasswordReset("missing@luxestay.com");
 
-        verify(passwordResetTokenRepository, never()).save(any());
-        verify(eventPublisher, never()).publishPasswordReset(any());
+        verifyNoInteractions(resetCodeStore, transactionManager);
+        verify(eventOutbox, never()).passwordReset(any());
+    }
+
+    @Test
+    void requestPasswordResetSkipsDatabaseForDefinitelyUnknownEmail() {
+        when(knownEmailFilter.mightExist("ghost@luxestay.com")).thenReturn(false);
+
+        authService.requestPasswordReset("ghost@luxestay.com");
+
+        verifyNoInteractions(userRepository, userService, resetCodeStore, eventOutbox, transactionManager);
     }
 
     @Test
     void requestPasswordResetThrowsValidationExceptionWhenTooManyAttempts() {
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.countByUserAndCreatedAtAfter(eq(user), any())).thenReturn(3L);
+        when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+        when(resetCodeStore.issue(eq(user), anyString())).thenReturn(false);
 
         assertThatThrownBy(() -> authService.requestPasswordReset("user@luxestay.com"))
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("Demasiados intentos");
+        verify(eventOutbox, never()).passwordReset(any());
     }
 
     @Test
-    void requestPasswordResetInvalidatesActiveTokensBeforeIssuingNew() {
-        PasswordResetToken active = new PasswordResetToken();
-        active.setId(7L);
-        active.setUser(user);
-
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.countByUserAndCreatedAtAfter(eq(user), any())).thenReturn(1L);
-        when(passwordResetTokenRepository.findByUserAndUsedAtIsNull(user)).thenReturn(List.of(active));
+    void requestPasswordResetWithMemoryStorePublishesWithoutTransactionOrOutbox() {
+        when(resetCodeStore.isTransactional()).thenReturn(false);
+        when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+        when(resetCodeStore.issue(eq(user), anyString())).thenReturn(true);
 
         authService.requestPasswordReset("user@luxestay.com");
 
-        verify(passwordResetTokenRepository, times(2)).save(any(PasswordResetToken.class));
-        assertThat(active.getUsedAt()).isNotNull();
+        ArgumentCaptor<String> code = ArgumentCaptor.forClass(String.class);
+        verify(resetCodeStore).issue(eq(user), code.capture());
+        verify(eventPublisher).publishPasswordReset(argThat(event -> event.getCode().equals(code.getValue())));
+        verifyNoInteractions(eventOutbox, transactionManager, userRepository);
+    }
+
+    @Test
+    void requestPasswordResetWithMemoryStorePublishesNothingWhenTooManyAttempts() {
+        when(resetCodeStore.isTransactional()).thenReturn(false);
+        when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+        when(resetCodeStore.issue(eq(user), anyString())).thenReturn(false);
+
+        assertThatThrownBy(() -> authService.requestPasswordReset("user@luxestay.com"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Demasiados intentos");
+        verify(eventPublisher, never()).publishPasswordReset(any());
+        verifyNoInteractions(eventOutbox, transactionManager);
     }
 
     // ==================== verifyPasswordResetCode ====================
 
     @Test
     void verifyPasswordResetCodeSuccess() {
-        PasswordResetToken token = new PasswordResetToken();
-        token.setUser(user);
-        token.setCode("123456");
-        token.setExpiresAt(LocalDateTime.now().plusMinutes(10));
-
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.findByUserAndCodeAndUsedAtIsNull(user, "123456"))
-                .thenReturn(Optional.of(token));
+        when(resetCodeStore.verify("user@luxestay.com", "123456")).thenReturn(Verification.VALID);
 
         authService.verifyPasswordResetCode("user@luxestay.com", "123456");
 
-        // No exception expected
+        verify(resetCodeStore, never()).consume(anyString(), anyString());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void verifyPasswordResetCodeThrowsWhenUserNotFound() {
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(knownEmailFilter.mightExist("missing@luxestay.com")).thenReturn(false);
 
         assertThatThrownBy(() -> authService.verifyPasswordResetCode("missing@luxestay.com", "123456"))
-                .isInstanceOf(ValidationException.class);
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Email inválido");
+        verifyNoInteractions(resetCodeStore);
     }
 
     @Test
     void verifyPasswordResetCodeThrowsWhenCodeInvalid() {
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.findByUserAndCodeAndUsedAtIsNull(user, "wrong"))
-                .thenReturn(Optional.empty());
+        when(resetCodeStore.verify("user@luxestay.com", "wrong")).thenReturn(Verification.INVALID);
 
         assertThatThrownBy(() -> authService.verifyPasswordResetCode("user@luxestay.com", "wrong"))
                 .isInstanceOf(ValidationException.class)
@@ -364,71 +555,84 @@ class AuthServiceImplTest {
 
     @Test
     void verifyPasswordResetCodeThrowsWhenCodeExpired() {
-        PasswordResetToken token = new PasswordResetToken();
-        token.setUser(user);
-        token.setCode("123456");
-        token.setExpiresAt(LocalDateTime.now().minusMinutes(1));
-
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.findByUserAndCodeAndUsedAtIsNull(user, "123456"))
-                .thenReturn(Optional.of(token));
+        when(resetCodeStore.verify("user@luxestay.com", "123456")).thenReturn(Verification.EXPIRED);
 
         assertThatThrownBy(() -> authService.verifyPasswordResetCode("user@luxestay.com", "123456"))
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("expirado");
     }
 
+    @Test
+    void verifyPasswordResetCodeThrowsWhenCodeBlocked() {
+        when(resetCodeStore.verify("user@luxestay.com", "000000")).thenReturn(Verification.BLOCKED);
+
+        assertThatThrownBy(() -> authService.verifyPasswordResetCode("user@luxestay.com", "000000"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Solicita un nuevo código");
+    }
+
     // ==================== resetPassword ====================
 
     @Test
     void resetPasswordSuccess() {
-        PasswordResetToken token = new PasswordResetToken();
-        token.setId(7L);
-        token.setUser(user);
-        token.setCode("123456");
-        token.setExpiresAt(LocalDateTime.now().plusMinutes(5));
-
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.findByUserAndCodeAndUsedAtIsNull(user, "123456"))
-                .thenReturn(Optional.of(token));
+        when(resetCodeStore.verify("user@luxestay.com", "123456")).thenReturn(Verification.VALID);
+        when(resetCodeStore.consume("user@luxestay.com", "123456")).thenReturn(Verification.VALID);
         when(passwordEncoder.encode("NewPassword123")).thenReturn("new-hashed");
 
         authService.resetPassword("user@luxestay.com", "123456", "NewPassword123");
 
-        assertThat(user.getPassword()).isEqualTo("new-hashed");
-        verify(userRepository).save(user);
-        verify(passwordResetTokenRepository).delete(token);
+        InOrder inOrder = inOrder(resetCodeStore, passwordEncoder, userRepository);
+        inOrder.verify(resetCodeStore).verify("user@luxestay.com", "123456");
+        inOrder.verify(passwordEncoder).encode("NewPassword123");
+        inOrder.verify(resetCodeStore).consume("user@luxestay.com", "123456");
+        inOrder.verify(userRepository).updatePasswordByEmail("user@luxestay.com", "new-hashed");
+        verify(userRepository, never()).save(any());
     }
 
     @Test
-    void resetPasswordThrowsWhenUserNotFound() {
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+    void resetPasswordDoesNotHashWhenCodeInvalid() {
+        when(resetCodeStore.verify("user@luxestay.com", "wrong")).thenReturn(Verification.INVALID);
 
-        assertThatThrownBy(() -> authService.resetPassword("missing@luxestay.com", "123456", "any"))
-                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> authService.resetPassword("user@luxestay.com", "wrong", "any"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Código inválido");
+        verifyNoInteractions(passwordEncoder);
+        verify(resetCodeStore, never()).consume(anyString(), anyString());
     }
 
     @Test
-    void resetPasswordThrowsWhenCodeInvalid() {
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.findByUserAndCodeAndUsedAtIsNull(user, "wrong"))
-                .thenReturn(Optional.empty());
+    void resetPasswordKeepsCodeWhenHashingIsRejected() {
+        when(resetCodeStore.verify("user@luxestay.com", "123456")).thenReturn(Verification.VALID);
+        when(passwordEncoder.encode("any")).thenThrow(new ServiceOverloadedException("saturado", 1));
 
-        assertThatThrownBy(() -> authService.resetPassword("user@luxestay.com", "wrong", "any"))
+        assertThatThrownBy(() -> authService.resetPassword("user@luxestay.com", "123456", "any"))
+                .isInstanceOf(ServiceOverloadedException.class);
+        verify(resetCodeStore, never()).consume(anyString(), anyString());
+    }
+
+    @Test
+    void resetPasswordThrowsWhenCodeConsumedConcurrently() {
+        when(resetCodeStore.verify("user@luxestay.com", "123456")).thenReturn(Verification.VALID);
+        when(resetCodeStore.consume("user@luxestay.com", "123456")).thenReturn(Verification.INVALID);
+        when(passwordEncoder.encode("any")).thenReturn("new-hashed");
+
+        assertThatThrownBy(() -> authService.resetPassword("user@luxestay.com", "123456", "any"))
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("Código inválido");
+        verify(userRepository, never()).updatePasswordByEmail(anyString(), anyString());
     }
 
     @Test
-    void resetPasswordThrowsWhenCodeExpired() {
-        PasswordResetToken token = new PasswordResetToken();
-        token.setUser(user);
-        token.setCode("123456");
-        token.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+    void resetPasswordThrowsWhenUserNotFound() {
+        when(knownEmailFilter.mightExist("missing@luxestay.com")).thenReturn(false);
 
-        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(passwordResetTokenRepository.findByUserAndCodeAndUsedAtIsNull(user, "123456"))
-                .thenReturn(Optional.of(token));
+        assertThatThrownBy(() -> authService.resetPassword("missing@luxestay.com", "123456", "any"))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void resetPasswordThrowsWhenCodeExpired() {
+        when(resetCodeStore.verify("user@luxestay.com", "123456")).thenReturn(Verification.EXPIRED);
 
         assertThatThrownBy(() -> authService.resetPassword("user@luxestay.com", "123456", "any"))
                 .isInstanceOf(ValidationException.class)
@@ -0,0 +1,157 @@
+package com.hotel.auth.application.service;
+
+import com.hotel.auth.domain.model.PasswordResetToken;
+import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.repository.PasswordResetTokenRepository;
+import com.hotel.auth.domain.repository.UserRepository;
+import com.hotel.auth.domain.service.ResetCodeStore.Verification;
+import com.hotel.auth.infrastructure.security.ResetCodeHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JpaResetCodeStoreTest {
+
+    private static final String EMAIL = "user@luxestay.com";
+
+    @Mock private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ResetCodeHasher hasher = new ResetCodeHasher("pepper");
+    private final TransactionStatus status = mock(TransactionStatus.class);
+    private SimpleMeterRegistry meterRegistry;
+    private JpaResetCodeStore store;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(status);
+        store = new JpaResetCodeStore(passwordResetTokenRepository, userRepository, hasher, transactionManager,
+                meterRegistry, Duration.ofMinutes(30), 3, Duration.ofMinutes(15), 3);
+        user = User.builder().id(1L).email(EMAIL).build();
+    }
+
+    // ==================== issue ====================
+
+    @Test
+    void issueLocksUserThenInvalidatesAndStoresHash() {
+        when(passwordResetTokenRepository.countCreatedSince(eq(1L), any())).thenReturn(0L);
+
+        assertThat(store.issue(user, "123456")).isTrue();
+
+        InOrder inOrder = inOrder(userRepository, passwordResetTokenRepository);
+        inOrder.verify(userRepository).lockById(1L);
+        inOrder.verify(passwordResetTokenRepository).countCreatedSince(eq(1L), any());
+        inOrder.verify(passwordResetTokenRepository).invalidateActive(eq(1L), any(LocalDateTime.class));
+        ArgumentCaptor<PasswordResetToken> saved = ArgumentCaptor.forClass(PasswordResetToken.class);
+        inOrder.verify(passwordResetTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getCode()).isNotEqualTo("123456").isEqualTo(hasher.hash(1L, "123456"));
+        assertThat(saved.getValue().getExpiresAt()).isAfter(LocalDateTime.now().plusMinutes(29));
+    }
+
+    @Test
+    void issueRejectsWhenRequestLimitReached() {
+        when(passwordResetTokenRepository.countCreatedSince(eq(1L), any())).thenReturn(3L);
+
+        assertThat(store.issue(user, "123456")).isFalse();
+
+        verify(passwordResetTokenRepository, never()).invalidateActive(anyLong(), any());
+        verify(passwordResetTokenRepository, never()).save(any());
+    }
+
+    // ==================== verify / consume ====================
+
+    @Test
+    void verifyAcceptsMatchingCodeWithoutConsuming() {
+        PasswordResetToken token = token(LocalDateTime.now().plusMinutes(5));
+        when(passwordResetTokenRepository.lockActiveByEmail(EMAIL)).thenReturn(List.of(token));
+
+        assertThat(store.verify(EMAIL, "123456")).isEqualTo(Verification.VALID);
+
+        verify(passwordResetTokenRepository, never()).consume(anyLong());
+    }
+
+    @Test
+    void consumeDeletesMatchingToken() {
+        PasswordResetToken token = token(LocalDateTime.now().plusMinutes(5));
+        when(passwordResetTokenRepository.lockActiveByEmail(EMAIL)).thenReturn(List.of(token));
+
+        assertThat(store.consume(EMAIL, "123456")).isEqualTo(Verification.VALID);
+
+        verify(passwordResetTokenRepository).consume(7L);
+    }
+
+    @Test
+    void verifyReturnsInvalidWithoutActiveToken() {
+        when(passwordResetTokenRepository.lockActiveByEmail(EMAIL)).thenReturn(List.of());
+
+        assertThat(store.verify(EMAIL, "123456")).isEqualTo(Verification.INVALID);
+    }
+
+    @Test
+    void verifyReturnsExpired() {
+        PasswordResetToken token = token(LocalDateTime.now().minusMinutes(1));
+        when(passwordResetTokenRepository.lockActiveByEmail(EMAIL)).thenReturn(List.of(token));
+
+        assertThat(store.verify(EMAIL, "123456")).isEqualTo(Verification.EXPIRED);
+    }
+
+    @Test
+    void wrongCodesCountAgainstTokenUntilBlocked() {
+        PasswordResetToken token = token(LocalDateTime.now().plusMinutes(5));
+        when(passwordResetTokenRepository.lockActiveByEmail(EMAIL)).thenReturn(List.of(token));
+
+        assertThat(store.verify(EMAIL, "000000")).isEqualTo(Verification.INVALID);
+        assertThat(store.verify(EMAIL, "000001")).isEqualTo(Verification.INVALID);
+        assertThat(store.verify(EMAIL, "000002")).isEqualTo(Verification.BLOCKED);
+
+        assertThat(token.getFailedAttempts()).isEqualTo(3);
+        assertThat(token.getUsedAt()).isNotNull();
+        assertThat(meterRegistry.counter("reset_codes.failures", "store", "jpa").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("reset_codes.blocked", "store", "jpa").count()).isEqualTo(1);
+    }
+
+    @Test
+    void blockedTokenRejectsEvenCorrectCode() {
+        PasswordResetToken token = token(LocalDateTime.now().plusMinutes(5));
+        token.setFailedAttempts(3);
+        when(passwordResetTokenRepository.lockActiveByEmail(EMAIL)).thenReturn(List.of(token));
+
+        assertThat(store.consume(EMAIL, "123456")).isEqualTo(Verification.BLOCKED);
+        verify(passwordResetTokenRepository, never()).consume(anyLong());
+    }
+
+    private PasswordResetToken token(LocalDateTime expiresAt) {
+        PasswordResetToken token = new PasswordResetToken();
+        token.setId(7L);
+        token.setUser(user);
+        token.setCode(hasher.hash(1L, "123456"));
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+}
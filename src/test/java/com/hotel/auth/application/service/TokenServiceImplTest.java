@@ -1,11 +1,14 @@
 package com.hotel.auth.application.service;
 
+import com.hotel.auth.domain.model.AuthTokens;
 import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.model.VerifiedToken;
 import com.hotel.auth.helpers.exceptions.TokenExpiredException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -13,6 +16,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -26,6 +30,8 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,6 +55,9 @@ class TokenServiceImplTest {
         ReflectionTestUtils.setField(tokenService, "jwtRefreshExpiration", 86400);
         ReflectionTestUtils.setField(tokenService, "jwtIssuer", "luxestay-auth");
         ReflectionTestUtils.setField(tokenService, "jwtAudience", "luxestay-api");
+        ReflectionTestUtils.setField(tokenService, "accessTokenAlgorithm", "RS256");
+        ReflectionTestUtils.setField(tokenService, "refreshTokenAlgorithm", "RS256");
+        ReflectionTestUtils.setField(tokenService, "serviceTokenAlgorithm", "RS256");
 
         Role role = new Role();
         role.setRolename("USER");
@@ -77,6 +86,27 @@ class TokenServiceImplTest {
         assertThat(token).isEqualTo("encoded-access-token");
     }
 
+    @Test
+    void generateTokensSharesIssuedAtAndSubjectBetweenAccessAndRefresh() {
+        when(jwtEncoder.encode(any(JwtEncoderParameters.class)))
+                .thenReturn(stubEncodedJwt("access-x"), stubEncodedJwt("refresh-x"));
+
+        AuthTokens tokens = tokenService.generateTokens(authentication);
+
+        assertThat(tokens.user()).isSameAs(user);
+        assertThat(tokens.accessToken()).isEqualTo("access-x");
+        assertThat(tokens.refreshToken()).isEqualTo("refresh-x");
+        ArgumentCaptor<JwtEncoderParameters> captor = ArgumentCaptor.forClass(JwtEncoderParameters.class);
+        verify(jwtEncoder, times(2)).encode(captor.capture());
+        JwtClaimsSet access = captor.getAllValues().get(0).getClaims();
+        JwtClaimsSet refresh = captor.getAllValues().get(1).getClaims();
+        assertThat(access.getIssuedAt()).isEqualTo(refresh.getIssuedAt());
+        assertThat(access.getSubject()).isEqualTo(refresh.getSubject()).isEqualTo("test@luxestay.com");
+        assertThat(access.getClaimAsString("roles")).isEqualTo("ROLE_USER");
+        assertThat((Object) refresh.getClaim("type")).isEqualTo("refresh");
+        assertThat(refresh.getExpiresAt()).isEqualTo(refresh.getIssuedAt().plusSeconds(86400));
+    }
+
     @Test
     void generateRefreshTokenReturnsEncodedTokenValue() {
         Jwt jwt = stubEncodedJwt("encoded-refresh-token");
@@ -97,6 +127,34 @@ class TokenServiceImplTest {
         assertThat(token).isEqualTo("encoded-service-token");
     }
 
+    @Test
+    void generateTokensUseConfiguredAlgorithmPerTokenType() {
+        ReflectionTestUtils.setField(tokenService, "accessTokenAlgorithm", "ES256");
+        ReflectionTestUtils.setField(tokenService, "refreshTokenAlgorithm", "RS256");
+        ReflectionTestUtils.setField(tokenService, "serviceTokenAlgorithm", "ES256");
+        Jwt jwt = stubEncodedJwt("encoded-token");
+        when(jwtEncoder.encode(any(JwtEncoderParameters.class))).thenReturn(jwt);
+
+        tokenService.generateToken(authentication);
+        tokenService.generateRefreshToken(authentication);
+        tokenService.generateServiceToken("hotel-client", "service:hotel");
+
+        ArgumentCaptor<JwtEncoderParameters> captor = ArgumentCaptor.forClass(JwtEncoderParameters.class);
+        verify(jwtEncoder, times(3)).encode(captor.capture());
+        assertThat(captor.getAllValues())
+                .extracting(parameters -> parameters.getJwsHeader().getAlgorithm().getName())
+                .containsExactly("ES256", "RS256", "ES256");
+    }
+
+    @Test
+    void generateTokenThrowsWhenAlgorithmUnsupported() {
+        ReflectionTestUtils.setField(tokenService, "accessTokenAlgorithm", "EdDSA");
+
+        assertThatThrownBy(() -> tokenService.generateToken(authentication))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("EdDSA");
+    }
+
     @Test
     void getUserFromTokenReturnsSubject() {
         Jwt jwt = Jwt.withTokenValue("token-value")
@@ -111,6 +169,49 @@ class TokenServiceImplTest {
         assertThat(subject).isEqualTo("test@luxestay.com");
     }
 
+    @Test
+    void verifyTokenDecodesOnceAndExposesClaims() {
+        Jwt jwt = Jwt.withTokenValue("user-token")
+                .header("alg", "RS256")
+                .subject("test@luxestay.com")
+                .claim("userId", 1L)
+                .claim("roles", "ROLE_USER")
+                .build();
+        when(jwtDecoder.decode("user-token")).thenReturn(jwt);
+
+        VerifiedToken verified = tokenService.verifyToken("user-token");
+
+        assertThat(verified.getSubject()).isEqualTo("test@luxestay.com");
+        assertThat(verified.getUserId()).isEqualTo(1L);
+        assertThat(verified.getRoles()).isEqualTo("ROLE_USER");
+        assertThat(verified.isServiceToken()).isFalse();
+        verify(jwtDecoder, times(1)).decode("user-token");
+    }
+
+    @Test
+    void verifyTokenDetectsServiceToken() {
+        Jwt jwt = Jwt.withTokenValue("svc-token")
+                .header("alg", "RS256")
+                .subject("hotel-client")
+                .claim("client_id", "hotel-client")
+                .claim("scope", "service:hotel")
+                .build();
+        when(jwtDecoder.decode("svc-token")).thenReturn(jwt);
+
+        VerifiedToken verified = tokenService.verifyToken("svc-token");
+
+        assertThat(verified.isServiceToken()).isTrue();
+        assertThat(verified.getUserId()).isNull();
+    }
+
+    @Test
+    void verifyTokenThrowsTokenExpiredExceptionWhenJwtDecoderFails() {
+        when(jwtDecoder.decode("bad-token")).thenThrow(new JwtException("bad signature"));
+
+        assertThatThrownBy(() -> tokenService.verifyToken("bad-token"))
+                .isInstanceOf(TokenExpiredException.class);
+    }
+
     @Test
     void validateTokenReturnsTrueWhenJwtDecoderSucceeds() {
         Jwt jwt = Jwt.withTokenValue("valid-token")
@@ -1,22 +1,38 @@
 package com.hotel.auth.application.service;
 
+import com.hotel.auth.api.dto.UserPage;
 import com.hotel.auth.api.dto.UserResponse;
 import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.User;
 import com.hotel.auth.domain.repository.UserRepository;
 import com.hotel.auth.helpers.exceptions.EntityNotFoundException;
+import com.hotel.auth.infrastructure.cache.KnownEmailFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,6 +43,12 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private KnownEmailFilter knownEmailFilter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -45,25 +67,98 @@ class UserServiceImplTest {
                 .build();
     }
 
+    // ==================== findPage ====================
+
     @Test
-    void findAllReturnsListOfUserResponses() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
+    void findPageReturnsNextAfterIdWhenMoreRowsExist() {
+        when(userRepository.findPageAfter(eq(0L), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(view(1L, "USER"), view(2L, "ADMIN"), view(3L, "USER")));
 
-        List<UserResponse> result = userService.findAll();
+        UserPage page = userService.findPage(null, 2, null, null);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getEmail()).isEqualTo("u@luxestay.com");
+        assertThat(page.getItems()).extracting(UserResponse::getId).containsExactly(1L, 2L);
+        assertThat(page.getItems().get(1).getRole()).isEqualTo(UserResponse.RoleEnum.ADMIN);
+        assertThat(page.getNextAfterId()).isEqualTo(2L);
+        // se pide una fila de mas para saber si hay pagina siguiente
+        verify(userRepository).findPageAfter(eq(0L), isNull(), isNull(), argThat(p -> p.getPageSize() == 3));
     }
 
     @Test
-    void findAllReturnsEmptyListWhenNoUsers() {
-        when(userRepository.findAll()).thenReturn(List.of());
+    void findPageOmitsNextAfterIdOnLastPage() {
+        when(userRepository.findPageAfter(eq(2L), eq("USER"), eq(true), any(Pageable.class)))
+                .thenReturn(List.of(view(3L, "USER")));
 
-        List<UserResponse> result = userService.findAll();
+        UserPage page = userService.findPage(2L, 2, "USER", true);
 
-        assertThat(result).isEmpty();
+        assertThat(page.getItems()).extracting(UserResponse::getId).containsExactly(3L);
+        assertThat(page.getNextAfterId()).isNull();
+    }
+
+    @Test
+    void findPageNeverMaterializesAllUsers() {
+        when(userRepository.findPageAfter(eq(0L), isNull(), isNull(), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(userService.findPage(null, 50, null, null).getItems()).isEmpty();
+        verify(userRepository, never()).findAll();
     }
 
+    // ==================== forEachUser ====================
+
+    @Test
+    void forEachUserStreamsRowsInsideReadOnlyTransaction() {
+        when(transactionManager.getTransaction(argThat(definition -> definition.isReadOnly())))
+                .thenReturn(mock(TransactionStatus.class));
+        when(userRepository.streamAll(null, true)).thenReturn(Stream.of(view(1L, "USER"), view(2L, "USER")));
+
+        List<UserResponse> received = new ArrayList<>();
+        long count = userService.forEachUser(null, true, received::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(received).extracting(UserResponse::getId).containsExactly(1L, 2L);
+        verify(transactionManager).commit(any());
+    }
+
+    private static UserRepository.UserView view(Long id, String rolename) {
+        return new UserRepository.UserView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getNombre() {
+                return "name" + id;
+            }
+
+            @Override
+            public String getEmail() {
+                return "u" + id + "@luxestay.com";
+            }
+
+            @Override
+            public String getTelefono() {
+                return null;
+            }
+
+            @Override
+            public Boolean getActivo() {
+                return true;
+            }
+
+            @Override
+            public LocalDateTime getFechaCreacion() {
+                return LocalDateTime.of(2026, 1, 1, 0, 0);
+            }
+
+            @Override
+            public String getRolename() {
+                return rolename;
+            }
+        };
+    }
+
+    // ==================== findById ====================
+
     @Test
     void findByIdReturnsUserWhenExists() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
@@ -90,6 +185,7 @@ class UserServiceImplTest {
 
         assertThat(result.getEmail()).isEqualTo("u@luxestay.com");
         verify(userRepository).save(user);
+        verify(knownEmailFilter).add("u@luxestay.com");
     }
 
     @Test
@@ -116,4 +212,43 @@ class UserServiceImplTest {
 
         assertThat(result).isEmpty();
     }
+
+    @Test
+    void findByEmailsReturnsUsersKeyedByEmailInOneQuery() {
+        when(userRepository.findByEmailIn(Set.of("u@luxestay.com", "missing@luxestay.com")))
+                .thenReturn(List.of(user));
+
+        Map<String, User> result = userService.findByEmails(Set.of("u@luxestay.com", "missing@luxestay.com"));
+
+        assertThat(result).containsOnlyKeys("u@luxestay.com");
+        verify(userRepository, times(1)).findByEmailIn(any());
+    }
+
+    @Test
+    void findByEmailsSkipsQueryWhenEmpty() {
+        Map<String, User> result = userService.findByEmails(Set.of());
+
+        assertThat(result).isEmpty();
+        verify(userRepository, never()).findByEmailIn(any());
+    }
+
+    // ==================== findByIds ====================
+
+    @Test
+    void findByIdsReturnsProjectedUsersKeyedByIdInOneQuery() {
+        when(userRepository.findViewsByIdIn(Set.of(1L, 2L, 99L))).thenReturn(List.of(view(1L, "USER"), view(2L, "ADMIN")));
+
+        Map<Long, UserResponse> result = userService.findByIds(Set.of(1L, 2L, 99L));
+
+        assertThat(result).containsOnlyKeys(1L, 2L);
+        assertThat(result.get(2L).getRole()).isEqualTo(UserResponse.RoleEnum.ADMIN);
+        verify(userRepository, times(1)).findViewsByIdIn(any());
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void findByIdsSkipsQueryWhenEmpty() {
+        assertThat(userService.findByIds(Set.of())).isEmpty();
+        verify(userRepository, never()).findViewsByIdIn(any());
+    }
 }
@@ -0,0 +1,166 @@
+package com.hotel.auth.benchmark;
+
+import com.hotel.auth.api.dto.LoginRequest;
+import com.hotel.auth.application.service.AuthServiceImpl;
+import com.hotel.auth.application.service.TokenServiceImpl;
+import com.hotel.auth.domain.model.AuthTokens;
+import com.hotel.auth.domain.model.Role;
+import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.repository.RoleRepository;
+import com.hotel.auth.domain.repository.UserRepository;
+import com.hotel.auth.domain.service.LoginThrottle;
+import com.hotel.auth.domain.service.ResetCodeStore;
+import com.hotel.auth.domain.service.UserService;
+import com.hotel.auth.infrastructure.cache.KnownEmailFilter;
+import com.hotel.auth.infrastructure.config.EncoderConfig;
+import com.hotel.auth.infrastructure.events.EventOutbox;
+import com.hotel.auth.infrastructure.events.EventPublisher;
+import com.hotel.auth.infrastructure.security.JwtKeyRing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Login completo (BCrypt + firma de access y refresh) con una lectura de usuario vs el
+ * flujo anterior: login firmaba el access token y el controller volvia a leer el usuario
+ * para firmar el refresh. {@code dbRoundTripMicros} simula la latencia de MySQL por lectura.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.include=LoginBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String EMAIL = "bench@luxestay.com";
+    private static final String PASSWORD = "Password123";
+
+    @Param({"0", "500"})
+    public long dbRoundTripMicros;
+
+    private AuthServiceImpl authService;
+    private TokenServiceImpl tokenService;
+    private UserRepository userRepository;
+    private AuthenticationManager authenticationManager;
+    private LoginRequest loginRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        JwtKeyRing keyRing = new JwtKeyRing(new MockEnvironment()
+                .withProperty("application.security.jwt.public-key",
+                        Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                .withProperty("application.security.jwt.private-key",
+                        Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded())));
+        EncoderConfig encoderConfig = new EncoderConfig();
+        tokenService = new TokenServiceImpl(encoderConfig.jwtEncoder(keyRing), encoderConfig.jwtDecoder(keyRing));
+        ReflectionTestUtils.setField(tokenService, "jwtExpiration", 3600);
+        ReflectionTestUtils.setField(tokenService, "jwtRefreshExpiration", 86400);
+        ReflectionTestUtils.setField(tokenService, "jwtIssuer", "luxestay-auth");
+        ReflectionTestUtils.setField(tokenService, "jwtAudience", "luxestay-api");
+        ReflectionTestUtils.setField(tokenService, "accessTokenAlgorithm", "RS256");
+        ReflectionTestUtils.setField(tokenService, "refreshTokenAlgorithm", "RS256");
+
+        // Costo minimo de BCrypt: el benchmark mide el pipeline, no el hash
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        Role role = new Role();
+        role.setRolename("USER");
+        User user = User.builder()
+                .id(1L)
+                .username("bench")
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(role)
+                .activo(true)
+                .build();
+
+        // stubOnly: Mockito no acumula invocaciones durante millones de iteraciones
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(dbRoundTripMicros);
+        userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByEmail(anyString())).thenAnswer(invocation -> {
+            if (roundTripNanos > 0) {
+                LockSupport.parkNanos(roundTripNanos);
+            }
+            return Optional.of(user);
+        });
+
+        KnownEmailFilter knownEmailFilter = mock(KnownEmailFilter.class, withSettings().stubOnly());
+        when(knownEmailFilter.mightExist(anyString())).thenReturn(true);
+
+        AuthenticationConfiguration authenticationConfiguration =
+                mock(AuthenticationConfiguration.class, withSettings().stubOnly());
+        authService = new AuthServiceImpl(
+                userRepository,
+                tokenService,
+                passwordEncoder,
+                authenticationConfiguration,
+                mock(RoleRepository.class, withSettings().stubOnly()),
+                mock(EventPublisher.class, withSettings().stubOnly()),
+                mock(EventOutbox.class, withSettings().stubOnly()),
+                mock(PlatformTransactionManager.class, withSettings().stubOnly()),
+                mock(ResetCodeStore.class, withSettings().stubOnly()),
+                knownEmailFilter,
+                mock(LoginThrottle.class, withSettings().stubOnly()),
+                mock(UserService.class, withSettings().stubOnly()));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(authService);
+        authenticationManager = new ProviderManager(provider);
+        when(authenticationConfiguration.getAuthenticationManager()).thenReturn(authenticationManager);
+
+        loginRequest = new LoginRequest();
+        loginRequest.setEmail(EMAIL);
+        loginRequest.setPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public String legacyTwoReads() {
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(EMAIL, PASSWORD));
+        String accessToken = tokenService.generateToken(authentication);
+        User user = userRepository.findByEmail(EMAIL).orElseThrow();
+        String refreshToken = tokenService.generateRefreshToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        return accessToken + refreshToken;
+    }
+
+    @Benchmark
+    public AuthTokens singlePass() {
+        return authService.login(loginRequest);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hotel.auth.benchmark;
+
+import com.hotel.auth.application.service.TokenServiceImpl;
+import com.hotel.auth.domain.model.Role;
+import com.hotel.auth.domain.model.User;
+import com.hotel.auth.infrastructure.config.EncoderConfig;
+import com.hotel.auth.infrastructure.security.JwtKeyRing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Firma y verificacion de un access token con cada algoritmo soportado por
+ * {@code JwtKeyRing}. El tamaño del token se imprime en el setup de cada {@code @Param}.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.include=SignatureAlgorithmBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256"})
+    public String algorithm;
+
+    private TokenServiceImpl tokenService;
+    private JwtDecoder jwtDecoder;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair rsa = generateKeyPair("RSA", 2048);
+        KeyPair ec = generateKeyPair("EC", 256);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("application.security.jwt.public-key", encode(rsa.getPublic().getEncoded()))
+                .withProperty("application.security.jwt.private-key", encode(rsa.getPrivate().getEncoded()))
+                .withProperty("application.security.jwt.ec.public-key", encode(ec.getPublic().getEncoded()))
+                .withProperty("application.security.jwt.ec.private-key", encode(ec.getPrivate().getEncoded()));
+        JwtKeyRing keyRing = new JwtKeyRing(environment);
+        EncoderConfig encoderConfig = new EncoderConfig();
+        jwtDecoder = encoderConfig.jwtDecoder(keyRing);
+
+        tokenService = new TokenServiceImpl(encoderConfig.jwtEncoder(keyRing), jwtDecoder);
+        ReflectionTestUtils.setField(tokenService, "jwtExpiration", 3600);
+        ReflectionTestUtils.setField(tokenService, "jwtIssuer", "luxestay-auth");
+        ReflectionTestUtils.setField(tokenService, "jwtAudience", "luxestay-api");
+        ReflectionTestUtils.setField(tokenService, "accessTokenAlgorithm", algorithm);
+
+        Role role = new Role();
+        role.setRolename("USER");
+        User user = User.builder()
+                .id(1L)
+                .username("bench")
+                .email("bench@luxestay.com")
+                .password("x")
+                .role(role)
+                .build();
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        token = tokenService.generateToken(authentication);
+        System.out.printf("%n[%s] access token: %d bytes%n", algorithm, token.getBytes(StandardCharsets.US_ASCII).length);
+    }
+
+    @Benchmark
+    public String sign() {
+        return tokenService.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String verify() {
+        return jwtDecoder.decode(token).getSubject();
+    }
+
+    private static KeyPair generateKeyPair(String algorithm, int size) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+        generator.initialize(size);
+        return generator.generateKeyPair();
+    }
+
+    private static String encode(byte[] der) {
+        return Base64.getEncoder().encodeToString(der);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hotel.auth.benchmark;
+
+import com.hotel.auth.application.service.TokenServiceImpl;
+import com.hotel.auth.domain.model.Role;
+import com.hotel.auth.domain.model.User;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de CPU por request autenticado en {@code JwtAuthenticationFilter}:
+ * el flujo anterior verificaba la firma RS256 tres veces (validateToken + decode +
+ * getUserFromToken); el actual verifica una sola vez con {@code verifyToken}.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.include=TokenVerificationBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    private TokenServiceImpl tokenService;
+    private JwtDecoder jwtDecoder;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        RSAKey rsaKey = new RSAKey.Builder(publicKey)
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build();
+
+        jwtDecoder = NimbusJwtDecoder.withPublicKey(publicKey).build();
+        tokenService = new TokenServiceImpl(
+                new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey))),
+                jwtDecoder);
+        ReflectionTestUtils.setField(tokenService, "jwtExpiration", 3600);
+        ReflectionTestUtils.setField(tokenService, "jwtRefreshExpiration", 86400);
+        ReflectionTestUtils.setField(tokenService, "jwtIssuer", "luxestay-auth");
+        ReflectionTestUtils.setField(tokenService, "jwtAudience", "luxestay-api");
+        ReflectionTestUtils.setField(tokenService, "accessTokenAlgorithm", "RS256");
+        ReflectionTestUtils.setField(tokenService, "refreshTokenAlgorithm", "RS256");
+        ReflectionTestUtils.setField(tokenService, "serviceTokenAlgorithm", "RS256");
+
+        Role role = new Role();
+        role.setRolename("USER");
+        User user = User.builder()
+                .id(1L)
+                .username("bench")
+                .email("bench@luxestay.com")
+                .password("x")
+                .role(role)
+                .build();
+        token = tokenService.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Benchmark
+    public String legacyTripleDecode() {
+        tokenService.validateToken(token);
+        jwtDecoder.decode(token);
+        return tokenService.getUserFromToken(token);
+    }
+
+    @Benchmark
+    public String singleVerify() {
+        return tokenService.verifyToken(token).getSubject();
+    }
+}
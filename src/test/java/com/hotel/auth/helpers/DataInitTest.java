@@ -4,10 +4,12 @@ import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.ServiceClient;
 import com.hotel.auth.domain.repository.RoleRepository;
 import com.hotel.auth.domain.repository.ServiceClientRepository;
+import com.hotel.auth.infrastructure.cache.ServiceClientRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,6 +20,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -28,6 +31,7 @@ class DataInitTest {
 
     @Mock private RoleRepository roleRepository;
     @Mock private ServiceClientRepository serviceClientRepository;
+    @Mock private ServiceClientRegistry serviceClientRegistry;
 
     @InjectMocks
     private DataInit dataInit;
@@ -52,7 +56,7 @@ class DataInitTest {
     void runCreatesUserAndAdminRolesWhenRepositoryEmpty() {
         when(roleRepository.count()).thenReturn(0L);
 
-        dataInit.run();
+        dataInit.afterSingletonsInstantiated();
 
         ArgumentCaptor<Role> captor = ArgumentCaptor.forClass(Role.class);
         verify(roleRepository, times(2)).save(captor.capture());
@@ -65,7 +69,7 @@ class DataInitTest {
     void runSkipsRoleCreationWhenAlreadyExist() {
         when(roleRepository.count()).thenReturn(2L);
 
-        dataInit.run();
+        dataInit.afterSingletonsInstantiated();
 
         verify(roleRepository, never()).save(any());
     }
@@ -76,7 +80,7 @@ class DataInitTest {
     void runSkipsServiceClientWhenClientIdBlank() {
         when(roleRepository.count()).thenReturn(2L);
 
-        dataInit.run();
+        dataInit.afterSingletonsInstantiated();
 
         verify(serviceClientRepository, never()).save(any());
         verify(serviceClientRepository, never()).findByClientId(anyString());
@@ -89,7 +93,7 @@ class DataInitTest {
         ReflectionTestUtils.setField(dataInit, "hotelClientSecret", "secret-x");
         when(serviceClientRepository.findByClientId("hotel-svc")).thenReturn(Optional.empty());
 
-        dataInit.run();
+        dataInit.afterSingletonsInstantiated();
 
         ArgumentCaptor<ServiceClient> captor = ArgumentCaptor.forClass(ServiceClient.class);
         verify(serviceClientRepository, times(1)).save(captor.capture());
@@ -113,7 +117,7 @@ class DataInitTest {
                 .build();
         when(serviceClientRepository.findByClientId("hotel-svc")).thenReturn(Optional.of(existing));
 
-        dataInit.run();
+        dataInit.afterSingletonsInstantiated();
 
         verify(serviceClientRepository, times(1)).save(existing);
         assertThat(existing.getClientSecret()).isEqualTo("new-secret");
@@ -135,7 +139,7 @@ class DataInitTest {
                 .build();
         when(serviceClientRepository.findByClientId("hotel-svc")).thenReturn(Optional.of(existing));
 
-        dataInit.run();
+        dataInit.afterSingletonsInstantiated();
 
         verify(serviceClientRepository, times(1)).save(existing);
         assertThat(existing.getScope()).isEqualTo("service:hotel:new");
@@ -156,7 +160,7 @@ class DataInitTest {
                 .build();
         when(serviceClientRepository.findByClientId("hotel-svc")).thenReturn(Optional.of(existing));
 
-        dataInit.run();
+        dataInit.afterSingletonsInstantiated();
 
         verify(serviceClientRepository, times(1)).save(existing);
         assertThat(existing.getEnabled()).isTrue();
@@ -177,8 +181,24 @@ class DataInitTest {
                 .build();
         when(serviceClientRepository.findByClientId("hotel-svc")).thenReturn(Optional.of(existing));
 
-        dataInit.run();
+        dataInit.afterSingletonsInstantiated();
 
         verify(serviceClientRepository, never()).save(any());
     }
+
+    // ==================== registry ====================
+
+    @Test
+    void runRefreshesServiceClientRegistryAfterInit() {
+        ReflectionTestUtils.setField(dataInit, "hotelClientId", "hotel-client");
+        ReflectionTestUtils.setField(dataInit, "hotelClientSecret", "secret-x");
+        when(roleRepository.count()).thenReturn(2L);
+        when(serviceClientRepository.findByClientId("hotel-client")).thenReturn(Optional.empty());
+
+        dataInit.afterSingletonsInstantiated();
+
+        InOrder inOrder = inOrder(serviceClientRepository, serviceClientRegistry);
+        inOrder.verify(serviceClientRepository).save(any(ServiceClient.class));
+        inOrder.verify(serviceClientRegistry).refresh();
+    }
 }
@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -126,6 +127,28 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getError()).isEqualTo("Validation Failed");
     }
 
+    @Test
+    void handleServiceOverloadedExceptionReturns503WithRetryAfter() {
+        ServiceOverloadedException ex = new ServiceOverloadedException("saturado", 2);
+
+        ResponseEntity<ErrorResponse> response = handler.handleServiceOverloadedException(ex, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getBody().getError()).isEqualTo("Service Unavailable");
+    }
+
+    @Test
+    void handleTooManyAttemptsExceptionReturns429WithRetryAfter() {
+        TooManyAttemptsException ex = new TooManyAttemptsException("bloqueada", 60);
+
+        ResponseEntity<ErrorResponse> response = handler.handleTooManyAttemptsException(ex, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(response.getBody().getError()).isEqualTo("Too Many Requests");
+    }
+
     @Test
     void handleRuntimeExceptionReturns500() {
         RuntimeException ex = new RuntimeException("boom");
@@ -0,0 +1,32 @@
+package com.hotel.auth.infrastructure.actuator;
+
+import com.hotel.auth.infrastructure.filters.IpRateLimitFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HeavyHittersEndpointTest {
+
+    @Mock private IpRateLimitFilter ipRateLimitFilter;
+
+    @InjectMocks
+    private HeavyHittersEndpoint endpoint;
+
+    @Test
+    void heavyHittersDelegatesToFilter() {
+        List<IpRateLimitFilter.HeavyHitterView> hitters = List.of(
+                new IpRateLimitFilter.HeavyHitterView("203.0.113.7", 120, 60, Instant.now()));
+        when(ipRateLimitFilter.heavyHitters()).thenReturn(hitters);
+
+        assertThat(endpoint.heavyHitters()).isEqualTo(hitters);
+    }
+}
@@ -0,0 +1,85 @@
+package com.hotel.auth.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountMinSketchTest {
+
+    @Test
+    void countsExactlyWithoutCollisions() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+
+        for (int i = 0; i < 5; i++) {
+            sketch.add("10.0.0.1");
+        }
+        sketch.add("10.0.0.2");
+
+        assertThat(sketch.estimate("10.0.0.1")).isEqualTo(5);
+        assertThat(sketch.estimate("10.0.0.2")).isEqualTo(1);
+        assertThat(sketch.estimate("10.0.0.3")).isZero();
+    }
+
+    @Test
+    void neverUnderestimatesUnderHeavyCollisions() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("ip-" + (i % 1000));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sketch.estimate("ip-" + i)).isGreaterThanOrEqualTo(10);
+        }
+    }
+
+    @Test
+    void heavyHitterStandsOutFromBackground() {
+        CountMinSketch sketch = new CountMinSketch(4096, 4);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add("ip-" + i);
+        }
+        for (int i = 0; i < 500; i++) {
+            sketch.add("attacker");
+        }
+
+        assertThat(sketch.estimate("attacker")).isBetween(500, 600);
+        assertThat(sketch.estimate("ip-42")).isLessThan(100);
+    }
+
+    @Test
+    void addReturnsUpdatedEstimate() {
+        CountMinSketch sketch = new CountMinSketch(256, 3);
+
+        assertThat(sketch.add("10.0.0.1")).isEqualTo(1);
+        assertThat(sketch.add("10.0.0.1")).isEqualTo(2);
+    }
+
+    @Test
+    void memoryIsFixedAndWidthRoundsToPowerOfTwo() {
+        CountMinSketch sketch = new CountMinSketch(1000, 4);
+        long before = sketch.memoryBytes();
+        for (int i = 0; i < 50_000; i++) {
+            sketch.add("ip-" + i);
+        }
+
+        assertThat(before).isEqualTo(1024L * 4 * Integer.BYTES);
+        assertThat(sketch.memoryBytes()).isEqualTo(before);
+    }
+
+    @Test
+    void clearResetsCounters() {
+        CountMinSketch sketch = new CountMinSketch(256, 3);
+        sketch.add("10.0.0.1");
+
+        sketch.clear();
+
+        assertThat(sketch.estimate("10.0.0.1")).isZero();
+    }
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThatThrownBy(() -> new CountMinSketch(0, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CountMinSketch(16, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,142 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.hotel.auth.helpers.exceptions.TooManyAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryLoginThrottleTest {
+
+    private static final String EMAIL = "user@luxestay.com";
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryLoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new InMemoryLoginThrottle(meterRegistry, 3, Duration.ofMinutes(5),
+                Duration.ofSeconds(30), Duration.ofMinutes(10), 1000, clock);
+    }
+
+    @Test
+    void allowsAttemptsBelowLimit() {
+        throttle.recordFailure(EMAIL);
+        throttle.recordFailure(EMAIL);
+
+        assertThatCode(() -> throttle.checkAllowed(EMAIL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void locksAccountWhenLimitIsReachedInsideWindow() {
+        failTimes(3);
+
+        assertThatThrownBy(() -> throttle.checkAllowed(EMAIL))
+                .isInstanceOf(TooManyAttemptsException.class)
+                .extracting(e -> ((TooManyAttemptsException) e).getRetryAfterSeconds())
+                .isEqualTo(30L);
+        assertThat(meterRegistry.get("login_throttle.rejections").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("login_throttle.lockouts").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failuresOutsideWindowDoNotAccumulate() {
+        throttle.recordFailure(EMAIL);
+        throttle.recordFailure(EMAIL);
+        clock.advance(Duration.ofMinutes(6));
+        throttle.recordFailure(EMAIL);
+
+        assertThatCode(() -> throttle.checkAllowed(EMAIL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void lockoutExpires() {
+        failTimes(3);
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThatCode(() -> throttle.checkAllowed(EMAIL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void repeatedLockoutsGrowExponentiallyUpToMax() {
+        long[] expected = {30, 60, 120, 240, 480, 600, 600};
+        for (long seconds : expected) {
+            failTimes(3);
+            assertThatThrownBy(() -> throttle.checkAllowed(EMAIL))
+                    .extracting(e -> ((TooManyAttemptsException) e).getRetryAfterSeconds())
+                    .isEqualTo(seconds);
+            clock.advance(Duration.ofSeconds(seconds));
+        }
+    }
+
+    @Test
+    void successResetsCounterAndLockoutHistory() {
+        failTimes(3);
+        clock.advance(Duration.ofSeconds(30));
+        throttle.recordSuccess(EMAIL);
+        failTimes(2);
+
+        assertThatCode(() -> throttle.checkAllowed(EMAIL)).doesNotThrowAnyException();
+        throttle.recordFailure(EMAIL);
+        assertThatThrownBy(() -> throttle.checkAllowed(EMAIL))
+                .extracting(e -> ((TooManyAttemptsException) e).getRetryAfterSeconds())
+                .isEqualTo(30L);
+    }
+
+    @Test
+    void emailCaseDoesNotBypassLimit() {
+        throttle.recordFailure("User@LuxeStay.com");
+        throttle.recordFailure("USER@luxestay.com");
+        throttle.recordFailure(EMAIL);
+
+        assertThatThrownBy(() -> throttle.checkAllowed(EMAIL)).isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    @Test
+    void accountsAreIndependent() {
+        failTimes(3);
+
+        assertThatCode(() -> throttle.checkAllowed("other@luxestay.com")).doesNotThrowAnyException();
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            throttle.recordFailure(EMAIL);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.service.ResetCodeStore.Verification;
+import com.hotel.auth.infrastructure.security.ResetCodeHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryResetCodeStoreTest {
+
+    private static final String EMAIL = "user@luxestay.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private InMemoryResetCodeStore store;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        store = new InMemoryResetCodeStore(new ResetCodeHasher("pepper"), meterRegistry,
+                Duration.ofMinutes(30), 3, Duration.ofMinutes(15), 3, 1000, clock);
+        user = User.builder().id(1L).email(EMAIL).build();
+    }
+
+    // ==================== issue ====================
+
+    @Test
+    void issuedCodeVerifiesAndIsConsumedOnce() {
+        assertThat(store.issue(user, "123456")).isTrue();
+
+        assertThat(store.verify(EMAIL, "123456")).isEqualTo(Verification.VALID);
+        assertThat(store.consume(EMAIL, "123456")).isEqualTo(Verification.VALID);
+        assertThat(store.consume(EMAIL, "123456")).isEqualTo(Verification.INVALID);
+    }
+
+    @Test
+    void newCodeInvalidatesPrevious() {
+        store.issue(user, "111111");
+        store.issue(user, "222222");
+
+        assertThat(store.verify(EMAIL, "111111")).isEqualTo(Verification.INVALID);
+        assertThat(store.verify(EMAIL, "222222")).isEqualTo(Verification.VALID);
+    }
+
+    @Test
+    void rejectsRequestsOverLimitWithinWindow() {
+        assertThat(store.issue(user, "000001")).isTrue();
+        assertThat(store.issue(user, "000002")).isTrue();
+        assertThat(store.issue(user, "000003")).isTrue();
+        assertThat(store.issue(user, "000004")).isFalse();
+        // el rechazo no pisa el codigo vigente
+        assertThat(store.verify(EMAIL, "000003")).isEqualTo(Verification.VALID);
+
+        clock.advance(Duration.ofMinutes(15).plusSeconds(1));
+        assertThat(store.issue(user, "000005")).isTrue();
+    }
+
+    @Test
+    void emailLookupFollowsCollation() {
+        store.issue(user, "123456");
+
+        assertThat(store.verify("User@LuxeStay.com", "123456")).isEqualTo(Verification.VALID);
+    }
+
+    // ==================== verify ====================
+
+    @Test
+    void unknownEmailIsInvalid() {
+        assertThat(store.verify("ghost@luxestay.com", "123456")).isEqualTo(Verification.INVALID);
+    }
+
+    @Test
+    void expiredCodeIsReported() {
+        store.issue(user, "123456");
+        clock.advance(Duration.ofMinutes(31));
+
+        assertThat(store.verify(EMAIL, "123456")).isEqualTo(Verification.EXPIRED);
+    }
+
+    @Test
+    void wrongCodesBlockActiveCode() {
+        store.issue(user, "123456");
+
+        assertThat(store.verify(EMAIL, "000000")).isEqualTo(Verification.INVALID);
+        assertThat(store.verify(EMAIL, "000001")).isEqualTo(Verification.INVALID);
+        assertThat(store.verify(EMAIL, "000002")).isEqualTo(Verification.BLOCKED);
+        assertThat(store.verify(EMAIL, "123456")).isEqualTo(Verification.INVALID);
+
+        assertThat(meterRegistry.counter("reset_codes.failures", "store", "memory").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("reset_codes.blocked", "store", "memory").count()).isEqualTo(1);
+    }
+
+    @Test
+    void newCodeResetsFailureCount() {
+        store.issue(user, "123456");
+        store.verify(EMAIL, "000000");
+        store.verify(EMAIL, "000001");
+        store.issue(user, "654321");
+
+        assertThat(store.verify(EMAIL, "000002")).isEqualTo(Verification.INVALID);
+        assertThat(store.verify(EMAIL, "654321")).isEqualTo(Verification.VALID);
+    }
+
+    // ==================== expiry ====================
+
+    @Test
+    void entriesAreEvictedAfterRetention() {
+        store.issue(user, "123456");
+        assertThat(store.size()).isEqualTo(1);
+
+        clock.advance(Duration.ofMinutes(31));
+        assertThat(store.verify(EMAIL, "123456")).isEqualTo(Verification.EXPIRED);
+
+        clock.advance(Duration.ofMinutes(30));
+        assertThat(store.verify(EMAIL, "123456")).isEqualTo(Verification.INVALID);
+        assertThat(store.size()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.hotel.auth.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KnownEmailFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private KnownEmailFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        filter = newFilter(true);
+    }
+
+    // ==================== mightExist ====================
+
+    @Test
+    void everyEmailMightExistUntilFirstBuild() {
+        assertThat(filter.mightExist("ghost@luxestay.com")).isTrue();
+    }
+
+    @Test
+    void rebuildLoadsRegisteredEmails() {
+        givenUsers(0, row(1, "user@luxestay.com"), row(2, "admin@luxestay.com"));
+
+        filter.rebuild();
+
+        assertThat(filter.mightExist("user@luxestay.com")).isTrue();
+        assertThat(filter.mightExist("admin@luxestay.com")).isTrue();
+        assertThat(filter.mightExist("ghost@luxestay.com")).isFalse();
+        assertThat(meterRegistry.get("email_filter.lookups").tag("result", "negative").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("email_filter.memory").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("email_filter.insertions").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void lookupFollowsDatabaseCollation() {
+        givenUsers(0, row(1, "User@LuxeStay.com"), row(2, "straße@luxestay.com"));
+
+        filter.rebuild();
+
+        assertThat(filter.mightExist("user@luxestay.com")).isTrue();
+        assertThat(filter.mightExist("USER@LUXESTAY.COM  ")).isTrue();
+        assertThat(filter.mightExist("strasse@luxestay.com")).isTrue();
+    }
+
+    @Test
+    void nonAsciiLookupsAlwaysGoToDatabase() {
+        givenUsers(0, row(1, "user@luxestay.com"));
+
+        filter.rebuild();
+
+        assertThat(filter.mightExist("jösé@luxestay.com")).isTrue();
+    }
+
+    @Test
+    void addMakesNewEmailVisibleImmediately() {
+        givenUsers(0);
+        filter.rebuild();
+
+        filter.add("new@luxestay.com");
+
+        assertThat(filter.mightExist("new@luxestay.com")).isTrue();
+    }
+
+    // ==================== sync ====================
+
+    @Test
+    void syncRescansOverlapWindowBeforeLastSeenChange() {
+        givenUsers(0, row(1, "user@luxestay.com", T0), row(7, "admin@luxestay.com", T0.plusSeconds(30)));
+        filter.rebuild();
+        givenChangesSince(T0.plusSeconds(30).minusMinutes(1), row(8, "other-instance@luxestay.com", T0.plusSeconds(40)));
+
+        filter.sync();
+
+        assertThat(filter.mightExist("other-instance@luxestay.com")).isTrue();
+        verify(userRepository).streamEmailsChangedSince(T0.plusSeconds(30).minusMinutes(1));
+    }
+
+    @Test
+    void syncPicksUpLateCommitWithLowerIdAndEmailChanges() {
+        givenUsers(0, row(1, "user@luxestay.com", T0), row(9, "newer@luxestay.com", T0.plusSeconds(10)));
+        filter.rebuild();
+        // id 8 commitea despues de leer el 9 y el usuario 1 cambia de email en otra instancia
+        givenChangesSince(T0.plusSeconds(10).minusMinutes(1),
+                row(8, "late@luxestay.com", T0.plusSeconds(5)),
+                row(1, "renamed@luxestay.com", T0.plusSeconds(20)));
+
+        filter.sync();
+
+        assertThat(filter.mightExist("late@luxestay.com")).isTrue();
+        assertThat(filter.mightExist("renamed@luxestay.com")).isTrue();
+    }
+
+    @Test
+    void syncKeepsLastChangeWhenNothingChanged() {
+        givenUsers(0, row(1, "user@luxestay.com", T0));
+        filter.rebuild();
+        givenChangesSince(T0.minusMinutes(1));
+
+        filter.sync();
+        filter.sync();
+
+        verify(userRepository, times(2)).streamEmailsChangedSince(T0.minusMinutes(1));
+    }
+
+    @Test
+    void staleFilterStopsShortCircuitingUntilSyncSucceeds() {
+        givenUsers(0, row(1, "user@luxestay.com", T0));
+        filter.rebuild();
+        when(userRepository.streamEmailsChangedSince(any())).thenThrow(new RuntimeException("db down"));
+
+        clock.advance(Duration.ofSeconds(16));
+        filter.sync();
+
+        assertThat(filter.mightExist("ghost@luxestay.com")).isTrue();
+        assertThat(meterRegistry.get("email_filter.lookups").tag("result", "stale").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void recentSyncKeepsNegativesDefinitive() {
+        givenUsers(0, row(1, "user@luxestay.com", T0));
+        filter.rebuild();
+        givenChangesSince(T0.minusMinutes(1));
+
+        clock.advance(Duration.ofSeconds(16));
+        filter.sync();
+
+        assertThat(filter.mightExist("ghost@luxestay.com")).isFalse();
+    }
+
+    // ==================== rebuild ====================
+
+    @Test
+    void failedRebuildKeepsPreviousFilter() {
+        givenUsers(0, row(1, "user@luxestay.com"));
+        filter.rebuild();
+        when(userRepository.streamEmailsAfter(anyLong())).thenThrow(new RuntimeException("db down"));
+
+        filter.rebuild();
+
+        assertThat(filter.mightExist("user@luxestay.com")).isTrue();
+        assertThat(filter.mightExist("ghost@luxestay.com")).isFalse();
+        assertThat(meterRegistry.get("email_filter.refresh.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledFilterNeverShortCircuits() {
+        KnownEmailFilter disabled = newFilter(false);
+
+        disabled.rebuild();
+
+        assertThat(disabled.mightExist("ghost@luxestay.com")).isTrue();
+    }
+
+    private KnownEmailFilter newFilter(boolean enabled) {
+        return new KnownEmailFilter(userRepository, transactionManager, meterRegistry, enabled, 1000, 0.01,
+                Duration.ofSeconds(5), Duration.ofMinutes(1), clock);
+    }
+
+    private void givenUsers(long afterId, UserRepository.EmailView... rows) {
+        when(userRepository.streamEmailsAfter(afterId)).thenReturn(Stream.of(rows));
+    }
+
+    private void givenChangesSince(LocalDateTime since, UserRepository.EmailView... rows) {
+        when(userRepository.streamEmailsChangedSince(since)).thenAnswer(invocation -> Stream.of(rows));
+    }
+
+    private static UserRepository.EmailView row(long id, String email) {
+        return row(id, email, T0);
+    }
+
+    private static UserRepository.EmailView row(long id, String email, LocalDateTime changedAt) {
+        return new UserRepository.EmailView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public LocalDateTime getFechaActualizacion() {
+                return changedAt;
+            }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
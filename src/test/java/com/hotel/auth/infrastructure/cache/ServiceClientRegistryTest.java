@@ -0,0 +1,132 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.hotel.auth.domain.model.ServiceClient;
+import com.hotel.auth.domain.repository.ServiceClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceClientRegistryTest {
+
+    @Mock private ServiceClientRepository serviceClientRepository;
+    @Mock private ServiceTokenCache serviceTokenCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServiceClientRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new ServiceClientRegistry(serviceClientRepository, serviceTokenCache, meterRegistry);
+    }
+
+    @Test
+    void findReturnsEmptyBeforeFirstRefresh() {
+        assertThat(registry.find("hotel-client")).isEmpty();
+    }
+
+    @Test
+    void findResolvesEnabledClientsAfterRefresh() {
+        when(serviceClientRepository.findAllByEnabledTrue())
+                .thenReturn(List.of(client("hotel-client", "secret-x", "service:hotel")));
+
+        registry.refresh();
+
+        assertThat(registry.find("hotel-client"))
+                .contains(new ServiceClientRegistry.RegisteredClient("hotel-client", "secret-x", "service:hotel"));
+        assertThat(registry.find("missing-client")).isEmpty();
+        assertThat(registry.find(null)).isEmpty();
+    }
+
+    @Test
+    void refreshReplacesWholeSnapshot() {
+        when(serviceClientRepository.findAllByEnabledTrue())
+                .thenReturn(List.of(client("hotel-client", "secret-x", "service:hotel")))
+                .thenReturn(List.of(client("reserva-client", "secret-y", "service:reserva")));
+
+        registry.refresh();
+        registry.refresh();
+
+        assertThat(registry.find("hotel-client")).isEmpty();
+        assertThat(registry.find("reserva-client")).isPresent();
+    }
+
+    @Test
+    void refreshKeepsPreviousSnapshotWhenRepositoryFails() {
+        when(serviceClientRepository.findAllByEnabledTrue())
+                .thenReturn(List.of(client("hotel-client", "secret-x", "service:hotel")))
+                .thenThrow(new IllegalStateException("db down"));
+
+        registry.refresh();
+        registry.refresh();
+
+        assertThat(registry.find("hotel-client")).isPresent();
+        assertThat(meterRegistry.counter("service_clients.refresh.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshEvictsTokensOfRemovedOrChangedClients() {
+        when(serviceClientRepository.findAllByEnabledTrue())
+                .thenReturn(List.of(
+                        client("hotel-client", "secret-x", "service:hotel"),
+                        client("reserva-client", "secret-y", "service:reserva"),
+                        client("notificacion-client", "secret-z", "service:notificacion")))
+                .thenReturn(List.of(
+                        client("hotel-client", "secret-x", "service:hotel"),
+                        client("reserva-client", "rotated", "service:reserva")));
+
+        registry.refresh();
+        registry.refresh();
+
+        verify(serviceTokenCache).evict("reserva-client");
+        verify(serviceTokenCache).evict("notificacion-client");
+        verify(serviceTokenCache, never()).evict("hotel-client");
+    }
+
+    @Test
+    void firstRefreshDoesNotEvict() {
+        when(serviceClientRepository.findAllByEnabledTrue())
+                .thenReturn(List.of(client("hotel-client", "secret-x", "service:hotel")));
+
+        registry.refresh();
+
+        verify(serviceTokenCache, never()).evict(anyString());
+    }
+
+    @Test
+    void metricsTrackLookupsAndSize() {
+        when(serviceClientRepository.findAllByEnabledTrue())
+                .thenReturn(List.of(client("hotel-client", "secret-x", "service:hotel")));
+        registry.refresh();
+
+        registry.find("hotel-client");
+        registry.find("hotel-client");
+        registry.find("missing-client");
+
+        assertThat(meterRegistry.counter("service_clients.lookups", "result", "hit").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("service_clients.lookups", "result", "miss").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("service_clients.size").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.timer("service_clients.refresh").count()).isEqualTo(1);
+    }
+
+    private static ServiceClient client(String clientId, String secret, String scope) {
+        return ServiceClient.builder()
+                .clientId(clientId)
+                .clientSecret(secret)
+                .scope(scope)
+                .enabled(true)
+                .build();
+    }
+}
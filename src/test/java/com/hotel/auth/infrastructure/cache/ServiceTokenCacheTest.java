@@ -0,0 +1,142 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.hotel.auth.domain.service.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTokenCacheTest {
+
+    @Mock
+    private TokenService tokenService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServiceTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ServiceTokenCache(tokenService, meterRegistry, 3600, 0.5, 100);
+    }
+
+    @Test
+    void getSignsOnceAndReusesToken() {
+        when(tokenService.generateServiceToken("hotel-client", "service:hotel")).thenReturn("token-1");
+
+        ServiceTokenCache.ServiceToken first = cache.get("hotel-client", "service:hotel");
+        ServiceTokenCache.ServiceToken second = cache.get("hotel-client", "service:hotel");
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.value()).isEqualTo("token-1");
+        verify(tokenService, times(1)).generateServiceToken("hotel-client", "service:hotel");
+    }
+
+    @Test
+    void getKeysByClientAndScope() {
+        when(tokenService.generateServiceToken("hotel-client", "service:hotel")).thenReturn("token-1");
+        when(tokenService.generateServiceToken("hotel-client", "service:admin")).thenReturn("token-2");
+        when(tokenService.generateServiceToken("reserva-client", "service:hotel")).thenReturn("token-3");
+
+        assertThat(cache.get("hotel-client", "service:hotel").value()).isEqualTo("token-1");
+        assertThat(cache.get("hotel-client", "service:admin").value()).isEqualTo("token-2");
+        assertThat(cache.get("reserva-client", "service:hotel").value()).isEqualTo("token-3");
+    }
+
+    @Test
+    void expiresInReflectsRemainingLifetime() {
+        when(tokenService.generateServiceToken("hotel-client", "service:hotel")).thenReturn("token-1");
+
+        ServiceTokenCache.ServiceToken token = cache.get("hotel-client", "service:hotel");
+
+        assertThat(token.expiresAt()).isBefore(Instant.now().plusSeconds(3601));
+        assertThat(token.expiresInSeconds()).isBetween(3598L, 3600L);
+    }
+
+    @Test
+    void tokenIsReissuedAfterRefreshFraction() throws Exception {
+        ServiceTokenCache shortCache = new ServiceTokenCache(tokenService, meterRegistry, 1, 0.05, 100);
+        when(tokenService.generateServiceToken("hotel-client", "service:hotel"))
+                .thenReturn("token-1", "token-2");
+
+        assertThat(shortCache.get("hotel-client", "service:hotel").value()).isEqualTo("token-1");
+        Thread.sleep(120);
+
+        assertThat(shortCache.get("hotel-client", "service:hotel").value()).isEqualTo("token-2");
+    }
+
+    @Test
+    void evictDropsOnlyThatClient() {
+        when(tokenService.generateServiceToken("hotel-client", "service:hotel")).thenReturn("token-1", "token-2");
+        when(tokenService.generateServiceToken("reserva-client", "service:reserva")).thenReturn("token-3");
+        cache.get("hotel-client", "service:hotel");
+        cache.get("reserva-client", "service:reserva");
+
+        cache.evict("hotel-client");
+
+        assertThat(cache.get("hotel-client", "service:hotel").value()).isEqualTo("token-2");
+        assertThat(cache.get("reserva-client", "service:reserva").value()).isEqualTo("token-3");
+    }
+
+    @Test
+    void concurrentRequestsShareSingleSignature() throws Exception {
+        AtomicInteger signatures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        when(tokenService.generateServiceToken("hotel-client", "service:hotel")).thenAnswer(invocation -> {
+            signatures.incrementAndGet();
+            Thread.sleep(50);
+            return "token-1";
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("hotel-client", "service:hotel").value();
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("token-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(signatures.get()).isEqualTo(1);
+    }
+
+    @Test
+    void constructorRejectsInvalidRefreshFraction() {
+        assertThatThrownBy(() -> new ServiceTokenCache(tokenService, meterRegistry, 3600, 0, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ServiceTokenCache(tokenService, meterRegistry, 3600, 1.5, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void registersCacheMetrics() {
+        assertThat(meterRegistry.find("cache.gets").tag("cache", ServiceTokenCache.CACHE_NAME).meters())
+                .isNotEmpty();
+    }
+}
@@ -0,0 +1,93 @@
+package com.hotel.auth.infrastructure.cache;
+
+import com.hotel.auth.api.dto.TokenValidationResponse;
+import com.hotel.auth.domain.model.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenValidationCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenValidationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TokenValidationCache(meterRegistry, 100, 60);
+    }
+
+    @Test
+    void getReturnsNullWhenTokenNotCached() {
+        assertThat(cache.get("unknown-token")).isNull();
+    }
+
+    @Test
+    void getReturnsCachedResponseAfterPut() {
+        TokenValidationResponse response = response();
+
+        cache.put(verifiedToken("token-a", Instant.now().plusSeconds(3600)), response);
+
+        assertThat(cache.get("token-a")).isSameAs(response);
+        assertThat(cache.get("token-b")).isNull();
+    }
+
+    @Test
+    void putSkipsTokensAlreadyExpired() {
+        cache.put(verifiedToken("token-a", Instant.now().minusSeconds(1)), response());
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void entryExpiresWithTokenWhenExpBeforeCeiling() throws Exception {
+        cache.put(verifiedToken("token-a", Instant.now().plusMillis(50)), response());
+
+        Thread.sleep(120);
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void entryExpiresAtCeilingWhenTokenLivesLonger() throws Exception {
+        TokenValidationCache shortCache = new TokenValidationCache(meterRegistry, 100, 0);
+
+        shortCache.put(verifiedToken("token-a", Instant.now().plusSeconds(3600)), response());
+
+        assertThat(shortCache.get("token-a")).isNull();
+    }
+
+    @Test
+    void registersCacheMetrics() {
+        cache.get("token-a");
+
+        assertThat(meterRegistry.find("cache.gets")
+                .tag("cache", TokenValidationCache.CACHE_NAME)
+                .tag("result", "miss")
+                .functionCounter()
+                .count()).isEqualTo(1.0);
+    }
+
+    private VerifiedToken verifiedToken(String value, Instant expiresAt) {
+        return new VerifiedToken(Jwt.withTokenValue(value)
+                .header("alg", "RS256")
+                .subject("user@luxestay.com")
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    private TokenValidationResponse response() {
+        TokenValidationResponse response = new TokenValidationResponse();
+        response.setValid(true);
+        response.setUserId(1L);
+        response.setEmail("user@luxestay.com");
+        response.setRole("USER");
+        return response;
+    }
+}
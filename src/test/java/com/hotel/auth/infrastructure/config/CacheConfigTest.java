@@ -0,0 +1,216 @@
+package com.hotel.auth.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hotel.auth.application.service.AuthServiceImpl;
+import com.hotel.auth.application.service.UserServiceImpl;
+import com.hotel.auth.domain.model.Role;
+import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.repository.RoleRepository;
+import com.hotel.auth.domain.repository.UserRepository;
+import com.hotel.auth.domain.service.AuthService;
+import com.hotel.auth.domain.service.LoginThrottle;
+import com.hotel.auth.domain.service.ResetCodeStore;
+import com.hotel.auth.domain.service.TokenService;
+import com.hotel.auth.domain.service.UserService;
+import com.hotel.auth.infrastructure.cache.KnownEmailFilter;
+import com.hotel.auth.infrastructure.events.EventOutbox;
+import com.hotel.auth.infrastructure.events.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig(CacheConfigTest.TestConfig.class)
+class CacheConfigTest {
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class TestConfig {
+
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        ResetCodeStore resetCodeStore() {
+            return mock(ResetCodeStore.class);
+        }
+
+        @Bean
+        KnownEmailFilter knownEmailFilter() {
+            KnownEmailFilter filter = mock(KnownEmailFilter.class);
+            when(filter.mightExist(any())).thenReturn(true);
+            return filter;
+        }
+
+        @Bean
+        UserServiceImpl userService(UserRepository userRepository, KnownEmailFilter knownEmailFilter) {
+            return new UserServiceImpl(userRepository, knownEmailFilter, mock(PlatformTransactionManager.class));
+        }
+
+        @Bean
+        AuthServiceImpl authService(UserRepository userRepository,
+                                    ResetCodeStore resetCodeStore,
+                                    KnownEmailFilter knownEmailFilter,
+                                    UserService userService) {
+            PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+            when(passwordEncoder.encode(any())).thenReturn("new-hash");
+            return new AuthServiceImpl(
+                    userRepository,
+                    mock(TokenService.class),
+                    passwordEncoder,
+                    mock(AuthenticationConfiguration.class),
+                    mock(RoleRepository.class),
+                    mock(EventPublisher.class),
+                    mock(EventOutbox.class),
+                    mock(PlatformTransactionManager.class),
+                    resetCodeStore,
+                    knownEmailFilter,
+                    mock(LoginThrottle.class),
+                    userService);
+        }
+    }
+
+    @Autowired private CacheManager cacheManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ResetCodeStore resetCodeStore;
+    @Autowired private UserService userService;
+    @Autowired private AuthService authService;
+    @Autowired private UserDetailsService userDetailsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USERS_BY_EMAIL_CACHE).clear();
+        reset(userRepository, resetCodeStore);
+
+        Role role = new Role();
+        role.setRolename("USER");
+        user = User.builder()
+                .id(1L)
+                .username("name")
+                .email("user@luxestay.com")
+                .password("hash")
+                .role(role)
+                .activo(true)
+                .build();
+    }
+
+    @Test
+    void findByEmailIsServedFromCacheOnSecondCall() {
+        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+        CacheStats before = nativeCache().stats();
+
+        userService.findByEmail("user@luxestay.com");
+        Optional<User> second = userService.findByEmail("user@luxestay.com");
+
+        assertThat(second).contains(user);
+        verify(userRepository, times(1)).findByEmail("user@luxestay.com");
+        CacheStats delta = nativeCache().stats().minus(before);
+        assertThat(delta.hitCount()).isEqualTo(1);
+        assertThat(delta.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadUserByUsernameSharesCacheWithFindByEmail() {
+        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("user@luxestay.com");
+        userService.findByEmail("user@luxestay.com");
+
+        verify(userRepository, times(1)).findByEmail("user@luxestay.com");
+    }
+
+    @Test
+    void unknownEmailIsNotCached() {
+        when(userRepository.findByEmail("missing@luxestay.com")).thenReturn(Optional.empty());
+
+        userService.findByEmail("missing@luxestay.com");
+        userService.findByEmail("missing@luxestay.com");
+
+        verify(userRepository, times(2)).findByEmail("missing@luxestay.com");
+    }
+
+    @Test
+    void saveEvictsCachedUsers() {
+        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.findByEmail("user@luxestay.com");
+        userService.save(user);
+        userService.findByEmail("user@luxestay.com");
+
+        verify(userRepository, times(2)).findByEmail("user@luxestay.com");
+    }
+
+    @Test
+    void deleteByIdEvictsCachedUsers() {
+        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+
+        userService.findByEmail("user@luxestay.com");
+        userService.deleteById(1L);
+        userService.findByEmail("user@luxestay.com");
+
+        verify(userRepository, times(2)).findByEmail("user@luxestay.com");
+    }
+
+    @Test
+    void resetPasswordEvictsCachedUser() {
+        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+        when(resetCodeStore.verify("user@luxestay.com", "123456")).thenReturn(ResetCodeStore.Verification.VALID);
+        when(resetCodeStore.consume("user@luxestay.com", "123456")).thenReturn(ResetCodeStore.Verification.VALID);
+
+        userDetailsService.loadUserByUsername("user@luxestay.com");
+        authService.resetPassword("user@luxestay.com", "123456", "NewPassword123");
+
+        assertThat(nativeCache().getIfPresent("user@luxestay.com")).isNull();
+    }
+
+    @Test
+    void requestPasswordResetReadsUserFromCache() {
+        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+        when(resetCodeStore.issue(any(), any())).thenReturn(true);
+
+        userDetailsService.loadUserByUsername("user@luxestay.com");
+        authService.requestPasswordReset("user@luxestay.com");
+
+        verify(userRepository, times(1)).findByEmail("user@luxestay.com");
+    }
+
+    @Test
+    void updatePasswordEvictsCachedUser() {
+        when(userRepository.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("user@luxestay.com");
+        ((UserDetailsPasswordService) authService).updatePassword(user, "{bcrypt}rehashed");
+
+        assertThat(nativeCache().getIfPresent("user@luxestay.com")).isNull();
+    }
+
+    private Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cacheManager.getCache(CacheConfig.USERS_BY_EMAIL_CACHE)).getNativeCache();
+    }
+}
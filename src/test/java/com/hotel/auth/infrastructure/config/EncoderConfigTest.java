@@ -0,0 +1,74 @@
+package com.hotel.auth.infrastructure.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EncoderConfigTest {
+
+    private static final String PASSWORD = "Password123";
+
+    private final EncoderConfig encoderConfig = new EncoderConfig();
+
+    // ==================== bcrypt ====================
+
+    @Test
+    void bcryptHashesAreTaggedAndNotUpgraded() {
+        PasswordEncoder encoder = passwordEncoder("bcrypt", 5);
+
+        String hash = encoder.encode(PASSWORD);
+
+        assertThat(hash).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches(PASSWORD, hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void legacyUntaggedHashStillMatchesAndIsFlaggedForRehash() {
+        PasswordEncoder encoder = passwordEncoder("bcrypt", 5);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertThat(encoder.matches(PASSWORD, legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void weakerBcryptStrengthIsFlaggedForRehash() {
+        String weaker = passwordEncoder("bcrypt", 4).encode(PASSWORD);
+
+        assertThat(passwordEncoder("bcrypt", 5).upgradeEncoding(weaker)).isTrue();
+    }
+
+    // ==================== argon2 ====================
+
+    @Test
+    void argon2EncodesNewHashesAndUpgradesBcrypt() {
+        PasswordEncoder encoder = passwordEncoder("argon2", 4);
+        String bcrypt = passwordEncoder("bcrypt", 4).encode(PASSWORD);
+
+        String hash = encoder.encode(PASSWORD);
+
+        assertThat(hash).startsWith("{argon2}$argon2id$");
+        assertThat(encoder.matches(PASSWORD, hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+        assertThat(encoder.matches(PASSWORD, bcrypt)).isTrue();
+        assertThat(encoder.upgradeEncoding(bcrypt)).isTrue();
+    }
+
+    @Test
+    void unknownAlgorithmFailsAtStartup() {
+        assertThatThrownBy(() -> passwordEncoder("md5", 4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("md5");
+    }
+
+    // Parametros pinneados y minimos: el test no calibra ni gasta CPU
+    private PasswordEncoder passwordEncoder(String algorithm, int bcryptStrength) {
+        return encoderConfig.passwordEncoder(new SimpleMeterRegistry(), 1, 4, 1,
+                algorithm, 100, bcryptStrength, 1024, 1, 2);
+    }
+}
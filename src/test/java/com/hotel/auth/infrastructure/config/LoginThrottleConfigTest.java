@@ -0,0 +1,66 @@
+package com.hotel.auth.infrastructure.config;
+
+import com.hotel.auth.domain.service.LoginThrottle;
+import com.hotel.auth.infrastructure.cache.InMemoryLoginThrottle;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class LoginThrottleConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(LoginThrottleConfig.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    // ==================== loginThrottle ====================
+
+    @Test
+    void registersInMemoryThrottleByDefault() {
+        contextRunner.run(context -> assertThat(context)
+                .hasSingleBean(LoginThrottle.class)
+                .getBean(LoginThrottle.class).isInstanceOf(InMemoryLoginThrottle.class));
+    }
+
+    @Test
+    void customThrottleBeanReplacesInMemoryOne() {
+        contextRunner.withUserConfiguration(SharedThrottleConfig.class)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(LoginThrottle.class)
+                            .doesNotHaveBean(InMemoryLoginThrottle.class);
+                    // el consumidor recibe el bean propio, sin NoUniqueBeanDefinitionException
+                    assertThat(context.getBean(ThrottleConsumer.class).throttle())
+                            .isSameAs(context.getBean("sharedLoginThrottle"));
+                });
+    }
+
+    @Test
+    void loginThrottlePropertiesAreApplied() {
+        contextRunner.withPropertyValues("application.security.login-throttle.max-failures=0")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().hasRootCauseInstanceOf(IllegalArgumentException.class));
+    }
+
+    @Configuration
+    static class SharedThrottleConfig {
+
+        @Bean
+        LoginThrottle sharedLoginThrottle() {
+            return mock(LoginThrottle.class);
+        }
+
+        @Bean
+        ThrottleConsumer throttleConsumer(LoginThrottle loginThrottle) {
+            return new ThrottleConsumer(loginThrottle);
+        }
+    }
+
+    record ThrottleConsumer(LoginThrottle throttle) {
+    }
+}
@@ -8,15 +8,27 @@ import com.hotel.auth.api.dto.PasswordResetRequest;
 import com.hotel.auth.api.dto.PasswordResetVerifyRequest;
 import com.hotel.auth.api.dto.RefreshTokenRequest;
 import com.hotel.auth.api.dto.RegisterRequest;
+import com.hotel.auth.api.dto.TokenValidationBatchResponse;
 import com.hotel.auth.api.dto.TokenValidationResponse;
+import com.hotel.auth.api.dto.UserBatchGetRequest;
+import com.hotel.auth.api.dto.UserBatchGetResponse;
+import com.hotel.auth.api.dto.UserLookupResult;
+import com.hotel.auth.api.dto.UserPage;
 import com.hotel.auth.api.dto.UserResponse;
+import com.hotel.auth.api.dto.ValidateTokenBatchRequest;
 import com.hotel.auth.api.dto.ValidateTokenRequest;
+import com.hotel.auth.domain.model.AuthTokens;
+import com.hotel.auth.domain.model.JwtPrincipal;
 import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.model.VerifiedToken;
 import com.hotel.auth.domain.service.AuthService;
 import com.hotel.auth.domain.service.TokenService;
 import com.hotel.auth.domain.service.UserService;
 import com.hotel.auth.helpers.exceptions.EntityNotFoundException;
+import com.hotel.auth.helpers.exceptions.TokenExpiredException;
+import com.hotel.auth.helpers.exceptions.ValidationException;
+import com.hotel.auth.infrastructure.cache.TokenValidationCache;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,15 +41,24 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +67,7 @@ class AuthControllerTest {
     @Mock private AuthService authService;
     @Mock private TokenService tokenService;
     @Mock private UserService userService;
+    @Mock private TokenValidationCache tokenValidationCache;
 
     @InjectMocks
     private AuthController authController;
@@ -55,6 +77,9 @@ class AuthControllerTest {
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(authController, "jwtExpiration", 3600);
+        ReflectionTestUtils.setField(authController, "validateBatchMaxSize", 5);
+        ReflectionTestUtils.setField(authController, "userPageMaxSize", 100);
+        ReflectionTestUtils.setField(authController, "userBatchGetMaxSize", 3);
 
         Role role = new Role();
         role.setRolename("USER");
@@ -82,10 +107,7 @@ class AuthControllerTest {
         req.setPassword("Password123");
         req.setUsername("testuser");
 
-        when(authService.login(any(LoginRequest.class)))
-                .thenReturn(Map.of("access-token", "access-x"));
-        when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(tokenService.generateRefreshToken(any())).thenReturn("refresh-x");
+        when(authService.register(req)).thenReturn(new AuthTokens(user, "access-x", "refresh-x"));
 
         ResponseEntity<AuthResponse> response = authController.register(req);
 
@@ -93,22 +115,7 @@ class AuthControllerTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getAccessToken()).isEqualTo("access-x");
         assertThat(response.getBody().getRefreshToken()).isEqualTo("refresh-x");
-        verify(authService).createUser(req);
-    }
-
-    @Test
-    void registerThrowsWhenUserNotFoundAfterRegistration() {
-        RegisterRequest req = new RegisterRequest();
-        req.setEmail("missing@luxestay.com");
-        req.setPassword("Password123");
-        req.setUsername("missing");
-
-        when(authService.login(any(LoginRequest.class)))
-                .thenReturn(Map.of("access-token", "access-x"));
-        when(userService.findByEmail("missing@luxestay.com")).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> authController.register(req))
-                .isInstanceOf(EntityNotFoundException.class);
+        verify(authService, never()).login(any(LoginRequest.class));
     }
 
     // ==================== login ====================
@@ -119,28 +126,15 @@ class AuthControllerTest {
         req.setEmail("user@luxestay.com");
         req.setPassword("Password123");
 
-        when(authService.login(req)).thenReturn(Map.of("access-token", "access-x"));
-        when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(tokenService.generateRefreshToken(any())).thenReturn("refresh-x");
+        when(authService.login(req)).thenReturn(new AuthTokens(user, "access-x", "refresh-x"));
 
         ResponseEntity<AuthResponse> response = authController.login(req);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getAccessToken()).isEqualTo("access-x");
-    }
-
-    @Test
-    void loginThrowsWhenUserNotFound() {
-        LoginRequest req = new LoginRequest();
-        req.setEmail("missing@luxestay.com");
-        req.setPassword("any");
-
-        when(authService.login(req)).thenReturn(Map.of("access-token", "x"));
-        when(userService.findByEmail("missing@luxestay.com")).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> authController.login(req))
-                .isInstanceOf(EntityNotFoundException.class);
+        assertThat(response.getBody().getRefreshToken()).isEqualTo("refresh-x");
+        verifyNoInteractions(userService, tokenService);
     }
 
     // ==================== refreshToken ====================
@@ -150,11 +144,9 @@ class AuthControllerTest {
         RefreshTokenRequest req = new RefreshTokenRequest();
         req.setRefreshToken("old-refresh");
 
-        when(authService.validateToken("old-refresh")).thenReturn(true);
-        when(authService.getUserFromToken("old-refresh")).thenReturn("user@luxestay.com");
+        when(authService.verifyToken("old-refresh")).thenReturn(verifiedToken("old-refresh", "user@luxestay.com"));
         when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
-        when(tokenService.generateToken(any())).thenReturn("new-access");
-        when(tokenService.generateRefreshToken(any())).thenReturn("new-refresh");
+        when(tokenService.generateTokens(any())).thenReturn(new AuthTokens(user, "new-access", "new-refresh"));
 
         ResponseEntity<AuthResponse> response = authController.refreshToken(req);
 
@@ -168,8 +160,7 @@ class AuthControllerTest {
         RefreshTokenRequest req = new RefreshTokenRequest();
         req.setRefreshToken("token");
 
-        when(authService.validateToken("token")).thenReturn(true);
-        when(authService.getUserFromToken("token")).thenReturn("missing@luxestay.com");
+        when(authService.verifyToken("token")).thenReturn(verifiedToken("token", "missing@luxestay.com"));
         when(userService.findByEmail("missing@luxestay.com")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> authController.refreshToken(req))
@@ -183,8 +174,7 @@ class AuthControllerTest {
         ValidateTokenRequest req = new ValidateTokenRequest();
         req.setToken("valid-token");
 
-        when(authService.validateToken("valid-token")).thenReturn(true);
-        when(authService.getUserFromToken("valid-token")).thenReturn("user@luxestay.com");
+        when(authService.verifyToken("valid-token")).thenReturn(verifiedToken("valid-token", "user@luxestay.com"));
         when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
 
         ResponseEntity<TokenValidationResponse> response = authController.validateToken(req);
@@ -192,6 +182,24 @@ class AuthControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getValid()).isTrue();
         assertThat(response.getBody().getEmail()).isEqualTo("user@luxestay.com");
+        verify(tokenValidationCache).put(any(VerifiedToken.class), eq(response.getBody()));
+    }
+
+    @Test
+    void validateTokenReturnsCachedResponseWithoutVerifying() {
+        ValidateTokenRequest req = new ValidateTokenRequest();
+        req.setToken("cached-token");
+        TokenValidationResponse cached = new TokenValidationResponse();
+        cached.setValid(true);
+        cached.setEmail("user@luxestay.com");
+
+        when(tokenValidationCache.get("cached-token")).thenReturn(cached);
+
+        ResponseEntity<TokenValidationResponse> response = authController.validateToken(req);
+
+        assertThat(response.getBody()).isSameAs(cached);
+        verify(authService, never()).verifyToken(any());
+        verify(userService, never()).findByEmail(any());
     }
 
     @Test
@@ -199,14 +207,91 @@ class AuthControllerTest {
         ValidateTokenRequest req = new ValidateTokenRequest();
         req.setToken("any");
 
-        when(authService.validateToken("any")).thenReturn(true);
-        when(authService.getUserFromToken("any")).thenReturn("ghost@luxestay.com");
+        when(authService.verifyToken("any")).thenReturn(verifiedToken("any", "ghost@luxestay.com"));
         when(userService.findByEmail("ghost@luxestay.com")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> authController.validateToken(req))
                 .isInstanceOf(EntityNotFoundException.class);
     }
 
+    // ==================== validateTokenBatch ====================
+
+    @Test
+    void validateTokenBatchReturnsOneResultPerTokenInRequestOrder() {
+        User other = User.builder()
+                .id(2L)
+                .username("other")
+                .email("other@luxestay.com")
+                .password("encoded")
+                .role(user.getRole())
+                .activo(true)
+                .build();
+        ValidateTokenBatchRequest req = new ValidateTokenBatchRequest();
+        req.setTokens(List.of("token-a", "bad-token", "token-b", "token-a", "ghost-token"));
+
+        when(authService.verifyToken("token-a")).thenReturn(verifiedToken("token-a", "user@luxestay.com"));
+        when(authService.verifyToken("token-b")).thenReturn(verifiedToken("token-b", "other@luxestay.com"));
+        when(authService.verifyToken("ghost-token")).thenReturn(verifiedToken("ghost-token", "ghost@luxestay.com"));
+        when(authService.verifyToken("bad-token")).thenThrow(new TokenExpiredException("invalid"));
+        when(userService.findByEmails(Set.of("user@luxestay.com", "other@luxestay.com", "ghost@luxestay.com")))
+                .thenReturn(Map.of("user@luxestay.com", user, "other@luxestay.com", other));
+
+        ResponseEntity<TokenValidationBatchResponse> response = authController.validateTokenBatch(req);
+
+        List<TokenValidationResponse> results = response.getBody().getResults();
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0).getValid()).isTrue();
+        assertThat(results.get(0).getUserId()).isEqualTo(1L);
+        assertThat(results.get(1).getValid()).isFalse();
+        assertThat(results.get(1).getError()).contains("Token inválido");
+        assertThat(results.get(2).getUserId()).isEqualTo(2L);
+        assertThat(results.get(3)).isSameAs(results.get(0));
+        assertThat(results.get(4).getValid()).isFalse();
+        assertThat(results.get(4).getError()).contains("Usuario no encontrado");
+        verify(authService, times(1)).verifyToken("token-a");
+        verify(userService, times(1)).findByEmails(any());
+        verify(userService, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void validateTokenBatchUsesCachedResults() {
+        TokenValidationResponse cached = new TokenValidationResponse();
+        cached.setValid(true);
+        ValidateTokenBatchRequest req = new ValidateTokenBatchRequest();
+        req.setTokens(List.of("cached-token"));
+
+        when(tokenValidationCache.get("cached-token")).thenReturn(cached);
+        when(userService.findByEmails(Set.of())).thenReturn(Map.of());
+
+        ResponseEntity<TokenValidationBatchResponse> response = authController.validateTokenBatch(req);
+
+        assertThat(response.getBody().getResults()).containsExactly(cached);
+        verify(authService, never()).verifyToken(any());
+    }
+
+    @Test
+    void validateTokenBatchRejectsBatchesOverLimit() {
+        ValidateTokenBatchRequest req = new ValidateTokenBatchRequest();
+        req.setTokens(List.of("t1", "t2", "t3", "t4", "t5", "t6"));
+
+        assertThatThrownBy(() -> authController.validateTokenBatch(req))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void validateTokenBatchRejectsNullOrBlankTokens() {
+        ValidateTokenBatchRequest withNull = new ValidateTokenBatchRequest();
+        withNull.setTokens(Arrays.asList("t1", null));
+        ValidateTokenBatchRequest withBlank = new ValidateTokenBatchRequest();
+        withBlank.setTokens(List.of("t1", "  "));
+
+        assertThatThrownBy(() -> authController.validateTokenBatch(withNull))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> authController.validateTokenBatch(withBlank))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(authService, tokenValidationCache);
+    }
+
     // ==================== password reset endpoints ====================
 
     @Test
@@ -263,6 +348,20 @@ class AuthControllerTest {
         assertThat(response.getBody().getEmail()).isEqualTo("user@luxestay.com");
     }
 
+    @Test
+    void getCurrentUserLoadsUserLazilyForClaimsOnlyPrincipal() {
+        JwtPrincipal principal = new JwtPrincipal(1L, "user@luxestay.com", List.of());
+        Authentication auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+
+        when(userService.findByEmail("user@luxestay.com")).thenReturn(Optional.of(user));
+
+        ResponseEntity<UserResponse> response = authController.getCurrentUser();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getId()).isEqualTo(1L);
+    }
+
     @Test
     void getCurrentUserThrowsWhenAuthenticationMissing() {
         SecurityContextHolder.clearContext();
@@ -291,6 +390,90 @@ class AuthControllerTest {
                 .isInstanceOf(EntityNotFoundException.class);
     }
 
+    // ==================== listUsers ====================
+
+    @Test
+    void listUsersDelegatesPageToService() {
+        UserPage page = new UserPage();
+        page.setNextAfterId(20L);
+        when(userService.findPage(10L, 10, "ADMIN", true)).thenReturn(page);
+
+        ResponseEntity<UserPage> response = authController.listUsers(10L, 10, "ADMIN", true);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(page);
+    }
+
+    @Test
+    void listUsersRejectsLimitAboveMax() {
+        assertThatThrownBy(() -> authController.listUsers(null, 101, null, null))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void listUsersRejectsNonPositiveLimit() {
+        assertThatThrownBy(() -> authController.listUsers(null, 0, null, null))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(userService);
+    }
+
+    // ==================== batchGetUsers ====================
+
+    @Test
+    void batchGetUsersReturnsResultsInRequestOrderWithNotFoundMarkers() {
+        UserResponse first = new UserResponse();
+        first.setId(1L);
+        UserResponse third = new UserResponse();
+        third.setId(3L);
+        when(userService.findByIds(any())).thenReturn(Map.of(1L, first, 3L, third));
+        UserBatchGetRequest req = new UserBatchGetRequest();
+        req.setIds(List.of(3L, 2L, 1L));
+
+        ResponseEntity<UserBatchGetResponse> response = authController.batchGetUsers(req);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<UserLookupResult> results = response.getBody().getResults();
+        assertThat(results).extracting(UserLookupResult::getId).containsExactly(3L, 2L, 1L);
+        assertThat(results).extracting(UserLookupResult::getFound).containsExactly(true, false, true);
+        assertThat(results.get(0).getUser()).isSameAs(third);
+        assertThat(results.get(1).getUser()).isNull();
+    }
+
+    @Test
+    void batchGetUsersLooksUpRepeatedIdsOnce() {
+        UserResponse found = new UserResponse();
+        found.setId(1L);
+        when(userService.findByIds(Set.of(1L))).thenReturn(Map.of(1L, found));
+        UserBatchGetRequest req = new UserBatchGetRequest();
+        req.setIds(List.of(1L, 1L, 1L));
+
+        List<UserLookupResult> results = authController.batchGetUsers(req).getBody().getResults();
+
+        assertThat(results).hasSize(3).allMatch(UserLookupResult::getFound);
+        verify(userService, times(1)).findByIds(any());
+    }
+
+    @Test
+    void batchGetUsersRejectsBatchAboveMax() {
+        UserBatchGetRequest req = new UserBatchGetRequest();
+        req.setIds(List.of(1L, 2L, 3L, 4L));
+
+        assertThatThrownBy(() -> authController.batchGetUsers(req))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void batchGetUsersRejectsNullIds() {
+        UserBatchGetRequest req = new UserBatchGetRequest();
+        req.setIds(Arrays.asList(1L, null));
+
+        assertThatThrownBy(() -> authController.batchGetUsers(req))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(userService);
+    }
+
     // ==================== getUserById ====================
 
     @Test
@@ -303,6 +486,13 @@ class AuthControllerTest {
         assertThat(response.getBody().getEmail()).isEqualTo("user@luxestay.com");
     }
 
+    private VerifiedToken verifiedToken(String tokenValue, String subject) {
+        return new VerifiedToken(Jwt.withTokenValue(tokenValue)
+                .header("alg", "RS256")
+                .subject(subject)
+                .build());
+    }
+
     // ==================== getRequest ====================
 
     @Test
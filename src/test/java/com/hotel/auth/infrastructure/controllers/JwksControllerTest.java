@@ -0,0 +1,157 @@
+package com.hotel.auth.infrastructure.controllers;
+
+import com.hotel.auth.application.service.TokenServiceImpl;
+import com.hotel.auth.domain.model.Role;
+import com.hotel.auth.domain.model.User;
+import com.hotel.auth.infrastructure.security.JwtKeyRing;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwksControllerTest {
+
+    private static final KeyPair KEY_PAIR = generateKeyPair();
+
+    private JwtKeyRing keyRing;
+    private JwksController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("application.security.jwt.public-key",
+                        Base64.getEncoder().encodeToString(KEY_PAIR.getPublic().getEncoded()))
+                .withProperty("application.security.jwt.private-key",
+                        Base64.getEncoder().encodeToString(KEY_PAIR.getPrivate().getEncoded()));
+        keyRing = new JwtKeyRing(environment);
+        controller = new JwksController(keyRing);
+        ReflectionTestUtils.setField(controller, "jwtIssuer", "luxestay-auth");
+        ReflectionTestUtils.setField(controller, "jwksCacheMaxAgeSeconds", 3600L);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setScheme("https");
+        request.setServerName("auth.luxestay.com");
+        request.setServerPort(443);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    // ==================== jwks ====================
+
+    @Test
+    void jwksPublishesOnlyPublicKeyMaterial() throws Exception {
+        ResponseEntity<Map<String, Object>> response = controller.jwks(null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JWKSet published = JWKSet.parse(response.getBody());
+        assertThat(published.getKeys()).hasSize(1);
+        JWK key = published.getKeys().get(0);
+        assertThat(key.isPrivate()).isFalse();
+        assertThat(key.getKeyID()).isEqualTo(keyRing.activeKeyId(JWSAlgorithm.RS256));
+        assertThat(key.getAlgorithm().getName()).isEqualTo("RS256");
+    }
+
+    @Test
+    void jwksSetsETagAndPublicCacheControl() {
+        ResponseEntity<Map<String, Object>> response = controller.jwks(null);
+
+        assertThat(response.getHeaders().getETag()).startsWith("\"").endsWith("\"");
+        assertThat(response.getHeaders().getCacheControl()).contains("max-age=3600").contains("public");
+    }
+
+    @Test
+    void jwksReturnsNotModifiedWhenETagMatches() {
+        String etag = controller.jwks(null).getHeaders().getETag();
+
+        ResponseEntity<Map<String, Object>> response = controller.jwks(etag);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+    }
+
+    @Test
+    void jwksReturnsBodyWhenETagDiffers() {
+        ResponseEntity<Map<String, Object>> response = controller.jwks("\"stale\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsKey("keys");
+    }
+
+    // ==================== openidConfiguration ====================
+
+    @Test
+    void openidConfigurationAdvertisesJwksUriAndAlgorithms() {
+        ResponseEntity<Map<String, Object>> response = controller.openidConfiguration();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .containsEntry("issuer", "luxestay-auth")
+                .containsEntry("jwks_uri", "https://auth.luxestay.com/.well-known/jwks.json")
+                .containsEntry("token_endpoint", "https://auth.luxestay.com/oauth/token")
+                .containsEntry("id_token_signing_alg_values_supported", List.of("RS256"));
+    }
+
+    // ==================== kid ====================
+
+    @Test
+    void issuedTokensCarryKidOfPublishedKey() throws Exception {
+        TokenServiceImpl tokenService = new TokenServiceImpl(
+                new NimbusJwtEncoder(keyRing.signingKeySource()),
+                NimbusJwtDecoder.withPublicKey((RSAPublicKey) KEY_PAIR.getPublic()).build());
+        ReflectionTestUtils.setField(tokenService, "jwtExpiration", 3600);
+        ReflectionTestUtils.setField(tokenService, "jwtIssuer", "luxestay-auth");
+        ReflectionTestUtils.setField(tokenService, "jwtAudience", "luxestay-api");
+        ReflectionTestUtils.setField(tokenService, "accessTokenAlgorithm", "RS256");
+        ReflectionTestUtils.setField(tokenService, "refreshTokenAlgorithm", "RS256");
+        ReflectionTestUtils.setField(tokenService, "serviceTokenAlgorithm", "RS256");
+
+        Role role = new Role();
+        role.setRolename("USER");
+        User user = User.builder().id(1L).email("user@luxestay.com").password("x").role(role).build();
+        String token = tokenService.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        String kid = JWSObject.parse(token).getHeader().getKeyID();
+        RSAKey publishedKey = (RSAKey) JWKSet.parse(controller.jwks(null).getBody()).getKeyByKeyId(kid);
+        assertThat(publishedKey).isNotNull();
+        assertThat(publishedKey.toRSAPublicKey()).isEqualTo(KEY_PAIR.getPublic());
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
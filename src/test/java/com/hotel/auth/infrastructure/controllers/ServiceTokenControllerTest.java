@@ -1,8 +1,7 @@
 package com.hotel.auth.infrastructure.controllers;
 
-import com.hotel.auth.domain.model.ServiceClient;
-import com.hotel.auth.domain.repository.ServiceClientRepository;
-import com.hotel.auth.domain.service.TokenService;
+import com.hotel.auth.infrastructure.cache.ServiceClientRegistry;
+import com.hotel.auth.infrastructure.cache.ServiceTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,8 +10,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 
@@ -22,25 +21,17 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class ServiceTokenControllerTest {
 
-    @Mock private ServiceClientRepository serviceClientRepository;
-    @Mock private TokenService tokenService;
+    @Mock private ServiceClientRegistry serviceClientRegistry;
+    @Mock private ServiceTokenCache serviceTokenCache;
 
     @InjectMocks
     private ServiceTokenController controller;
 
-    private ServiceClient client;
+    private ServiceClientRegistry.RegisteredClient client;
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(controller, "jwtExpiration", 3600);
-
-        client = ServiceClient.builder()
-                .id(1L)
-                .clientId("hotel-client")
-                .clientSecret("secret-x")
-                .scope("service:hotel")
-                .enabled(true)
-                .build();
+        client = new ServiceClientRegistry.RegisteredClient("hotel-client", "secret-x", "service:hotel");
     }
 
     @Test
@@ -54,7 +45,7 @@ class ServiceTokenControllerTest {
 
     @Test
     void tokenReturnsUnauthorizedWhenClientNotFound() {
-        when(serviceClientRepository.findByClientIdAndEnabledTrue("missing-client"))
+        when(serviceClientRegistry.find("missing-client"))
                 .thenReturn(Optional.empty());
 
         ResponseEntity<Map<String, Object>> response =
@@ -66,7 +57,7 @@ class ServiceTokenControllerTest {
 
     @Test
     void tokenReturnsUnauthorizedWhenSecretMismatch() {
-        when(serviceClientRepository.findByClientIdAndEnabledTrue("hotel-client"))
+        when(serviceClientRegistry.find("hotel-client"))
                 .thenReturn(Optional.of(client));
 
         ResponseEntity<Map<String, Object>> response =
@@ -78,10 +69,10 @@ class ServiceTokenControllerTest {
 
     @Test
     void tokenReturnsOkWithAccessTokenWhenCredentialsValid() {
-        when(serviceClientRepository.findByClientIdAndEnabledTrue("hotel-client"))
+        when(serviceClientRegistry.find("hotel-client"))
                 .thenReturn(Optional.of(client));
-        when(tokenService.generateServiceToken("hotel-client", "service:hotel"))
-                .thenReturn("service-token-x");
+        when(serviceTokenCache.get("hotel-client", "service:hotel"))
+                .thenReturn(new ServiceTokenCache.ServiceToken("service-token-x", Instant.now().plusSeconds(1800)));
 
         ResponseEntity<Map<String, Object>> response =
                 controller.token("client_credentials", "hotel-client", "secret-x", null);
@@ -90,6 +81,6 @@ class ServiceTokenControllerTest {
         assertThat(response.getBody()).containsEntry("access_token", "service-token-x");
         assertThat(response.getBody()).containsEntry("token_type", "bearer");
         assertThat(response.getBody()).containsEntry("scope", "service:hotel");
-        assertThat(response.getBody()).containsEntry("expires_in", 3600);
+        assertThat((Long) response.getBody().get("expires_in")).isBetween(1798L, 1800L);
     }
 }
@@ -0,0 +1,113 @@
+package com.hotel.auth.infrastructure.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotel.auth.api.dto.UserResponse;
+import com.hotel.auth.domain.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportControllerTest {
+
+    @Mock private UserService userService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private UserExportController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new UserExportController(userService, objectMapper);
+    }
+
+    // ==================== exportUsers ====================
+
+    @Test
+    void exportUsersWritesOneJsonObjectPerLine() throws IOException {
+        stubUsers(user(1L), user(2L));
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportUsers("USER", null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("email").asText()).isEqualTo("u1@luxestay.com");
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    void exportUsersDoesNotQueryUntilBodyIsWritten() {
+        controller.exportUsers(null, true);
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void exportUsersPropagatesClientDisconnectAsIOException() {
+        stubUsers(user(1L));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        StreamingResponseBody body = controller.exportUsers("USER", null).getBody();
+
+        assertThatThrownBy(() -> body.writeTo(broken))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubUsers(UserResponse... users) {
+        when(userService.forEachUser(eq("USER"), isNull(), any())).thenAnswer(invocation -> {
+            Consumer<UserResponse> consumer = invocation.getArgument(2);
+            for (UserResponse user : users) {
+                consumer.accept(user);
+            }
+            return (long) users.length;
+        });
+    }
+
+    private static UserResponse user(long id) {
+        UserResponse user = new UserResponse();
+        user.setId(id);
+        user.setUsername("name" + id);
+        user.setEmail("u" + id + "@luxestay.com");
+        user.setActivo(true);
+        return user;
+    }
+}
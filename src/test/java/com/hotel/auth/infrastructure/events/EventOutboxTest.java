@@ -0,0 +1,97 @@
+package com.hotel.auth.infrastructure.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.auth.domain.model.OutboxEvent;
+import com.hotel.auth.domain.repository.OutboxEventRepository;
+import com.hotel.auth.infrastructure.config.RabbitConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class EventOutboxTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private EventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ==================== enabled ====================
+
+    @Test
+    void userRegisteredWritesSerializedRow() throws Exception {
+        EventOutbox outbox = new EventOutbox(outboxEventRepository, eventPublisher, objectMapper, true);
+        UserRegisteredEvent event = new UserRegisteredEvent(1L, "name", "e@e.com", "USER");
+
+        outbox.userRegistered(event);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent row = captor.getValue();
+        assertThat(row.getRoutingKey()).isEqualTo(RabbitConfig.USER_REGISTERED_ROUTING_KEY);
+        assertThat(row.getCreatedAt()).isNotNull();
+        assertThat(row.getSentAt()).isNull();
+        assertThat(objectMapper.readValue(row.getPayload(), UserRegisteredEvent.class))
+                .usingRecursiveComparison().isEqualTo(event);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void passwordResetWritesRowWithResetRoutingKey() {
+        EventOutbox outbox = new EventOutbox(outboxEventRepository, eventPublisher, objectMapper, true);
+
+        outbox.passwordReset(new PasswordResetEvent(3L, "user3", "u3@e.com", "123456"));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        assertThat(captor.getValue().getRoutingKey()).isEqualTo(RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY);
+        assertThat(captor.getValue().getPayload()).contains("\"code\":\"123456\"");
+    }
+
+    // ==================== disabled ====================
+
+    @Test
+    void disabledOutboxPublishesOnlyAfterCommit() {
+        EventOutbox outbox = new EventOutbox(outboxEventRepository, eventPublisher, objectMapper, false);
+        TransactionSynchronizationManager.initSynchronization();
+        UserRegisteredEvent event = new UserRegisteredEvent(1L, "name", "e@e.com", "USER");
+
+        outbox.userRegistered(event);
+        verify(eventPublisher, never()).publishUserRegistered(any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(eventPublisher).publishUserRegistered(event);
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void disabledOutboxDoesNotPublishOnRollback() {
+        EventOutbox outbox = new EventOutbox(outboxEventRepository, eventPublisher, objectMapper, false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.passwordReset(new PasswordResetEvent(3L, "user3", "u3@e.com", "123456"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(eventPublisher);
+    }
+}
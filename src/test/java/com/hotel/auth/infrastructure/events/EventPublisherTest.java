@@ -1,106 +1,322 @@
 package com.hotel.auth.infrastructure.events;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotel.auth.infrastructure.config.RabbitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.test.util.ReflectionTestUtils;
 
-import static org.mockito.Mockito.doThrow;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
 class EventPublisherTest {
 
     private static final String EXCHANGE = "hotel.events";
 
-    @Mock
-    private RabbitTemplate rabbitTemplate;
+    @TempDir
+    Path tempDir;
 
-    @InjectMocks
+    private RabbitTemplate rabbitTemplate;
+    private RabbitOperations operations;
+    private SimpleMeterRegistry meterRegistry;
     private EventPublisher eventPublisher;
 
+    private final CountDownLatch brokerReleased = new CountDownLatch(1);
+    private final CountDownLatch workerBlocked = new CountDownLatch(1);
+    private volatile boolean brokerStalled;
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(eventPublisher, "eventsExchange", EXCHANGE);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        operations = mock(RabbitOperations.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation -> {
+            // solo el worker queda trabado: CALLER_RUNS publica desde el thread del test
+            if (brokerStalled && Thread.currentThread().getName().equals("event-publisher")) {
+                workerBlocked.countDown();
+                brokerReleased.await(5, TimeUnit.SECONDS);
+            }
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new AmqpException("connection failed");
+            }
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(operations);
+        });
+        eventPublisher = newPublisher(100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        brokerReleased.countDown();
+        eventPublisher.close();
     }
 
+    // ==================== publish ====================
+
     @Test
-    void publishUserRegisteredSendsToRabbitTemplate() {
+    void publishUserRegisteredSendsInBackgroundAndWaitsForConfirms() {
         UserRegisteredEvent event = new UserRegisteredEvent(1L, "name", "e@e.com", "USER");
 
         eventPublisher.publishUserRegistered(event);
 
-        verify(rabbitTemplate, times(1)).convertAndSend(
-                EXCHANGE,
-                RabbitConfig.USER_REGISTERED_ROUTING_KEY,
-                event
-        );
+        verify(operations, timeout(2000)).convertAndSend(EXCHANGE, RabbitConfig.USER_REGISTERED_ROUTING_KEY, event);
+        verify(operations, timeout(2000)).waitForConfirmsOrDie(5000);
     }
 
     @Test
-    void publishUserRegisteredSwallowsExceptions() {
-        UserRegisteredEvent event = new UserRegisteredEvent(1L, "name", "e@e.com", "USER");
-        doThrow(new AmqpException("connection failed"))
-                .when(rabbitTemplate).convertAndSend(EXCHANGE, RabbitConfig.USER_REGISTERED_ROUTING_KEY, event);
+    void publishUserLoginSendsInBackground() {
+        UserLoginEvent event = new UserLoginEvent(2L, "user2", "u2@e.com", "USER");
 
-        // No exception expected — el publisher loggea y sigue
-        eventPublisher.publishUserRegistered(event);
+        eventPublisher.publishUserLogin(event);
 
-        verify(rabbitTemplate, times(1)).convertAndSend(EXCHANGE, RabbitConfig.USER_REGISTERED_ROUTING_KEY, event);
+        verify(operations, timeout(2000)).convertAndSend(EXCHANGE, RabbitConfig.USER_LOGIN_ROUTING_KEY, event);
     }
 
     @Test
-    void publishUserLoginSendsToRabbitTemplate() {
-        UserLoginEvent event = new UserLoginEvent(2L, "user2", "u2@e.com", "USER");
+    void publishPasswordResetSendsInBackground() {
+        PasswordResetEvent event = new PasswordResetEvent(3L, "user3", "u3@e.com", "123456");
 
-        eventPublisher.publishUserLogin(event);
+        eventPublisher.publishPasswordReset(event);
 
-        verify(rabbitTemplate, times(1)).convertAndSend(
-                EXCHANGE,
-                RabbitConfig.USER_LOGIN_ROUTING_KEY,
-                event
-        );
+        verify(operations, timeout(2000)).convertAndSend(EXCHANGE, RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, event);
     }
 
     @Test
-    void publishUserLoginSwallowsExceptions() {
-        UserLoginEvent event = new UserLoginEvent(2L, "user2", "u2@e.com", "USER");
-        doThrow(new AmqpException("connection failed"))
-                .when(rabbitTemplate).convertAndSend(EXCHANGE, RabbitConfig.USER_LOGIN_ROUTING_KEY, event);
+    void slowBrokerDoesNotBlockCallerAndEventsAreBatched() throws InterruptedException {
+        brokerStalled = true;
+        eventPublisher.publishUserLogin(loginEvent(0));
+        assertThat(workerBlocked.await(2, TimeUnit.SECONDS)).isTrue();
 
-        eventPublisher.publishUserLogin(event);
+        long start = System.nanoTime();
+        for (int i = 1; i <= 5; i++) {
+            eventPublisher.publishUserLogin(loginEvent(i));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+        assertThat(meterRegistry.get("events.queue.depth").gauge().value()).isEqualTo(5);
+
+        brokerReleased.countDown();
 
-        verify(rabbitTemplate, times(1)).convertAndSend(EXCHANGE, RabbitConfig.USER_LOGIN_ROUTING_KEY, event);
+        verify(operations, timeout(2000).times(6)).convertAndSend(any(String.class), any(String.class), any(Object.class));
+        verify(rabbitTemplate, timeout(2000).times(2)).invoke(any(RabbitOperations.OperationsCallback.class));
+        assertThat(meterRegistry.get("events.batch.size").summary().max()).isEqualTo(5);
     }
 
     @Test
-    void publishPasswordResetSendsToRabbitTemplate() {
-        PasswordResetEvent event = new PasswordResetEvent(3L, "user3", "u3@e.com", "123456");
+    void recordsPublishedCountAndLatency() {
+        eventPublisher.publishUserLogin(loginEvent(1));
 
-        eventPublisher.publishPasswordReset(event);
+        verify(operations, timeout(2000)).waitForConfirmsOrDie(anyLong());
+        verify(rabbitTemplate, timeout(2000)).invoke(any(RabbitOperations.OperationsCallback.class));
+        awaitCounter("events.published", 1);
+        assertThat(meterRegistry.get("events.publish.latency").tag("routing_key", RabbitConfig.USER_LOGIN_ROUTING_KEY)
+                .timer().count()).isEqualTo(1);
+    }
 
-        verify(rabbitTemplate, times(1)).convertAndSend(
-                EXCHANGE,
-                RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY,
-                event
-        );
+    // ==================== overflow ====================
+
+    @Test
+    void dropPolicyDiscardsLoginEventsWhenQueueIsFull() throws Exception {
+        fillQueue();
+
+        eventPublisher.publishUserLogin(loginEvent(99));
+
+        assertThat(meterRegistry.get("events.dropped")
+                .tags("routing_key", RabbitConfig.USER_LOGIN_ROUTING_KEY, "reason", "overflow")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void blockPolicyWaitsThenDropsRegisteredEvents() throws Exception {
+        fillQueue();
+
+        long start = System.nanoTime();
+        eventPublisher.publishUserRegistered(new UserRegisteredEvent(1L, "name", "e@e.com", "USER"));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(40);
+        assertThat(meterRegistry.get("events.dropped")
+                .tags("routing_key", RabbitConfig.USER_REGISTERED_ROUTING_KEY, "reason", "overflow")
+                .counter().count()).isEqualTo(1);
     }
 
     @Test
-    void publishPasswordResetSwallowsExceptions() {
+    void callerRunsPolicyPublishesResetEventsOnCallerThread() throws Exception {
+        fillQueue();
         PasswordResetEvent event = new PasswordResetEvent(3L, "user3", "u3@e.com", "123456");
-        doThrow(new AmqpException("connection failed"))
-                .when(rabbitTemplate).convertAndSend(EXCHANGE, RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, event);
 
         eventPublisher.publishPasswordReset(event);
 
-        verify(rabbitTemplate, times(1)).convertAndSend(EXCHANGE, RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, event);
+        // sin esperar al worker trabado: ya se publico
+        verify(operations).convertAndSend(EXCHANGE, RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, event);
+        assertThat(meterRegistry.find("events.dropped").counters()).isEmpty();
+    }
+
+    @Test
+    void overflowPolicyParsesPropertyValues() {
+        assertThat(OverflowPolicy.from("caller-runs")).isEqualTo(OverflowPolicy.CALLER_RUNS);
+        assertThat(OverflowPolicy.from(" Drop ")).isEqualTo(OverflowPolicy.DROP);
+        assertThatThrownBy(() -> OverflowPolicy.from("spill")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ==================== failures ====================
+
+    @Test
+    void failedBatchIsRetried() {
+        failuresLeft.set(1);
+
+        eventPublisher.publishUserLogin(loginEvent(1));
+
+        verify(rabbitTemplate, timeout(2000).times(2)).invoke(any(RabbitOperations.OperationsCallback.class));
+        awaitCounter("events.published", 1);
+    }
+
+    @Test
+    void batchIsDroppedAfterMaxAttempts() {
+        failuresLeft.set(Integer.MAX_VALUE);
+
+        eventPublisher.publishUserLogin(loginEvent(1));
+
+        verify(rabbitTemplate, timeout(2000).times(3)).invoke(any(RabbitOperations.OperationsCallback.class));
+        awaitCounter("events.dropped", 1);
+        verify(operations, never()).convertAndSend(any(String.class), any(String.class), any(Object.class));
+    }
+
+    // ==================== spool ====================
+
+    @Test
+    void failedEventsGoToSpoolAndAreReplayedWhenBrokerRecovers() throws Exception {
+        eventPublisher.close();
+        EventSpool spool = enabledSpool();
+        failuresLeft.set(3);
+        eventPublisher = newPublisher(100, spool);
+        eventPublisher.publishUserLogin(loginEvent(1));
+
+        // 3 intentos fallidos -> spool; el siguiente replay ya encuentra el broker arriba
+        // lo que se publica es la copia leida del disco
+        verify(operations, timeout(2000)).convertAndSend(eq(EXCHANGE), eq(RabbitConfig.USER_LOGIN_ROUTING_KEY),
+                argThat((Object payload) -> payload instanceof UserLoginEvent login && login.getUserId().equals(1L)));
+        assertThat(meterRegistry.get("events.spooled")
+                .tags("routing_key", RabbitConfig.USER_LOGIN_ROUTING_KEY, "reason", "failed")
+                .counter().count()).isEqualTo(1);
+        awaitCounter("events.spool.replayed", 1);
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(meterRegistry.find("events.dropped").counters()).isEmpty();
+    }
+
+    @Test
+    void failedPasswordResetIsNeverWrittenToSpool() throws Exception {
+        eventPublisher.close();
+        EventSpool spool = enabledSpool();
+        failuresLeft.set(Integer.MAX_VALUE);
+        eventPublisher = newPublisher(100, spool);
+
+        eventPublisher.publishPasswordReset(new PasswordResetEvent(1L, "user1", "u1@e.com", "123456"));
+
+        awaitCounter("events.dropped", 1);
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(meterRegistry.find("events.spooled").counters()).isEmpty();
+    }
+
+    @Test
+    void overflowGoesToSpoolInsteadOfBeingDropped() throws Exception {
+        eventPublisher.close();
+        eventPublisher = newPublisher(1, enabledSpool());
+        brokerStalled = true;
+        eventPublisher.publishUserLogin(loginEvent(0));
+        assertThat(workerBlocked.await(2, TimeUnit.SECONDS)).isTrue();
+        eventPublisher.publishUserLogin(loginEvent(1));
+
+        eventPublisher.publishUserLogin(loginEvent(2));
+
+        assertThat(meterRegistry.get("events.spooled")
+                .tags("routing_key", RabbitConfig.USER_LOGIN_ROUTING_KEY, "reason", "overflow")
+                .counter().count()).isEqualTo(1);
+        brokerReleased.countDown();
+        verify(operations, timeout(2000).times(3)).convertAndSend(any(String.class), any(String.class), any(Object.class));
+    }
+
+    // ==================== close ====================
+
+    @Test
+    void closeFlushesQueuedEvents() throws Exception {
+        brokerStalled = true;
+        eventPublisher.publishUserLogin(loginEvent(0));
+        assertThat(workerBlocked.await(2, TimeUnit.SECONDS)).isTrue();
+        eventPublisher.publishUserLogin(loginEvent(1));
+        eventPublisher.publishUserLogin(loginEvent(2));
+
+        brokerReleased.countDown();
+        eventPublisher.close();
+
+        verify(operations, times(3)).convertAndSend(any(String.class), any(String.class), any(Object.class));
+        assertThat(meterRegistry.get("events.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new EventPublisher(rabbitTemplate, disabledSpool(), meterRegistry, EXCHANGE, 0, 10,
+                true, 5000, 3, 1, 50, 10, "drop", "block", "caller-runs"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Worker trabado en el broker con el primer evento y la cola (capacidad 1) llena
+    private void fillQueue() throws Exception {
+        eventPublisher.close();
+        eventPublisher = newPublisher(1);
+        brokerStalled = true;
+        eventPublisher.publishUserLogin(loginEvent(0));
+        assertThat(workerBlocked.await(2, TimeUnit.SECONDS)).isTrue();
+        eventPublisher.publishUserLogin(loginEvent(1));
+    }
+
+    private EventPublisher newPublisher(int queueCapacity) {
+        return newPublisher(queueCapacity, disabledSpool());
+    }
+
+    private EventPublisher newPublisher(int queueCapacity, EventSpool spool) {
+        return new EventPublisher(rabbitTemplate, spool, meterRegistry, EXCHANGE, queueCapacity, 10,
+                true, 5000, 3, 1, 50, 10, "drop", "block", "caller-runs");
+    }
+
+    private EventSpool disabledSpool() {
+        return new EventSpool(new ObjectMapper(), meterRegistry, false, tempDir, 1024, 1, false);
+    }
+
+    private EventSpool enabledSpool() {
+        return new EventSpool(new ObjectMapper(), meterRegistry, true, tempDir, 64 * 1024, 4, false);
+    }
+
+    private void awaitCounter(String name, double expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (System.nanoTime() < deadline
+                && meterRegistry.find(name).counters().stream().mapToDouble(c -> c.count()).sum() < expected) {
+            Thread.onSpinWait();
+        }
+        assertThat(meterRegistry.find(name).counters().stream().mapToDouble(c -> c.count()).sum())
+                .isEqualTo(expected);
+    }
+
+    private static UserLoginEvent loginEvent(long id) {
+        return new UserLoginEvent(id, "user" + id, "u" + id + "@e.com", "USER");
     }
 }
@@ -0,0 +1,232 @@
+package com.hotel.auth.infrastructure.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.auth.infrastructure.config.RabbitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventSpoolTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // ==================== append / read ====================
+
+    @Test
+    void readsEventsInWriteOrderWithTheirTypes() {
+        EventSpool spool = open(4);
+        spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(1));
+        spool.append(RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, new PasswordResetEvent(2L, "u", "u@e.com", "123456"));
+        spool.append(RabbitConfig.USER_REGISTERED_ROUTING_KEY, new UserRegisteredEvent(3L, "u", "u@e.com", "USER"));
+
+        EventSpool.ReplayBatch batch = spool.read(10);
+
+        assertThat(batch.events()).extracting(EventPublisher.PendingEvent::routingKey).containsExactly(
+                RabbitConfig.USER_LOGIN_ROUTING_KEY,
+                RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY,
+                RabbitConfig.USER_REGISTERED_ROUTING_KEY);
+        assertThat(batch.events().get(1).payload()).isInstanceOf(PasswordResetEvent.class)
+                .extracting("code").isEqualTo("123456");
+        assertThat(spool.isEmpty()).isFalse();
+    }
+
+    @Test
+    void readDoesNotAdvanceUntilAcknowledged() {
+        EventSpool spool = open(4);
+        spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(1));
+        spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(2));
+
+        EventSpool.ReplayBatch first = spool.read(1);
+        assertThat(userIds(spool.read(1))).containsExactly(1L);
+        spool.acknowledge(first);
+
+        assertThat(userIds(spool.read(10))).containsExactly(2L);
+        assertThat(meterRegistry.counter("events.spool.replayed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void acknowledgingEverythingEmptiesTheSpool() {
+        EventSpool spool = open(4);
+        spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(1));
+
+        spool.acknowledge(spool.read(10));
+
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(spool.read(10).events()).isEmpty();
+        assertThat(meterRegistry.get("events.spool.pending").gauge().value()).isZero();
+    }
+
+    // ==================== segments ====================
+
+    @Test
+    void rotatesSegmentsAndDeletesThemOnceConsumed() throws Exception {
+        EventSpool spool = open(4);
+        for (int i = 0; i < 30; i++) {
+            assertThat(spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(i))).isTrue();
+        }
+        assertThat(segmentFiles()).isGreaterThan(1);
+
+        EventSpool.ReplayBatch batch = spool.read(100);
+        spool.acknowledge(batch);
+
+        assertThat(userIds(batch)).hasSize(30).startsWith(0L, 1L, 2L).endsWith(29L);
+        assertThat(segmentFiles()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsAppendsWhenAllSegmentsAreFull() {
+        EventSpool spool = open(1);
+        int accepted = 0;
+        while (spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(accepted))) {
+            accepted++;
+        }
+
+        assertThat(accepted).isPositive();
+        assertThat(meterRegistry.counter("events.spool.rejected").count()).isEqualTo(1);
+        assertThat(userIds(spool.read(100))).hasSize(accepted);
+    }
+
+    @Test
+    void disabledSpoolAcceptsNothing() {
+        EventSpool spool = new EventSpool(new ObjectMapper(), meterRegistry, false, directory, SEGMENT_SIZE, 4, false);
+
+        assertThat(spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(1))).isFalse();
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(directory.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new EventSpool(new ObjectMapper(), meterRegistry, true, directory, 100, 4, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refusesDirectoryAlreadyInUseByAnotherSpool() {
+        EventSpool spool = open(4);
+        spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(1));
+
+        assertThatThrownBy(() -> open(4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ya esta en uso");
+        // el spool vigente no se toca
+        assertThat(userIds(spool.read(10))).containsExactly(1L);
+    }
+
+    @Test
+    void closeReleasesTheDirectoryLock() {
+        open(4).close();
+
+        EventSpool reopened = open(4);
+
+        assertThat(reopened.isEmpty()).isTrue();
+        reopened.close();
+    }
+
+    // ==================== recovery ====================
+
+    @Test
+    void reopenResumesFromAcknowledgedOffset() {
+        EventSpool spool = open(4);
+        for (int i = 1; i <= 3; i++) {
+            spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(i));
+        }
+        spool.acknowledge(spool.read(1));
+        spool.close();
+
+        EventSpool reopened = open(4);
+
+        assertThat(userIds(reopened.read(10))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void appendAfterReopenContinuesAtEndOfData() {
+        EventSpool spool = open(4);
+        spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(1));
+        spool.close();
+
+        EventSpool reopened = open(4);
+        reopened.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(2));
+
+        assertThat(userIds(reopened.read(10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void tornRecordAtTailIsIgnoredOnReopen() throws Exception {
+        EventSpool spool = open(4);
+        spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(1));
+        int end = (int) spool.pendingBytes();
+        spool.close();
+        // largo escrito pero crc/cuerpo invalidos: una escritura cortada a la mitad
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(40);
+            file.writeInt(12345);
+        }
+
+        EventSpool reopened = open(4);
+        reopened.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(2));
+
+        assertThat(userIds(reopened.read(10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void corruptLatestOffsetSlotFallsBackToPreviousOne() throws Exception {
+        EventSpool spool = open(4);
+        for (int i = 1; i <= 3; i++) {
+            spool.append(RabbitConfig.USER_LOGIN_ROUTING_KEY, login(i));
+        }
+        spool.acknowledge(spool.read(1));
+        spool.acknowledge(spool.read(1));
+        spool.close();
+        // la generacion 2 va al slot 0: se rompe su checksum
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("spool.offset").toFile(), "rw")) {
+            file.seek(20);
+            file.writeInt(0);
+        }
+
+        EventSpool reopened = open(4);
+
+        // vuelve al offset de la generacion 1: el evento 2 se re-publica (at-least-once)
+        assertThat(userIds(reopened.read(10))).containsExactly(2L, 3L);
+    }
+
+    private EventSpool open(int maxSegments) {
+        return new EventSpool(new ObjectMapper(), meterRegistry, true, directory, SEGMENT_SIZE, maxSegments, false);
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+
+    private Path onlySegment() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+    }
+
+    private static Long[] userIds(EventSpool.ReplayBatch batch) {
+        return batch.events().stream()
+                .map(event -> ((UserLoginEvent) event.payload()).getUserId())
+                .toArray(Long[]::new);
+    }
+
+    private static UserLoginEvent login(long id) {
+        return new UserLoginEvent(id, "user" + id, "u" + id + "@e.com", "USER");
+    }
+}
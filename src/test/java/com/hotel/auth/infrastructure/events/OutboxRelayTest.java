@@ -0,0 +1,266 @@
+package com.hotel.auth.infrastructure.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.auth.domain.model.OutboxEvent;
+import com.hotel.auth.domain.repository.OutboxEventRepository;
+import com.hotel.auth.infrastructure.config.RabbitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private EventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TransactionStatus status = mock(TransactionStatus.class);
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(status);
+        relay = new OutboxRelay(outboxEventRepository, eventPublisher, objectMapper, transactionManager,
+                meterRegistry, true, 2, 24, 1000, 60000, 5000, 5000);
+    }
+
+    // ==================== relay ====================
+
+    @Test
+    void publishesBatchAndMarksRowsSent() throws Exception {
+        UserRegisteredEvent event = new UserRegisteredEvent(1L, "name", "e@e.com", "USER");
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(List.of(
+                row(10L, RabbitConfig.USER_REGISTERED_ROUTING_KEY, objectMapper.writeValueAsString(event))));
+        when(eventPublisher.publishNow(anyList())).thenReturn(true);
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EventPublisher.PendingEvent>> batch = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishNow(batch.capture());
+        assertThat(batch.getValue()).singleElement().satisfies(pending -> {
+            assertThat(pending.routingKey()).isEqualTo(RabbitConfig.USER_REGISTERED_ROUTING_KEY);
+            assertThat(pending.payload()).isInstanceOf(UserRegisteredEvent.class)
+                    .usingRecursiveComparison().isEqualTo(event);
+        });
+        verify(outboxEventRepository).claim(eq(List.of(10L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).markSent(eq(List.of(10L)), any(LocalDateTime.class));
+        assertThat(meterRegistry.counter("outbox.relayed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void publishesOutsideTheClaimTransaction() {
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(loginRows(1));
+        when(eventPublisher.publishNow(anyList())).thenReturn(true);
+
+        relay.relay();
+
+        // locks y conexion se liberan antes de esperar los confirms del broker
+        InOrder inOrder = inOrder(transactionManager, outboxEventRepository, eventPublisher);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxEventRepository).lockUnsent(any(LocalDateTime.class), eq(2));
+        inOrder.verify(outboxEventRepository).claim(eq(List.of(1L)), any(LocalDateTime.class));
+        inOrder.verify(transactionManager).commit(status);
+        inOrder.verify(eventPublisher).publishNow(anyList());
+        inOrder.verify(outboxEventRepository).markSent(eq(List.of(1L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void claimLeaseOutlastsThePublish() {
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(loginRows(1));
+        when(eventPublisher.publishNow(anyList())).thenReturn(true);
+
+        relay.relay();
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> claimedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxEventRepository).lockUnsent(now.capture(), eq(2));
+        verify(outboxEventRepository).claim(anyList(), claimedUntil.capture());
+        assertThat(claimedUntil.getValue()).isEqualTo(now.getValue().plusSeconds(60));
+    }
+
+    @Test
+    void keepsRelayingWhileBatchesAreFull() {
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2)))
+                .thenReturn(loginRows(1, 2))
+                .thenReturn(loginRows(3, 4))
+                .thenReturn(loginRows(5));
+        when(eventPublisher.publishNow(anyList())).thenReturn(true);
+
+        relay.relay();
+
+        verify(outboxEventRepository, times(3)).lockUnsent(any(LocalDateTime.class), eq(2));
+        verify(outboxEventRepository, times(3)).claim(anyList(), any(LocalDateTime.class));
+        verify(outboxEventRepository, times(3)).markSent(anyList(), any(LocalDateTime.class));
+        assertThat(meterRegistry.counter("outbox.relayed").count()).isEqualTo(5);
+    }
+
+    @Test
+    void deliveredPasswordResetRowsAreDeletedInsteadOfRetained() throws Exception {
+        PasswordResetEvent reset = new PasswordResetEvent(1L, "name", "e@e.com", "123456");
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(List.of(
+                row(10L, RabbitConfig.USER_PASSWORD_RESET_ROUTING_KEY, objectMapper.writeValueAsString(reset)),
+                row(11L, RabbitConfig.USER_REGISTERED_ROUTING_KEY,
+                        objectMapper.writeValueAsString(new UserRegisteredEvent(2L, "n", "f@f.com", "USER")))),
+                List.of());
+        when(eventPublisher.publishNow(anyList())).thenReturn(true);
+
+        relay.relay();
+
+        verify(outboxEventRepository).deleteByIds(List.of(10L));
+        verify(outboxEventRepository).markSent(eq(List.of(11L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void brokerFailureReleasesClaimAndBacksOff() {
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(loginRows(1, 2));
+        when(eventPublisher.publishNow(anyList())).thenReturn(false);
+
+        relay.relay();
+        // la segunda pasada cae dentro del backoff y no vuelve a tomar filas
+        relay.relay();
+
+        verify(outboxEventRepository).releaseClaim(List.of(1L, 2L));
+        verify(outboxEventRepository, never()).markSent(anyList(), any());
+        verify(outboxEventRepository, times(1)).lockUnsent(any(LocalDateTime.class), eq(2));
+        assertThat(meterRegistry.counter("outbox.relay.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void unreadableRowIsDiscardedWithoutBlockingTheRest() {
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(List.of(
+                row(1L, RabbitConfig.USER_LOGIN_ROUTING_KEY, "{not json"),
+                row(2L, "unknown.key", "{}")))
+                .thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(eventPublisher);
+        verify(outboxEventRepository).markSent(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        assertThat(meterRegistry.counter("outbox.discarded").count()).isEqualTo(2);
+    }
+
+    @Test
+    void lagReflectsOldestPendingRow() {
+        OutboxEvent old = loginRows(1).get(0);
+        old.setCreatedAt(LocalDateTime.now().minusSeconds(30));
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(List.of(old));
+        when(eventPublisher.publishNow(anyList())).thenReturn(true);
+
+        relay.relay();
+
+        assertThat(meterRegistry.get("outbox.lag").gauge().value()).isBetween(29.0, 35.0);
+    }
+
+    @Test
+    void emptyOutboxResetsLag() {
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(List.of());
+
+        relay.relay();
+
+        assertThat(meterRegistry.get("outbox.lag").gauge().value()).isZero();
+        verify(outboxEventRepository, never()).claim(anyList(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void relayStopsWhenRunBudgetIsExhausted() {
+        relay = new OutboxRelay(outboxEventRepository, eventPublisher, objectMapper, transactionManager,
+                meterRegistry, true, 2, 24, 1000, 60000, 5000, 0);
+        when(outboxEventRepository.lockUnsent(any(LocalDateTime.class), eq(2))).thenReturn(loginRows(1, 2));
+        when(eventPublisher.publishNow(anyList())).thenReturn(true);
+
+        relay.relay();
+
+        // el lote vino lleno, pero el resto queda para la proxima pasada
+        verify(outboxEventRepository, times(1)).lockUnsent(any(LocalDateTime.class), eq(2));
+        assertThat(meterRegistry.counter("outbox.budget_exhausted").count()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeStopsWhenRunBudgetIsExhausted() {
+        relay = new OutboxRelay(outboxEventRepository, eventPublisher, objectMapper, transactionManager,
+                meterRegistry, true, 2, 24, 1000, 60000, 5000, 0);
+        when(outboxEventRepository.deleteSentBefore(any(LocalDateTime.class), eq(1000))).thenReturn(1000);
+
+        relay.purge();
+
+        verify(outboxEventRepository, times(1)).deleteSentBefore(any(LocalDateTime.class), eq(1000));
+        assertThat(meterRegistry.counter("outbox.budget_exhausted").count()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledRelayDoesNothing() {
+        relay = new OutboxRelay(outboxEventRepository, eventPublisher, objectMapper, transactionManager,
+                meterRegistry, false, 2, 24, 1000, 60000, 5000, 5000);
+
+        relay.relay();
+
+        verifyNoInteractions(outboxEventRepository, eventPublisher);
+    }
+
+    // ==================== purge ====================
+
+    @Test
+    void purgeDeletesInBoundedChunks() {
+        when(outboxEventRepository.deleteSentBefore(any(LocalDateTime.class), anyInt()))
+                .thenReturn(1000)
+                .thenReturn(10);
+
+        relay.purge();
+
+        verify(outboxEventRepository, times(2)).deleteSentBefore(any(LocalDateTime.class), eq(1000));
+        assertThat(meterRegistry.counter("outbox.purged").count()).isEqualTo(1010);
+    }
+
+    private List<OutboxEvent> loginRows(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> {
+                    try {
+                        return row(id, RabbitConfig.USER_LOGIN_ROUTING_KEY, objectMapper.writeValueAsString(
+                                new UserLoginEvent(id, "user", "u@e.com", "USER")));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private static OutboxEvent row(Long id, String routingKey, String payload) {
+        OutboxEvent row = new OutboxEvent();
+        row.setId(id);
+        row.setRoutingKey(routingKey);
+        row.setPayload(payload);
+        row.setCreatedAt(LocalDateTime.now());
+        return row;
+    }
+}
@@ -0,0 +1,217 @@
+package com.hotel.auth.infrastructure.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class IpRateLimitFilterTest {
+
+    private static final String ATTACKER = "203.0.113.7";
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private IpRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = newFilter(true);
+    }
+
+    // ==================== doFilter ====================
+
+    @Test
+    void allowsRequestsUpToLimit() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = send(ATTACKER, "/auth/login", chain);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+
+        verify(chain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    void rejectsHeavyHitterBeforeChain() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        for (int i = 0; i < 3; i++) {
+            send(ATTACKER, "/auth/login", chain);
+        }
+
+        MockHttpServletResponse response = send(ATTACKER, "/auth/login", chain);
+
+        verify(chain, times(3)).doFilter(any(), any());
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(response.getContentAsString()).contains("\"status\":429").contains("Too Many Requests");
+        assertThat(meterRegistry.counter("ip_throttle.rejections").count()).isEqualTo(1);
+    }
+
+    @Test
+    void otherIpsAreNotAffected() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        for (int i = 0; i < 5; i++) {
+            send(ATTACKER, "/auth/login", chain);
+        }
+
+        MockHttpServletResponse response = send("198.51.100.1", "/auth/login", chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void previousWindowDecaysAsCurrentAdvances() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        for (int i = 0; i < 3; i++) {
+            send(ATTACKER, "/auth/login", chain);
+        }
+
+        // a mitad de la ventana siguiente pesa la mitad: 1 (de 3) + 1 nuevo <= 3
+        clock.advance(Duration.ofSeconds(90));
+        assertThat(send(ATTACKER, "/auth/login", chain).getStatus()).isEqualTo(200);
+
+        // varias ventanas despues no queda nada
+        clock.advance(Duration.ofMinutes(5));
+        for (int i = 0; i < 3; i++) {
+            assertThat(send(ATTACKER, "/auth/login", chain).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void previousWindowStillCountsRightAfterRotation() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        for (int i = 0; i < 3; i++) {
+            send(ATTACKER, "/auth/login", chain);
+        }
+
+        // recien rotada, la ventana anterior pesa casi entera: 2 (de 3) + 1 y despues + 2
+        clock.advance(Duration.ofSeconds(61));
+
+        assertThat(send(ATTACKER, "/auth/login", chain).getStatus()).isEqualTo(200);
+        assertThat(send(ATTACKER, "/auth/login", chain).getStatus()).isEqualTo(429);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/auth/register", "/auth/password/forgot", "/auth/password/reset"})
+    void throttlesRegisterAndPasswordPaths(String path) throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        for (int i = 0; i < 3; i++) {
+            send(ATTACKER, path, chain);
+        }
+
+        assertThat(send(ATTACKER, path, chain).getStatus()).isEqualTo(429);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/auth/refresh", "/oauth/token", "/users", "/.well-known/jwks.json"})
+    void ignoresOtherPaths(String path) throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+
+        for (int i = 0; i < 10; i++) {
+            send(ATTACKER, path, chain);
+        }
+
+        verify(chain, times(10)).doFilter(any(), any());
+    }
+
+    @Test
+    void disabledFilterLetsEverythingThrough() throws Exception {
+        filter = newFilter(false);
+        FilterChain chain = mock(FilterChain.class);
+
+        for (int i = 0; i < 10; i++) {
+            send(ATTACKER, "/auth/login", chain);
+        }
+
+        verify(chain, times(10)).doFilter(any(), any());
+        assertThat(filter.heavyHitters()).isEmpty();
+    }
+
+    // ==================== heavyHitters ====================
+
+    @Test
+    void heavyHittersListsRejectedIpsByEstimate() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        for (int i = 0; i < 6; i++) {
+            send(ATTACKER, "/auth/login", chain);
+        }
+        for (int i = 0; i < 4; i++) {
+            send("198.51.100.1", "/auth/login", chain);
+        }
+
+        assertThat(filter.heavyHitters())
+                .extracting(IpRateLimitFilter.HeavyHitterView::ip)
+                .containsExactly(ATTACKER, "198.51.100.1");
+        IpRateLimitFilter.HeavyHitterView top = filter.heavyHitters().get(0);
+        assertThat(top.estimatedRequests()).isEqualTo(6);
+        assertThat(top.rejected()).isEqualTo(3);
+        assertThat(top.lastSeen()).isEqualTo(clock.instant());
+    }
+
+    @Test
+    void heavyHittersEmptyWithoutRejections() throws Exception {
+        send(ATTACKER, "/auth/login", mock(FilterChain.class));
+
+        assertThat(filter.heavyHitters()).isEmpty();
+    }
+
+    private IpRateLimitFilter newFilter(boolean enabled) {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new IpRateLimitFilter(objectMapper, meterRegistry, enabled, 3, Duration.ofMinutes(1),
+                1024, 4, 10, clock);
+    }
+
+    private MockHttpServletResponse send(String ip, String path, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1" + path);
+        request.setContextPath("/api/v1");
+        request.setServletPath(path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.hotel.auth.infrastructure.filters;
 
+import com.hotel.auth.domain.model.JwtPrincipal;
 import com.hotel.auth.domain.model.Role;
 import com.hotel.auth.domain.model.User;
+import com.hotel.auth.domain.model.VerifiedToken;
 import com.hotel.auth.domain.service.AuthService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,11 +17,12 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
 
@@ -36,7 +39,6 @@ class JwtAuthenticationFilterTest {
 
     @Mock private AuthService authService;
     @Mock private UserDetailsService userDetailsService;
-    @Mock private JwtDecoder jwtDecoder;
     @Mock private HttpServletRequest request;
     @Mock private HttpServletResponse response;
     @Mock private FilterChain filterChain;
@@ -74,6 +76,7 @@ class JwtAuthenticationFilterTest {
             "/auth/refresh",
             "/auth/validate",
             "/oauth/token",
+            "/.well-known/jwks.json",
             "/api-docs",
             "/swagger-ui",
             "/swagger-ui.html",
@@ -102,7 +105,7 @@ class JwtAuthenticationFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain, times(1)).doFilter(request, response);
-        verify(authService, never()).validateToken(anyString());
+        verify(authService, never()).verifyToken(anyString());
     }
 
     @Test
@@ -113,7 +116,7 @@ class JwtAuthenticationFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain, times(1)).doFilter(request, response);
-        verify(authService, never()).validateToken(anyString());
+        verify(authService, never()).verifyToken(anyString());
     }
 
     @Test
@@ -124,14 +127,14 @@ class JwtAuthenticationFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain, times(1)).doFilter(request, response);
-        verify(authService, never()).validateToken(anyString());
+        verify(authService, never()).verifyToken(anyString());
     }
 
     @Test
     void doFilterInternalReturns401WhenTokenInvalid() throws Exception {
         when(request.getServletPath()).thenReturn("/api/v1/users/me");
         when(request.getHeader("Authorization")).thenReturn("Bearer invalid-token");
-        when(authService.validateToken("invalid-token"))
+        when(authService.verifyToken("invalid-token"))
                 .thenThrow(new JwtException("invalid"));
 
         filter.doFilterInternal(request, response, filterChain);
@@ -153,8 +156,7 @@ class JwtAuthenticationFilterTest {
 
         when(request.getServletPath()).thenReturn("/api/v1/internal/anything");
         when(request.getHeader("Authorization")).thenReturn("Bearer svc-token");
-        when(authService.validateToken("svc-token")).thenReturn(true);
-        when(jwtDecoder.decode("svc-token")).thenReturn(jwt);
+        when(authService.verifyToken("svc-token")).thenReturn(new VerifiedToken(jwt));
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -162,6 +164,9 @@ class JwtAuthenticationFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
         assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
                 .isEqualTo("hotel-client");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly(JwtAuthenticationFilter.SERVICE_CLIENT_AUTHORITY);
     }
 
     @Test
@@ -177,16 +182,64 @@ class JwtAuthenticationFilterTest {
 
         when(request.getServletPath()).thenReturn("/api/v1/users/me");
         when(request.getHeader("Authorization")).thenReturn("Bearer user-token");
-        when(authService.validateToken("user-token")).thenReturn(true);
-        when(jwtDecoder.decode("user-token")).thenReturn(jwt);
-        when(authService.getUserFromToken("user-token")).thenReturn("user@luxestay.com");
+        when(authService.verifyToken("user-token")).thenReturn(new VerifiedToken(jwt));
         when(userDetailsService.loadUserByUsername("user@luxestay.com")).thenReturn(user);
 
         filter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain, times(1)).doFilter(request, response);
+        verify(authService, times(1)).verifyToken("user-token");
+        verify(authService, never()).validateToken(anyString());
+        verify(authService, never()).getUserFromToken(anyString());
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
         assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
                 .isEqualTo(user);
     }
+
+    @Test
+    void doFilterInternalBuildsPrincipalFromClaimsWhenClaimsOnlyEnabled() throws Exception {
+        ReflectionTestUtils.setField(filter, "claimsOnlyAuthentication", true);
+        Jwt jwt = Jwt.withTokenValue("user-token")
+                .header("alg", "RS256")
+                .subject("user@luxestay.com")
+                .claim("userId", 1L)
+                .claim("roles", "ROLE_USER")
+                .build();
+
+        when(request.getServletPath()).thenReturn("/api/v1/users/me");
+        when(request.getHeader("Authorization")).thenReturn("Bearer user-token");
+        when(authService.verifyToken("user-token")).thenReturn(new VerifiedToken(jwt));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain, times(1)).doFilter(request, response);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertThat(principal).isInstanceOf(JwtPrincipal.class);
+        assertThat(((JwtPrincipal) principal).getUserId()).isEqualTo(1L);
+        assertThat(((JwtPrincipal) principal).getEmail()).isEqualTo("user@luxestay.com");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void doFilterInternalLoadsUserWhenClaimsOnlyEnabledButTokenHasNoUserId() throws Exception {
+        ReflectionTestUtils.setField(filter, "claimsOnlyAuthentication", true);
+        Jwt jwt = Jwt.withTokenValue("refresh-token")
+                .header("alg", "RS256")
+                .subject("user@luxestay.com")
+                .claim("type", "refresh")
+                .build();
+
+        when(request.getServletPath()).thenReturn("/api/v1/users/me");
+        when(request.getHeader("Authorization")).thenReturn("Bearer refresh-token");
+        when(authService.verifyToken("refresh-token")).thenReturn(new VerifiedToken(jwt));
+        when(userDetailsService.loadUserByUsername("user@luxestay.com")).thenReturn(user);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .isEqualTo(user);
+    }
 }
@@ -0,0 +1,173 @@
+package com.hotel.auth.infrastructure.maintenance;
+
+import com.hotel.auth.domain.repository.PasswordResetTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordResetTokenPurgerTest {
+
+    @Mock private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+    }
+
+    // ==================== purge ====================
+
+    @Test
+    void deletesByPrimaryKeyRangesUpToSnapshot() {
+        PasswordResetTokenPurger purger = newPurger(Duration.ofSeconds(5));
+        when(passwordResetTokenRepository.maxId()).thenReturn(250L);
+        when(passwordResetTokenRepository.firstIdFrom(0L)).thenReturn(1L);
+        when(passwordResetTokenRepository.firstIdFrom(101L)).thenReturn(101L);
+        when(passwordResetTokenRepository.firstIdFrom(201L)).thenReturn(230L);
+        when(passwordResetTokenRepository.deleteExpiredInRange(anyLong(), anyLong(), any())).thenReturn(40, 60, 5);
+
+        long removed = purger.purgeWithinBudget();
+
+        assertThat(removed).isEqualTo(105);
+        verify(passwordResetTokenRepository).deleteExpiredInRange(eq(1L), eq(101L), any());
+        verify(passwordResetTokenRepository).deleteExpiredInRange(eq(101L), eq(201L), any());
+        // el ultimo tramo se corta en el snapshot: los tokens nuevos no se tocan
+        verify(passwordResetTokenRepository).deleteExpiredInRange(eq(230L), eq(251L), any());
+        assertThat(meterRegistry.counter("reset_tokens.purged").count()).isEqualTo(105);
+    }
+
+    @Test
+    void usesRetentionWindowAsCutoff() {
+        PasswordResetTokenPurger purger = newPurger(Duration.ofSeconds(5));
+        when(passwordResetTokenRepository.maxId()).thenReturn(1L);
+        when(passwordResetTokenRepository.firstIdFrom(0L)).thenReturn(1L);
+
+        purger.purgeWithinBudget();
+
+        LocalDateTime expectedCutoff = LocalDateTime.now(clock).minusHours(24);
+        verify(passwordResetTokenRepository).deleteExpiredInRange(1L, 2L, expectedCutoff);
+    }
+
+    @Test
+    void stopsAtBudgetAndResumesFromCursor() {
+        PasswordResetTokenPurger purger = newPurger(Duration.ofMillis(100));
+        when(passwordResetTokenRepository.maxId()).thenReturn(300L);
+        when(passwordResetTokenRepository.firstIdFrom(0L)).thenReturn(1L);
+        when(passwordResetTokenRepository.firstIdFrom(101L)).thenReturn(101L);
+        when(passwordResetTokenRepository.firstIdFrom(201L)).thenReturn(201L);
+        when(passwordResetTokenRepository.deleteExpiredInRange(anyLong(), anyLong(), any())).thenAnswer(inv -> {
+            clock.advance(Duration.ofMillis(60));
+            return 10;
+        });
+
+        assertThat(purger.purgeWithinBudget()).isEqualTo(20);
+        assertThat(meterRegistry.counter("reset_tokens.purge.budget_exhausted").count()).isEqualTo(1);
+
+        assertThat(purger.purgeWithinBudget()).isEqualTo(10);
+        verify(passwordResetTokenRepository, times(1)).maxId();
+        verify(passwordResetTokenRepository).deleteExpiredInRange(eq(201L), eq(301L), any());
+    }
+
+    @Test
+    void lagTracksTimeSinceLastCompletedSweep() {
+        PasswordResetTokenPurger purger = newPurger(Duration.ofMillis(100));
+        when(passwordResetTokenRepository.maxId()).thenReturn(200L);
+        when(passwordResetTokenRepository.firstIdFrom(0L)).thenReturn(1L);
+        when(passwordResetTokenRepository.firstIdFrom(101L)).thenReturn(101L);
+        when(passwordResetTokenRepository.deleteExpiredInRange(anyLong(), anyLong(), any())).thenAnswer(inv -> {
+            clock.advance(Duration.ofMillis(150));
+            return 1;
+        });
+
+        clock.advance(Duration.ofMinutes(10));
+        purger.purgeWithinBudget();
+        assertThat(lagSeconds()).isGreaterThanOrEqualTo(600);
+
+        purger.purgeWithinBudget();
+        // la barrida cerro: el lag se mide desde su inicio
+        assertThat(lagSeconds()).isLessThan(1);
+    }
+
+    @Test
+    void emptyTableCompletesImmediately() {
+        PasswordResetTokenPurger purger = newPurger(Duration.ofSeconds(5));
+        when(passwordResetTokenRepository.maxId()).thenReturn(null);
+
+        assertThat(purger.purgeWithinBudget()).isZero();
+        verify(passwordResetTokenRepository, never()).deleteExpiredInRange(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void disabledPurgerDoesNothing() {
+        PasswordResetTokenPurger purger = new PasswordResetTokenPurger(passwordResetTokenRepository, meterRegistry,
+                false, Duration.ofHours(24), 100, Duration.ofSeconds(5), clock);
+
+        purger.purge();
+
+        verifyNoInteractions(passwordResetTokenRepository);
+    }
+
+    @Test
+    void purgeSwallowsRepositoryFailures() {
+        PasswordResetTokenPurger purger = newPurger(Duration.ofSeconds(5));
+        when(passwordResetTokenRepository.maxId()).thenThrow(new IllegalStateException("db down"));
+
+        purger.purge();
+    }
+
+    private PasswordResetTokenPurger newPurger(Duration maxRun) {
+        return new PasswordResetTokenPurger(passwordResetTokenRepository, meterRegistry,
+                true, Duration.ofHours(24), 100, maxRun, clock);
+    }
+
+    private double lagSeconds() {
+        return meterRegistry.get("reset_tokens.purge.lag").gauge().value();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
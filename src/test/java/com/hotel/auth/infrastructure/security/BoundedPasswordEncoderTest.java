@@ -0,0 +1,104 @@
+package com.hotel.auth.infrastructure.security;
+
+import com.hotel.auth.helpers.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private PasswordEncoder delegate;
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PasswordEncoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 3, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatchesRunOnHashingPool() {
+        when(delegate.encode("secret")).thenAnswer(inv -> Thread.currentThread().getName());
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+
+        assertThat(encoder.encode("secret")).startsWith("password-hashing-");
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        assertThat(meterRegistry.get("password_hashing.execution").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("password_hashing.execution").tag("operation", "matches").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("password_hashing.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWithRetryAfterWhenQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode(any())).thenAnswer(inv -> {
+            running.countDown();
+            release.await();
+            return "hash";
+        });
+
+        // 1 en ejecucion + 1 en cola: el tercero no entra
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (meterRegistry.get("password_hashing.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .extracting(e -> ((ServiceOverloadedException) e).getRetryAfterSeconds())
+                .isEqualTo(3L);
+        assertThat(meterRegistry.get("password_hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    @Test
+    void delegateRuntimeExceptionsPropagateUnwrapped() {
+        when(delegate.matches(any(), any())).thenThrow(new IllegalArgumentException("hash invalido"));
+
+        assertThatThrownBy(() -> encoder.matches("secret", "bad"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("hash invalido");
+    }
+
+    @Test
+    void upgradeEncodingIsDelegatedInline() {
+        when(delegate.upgradeEncoding("hash")).thenReturn(true);
+
+        assertThat(encoder.upgradeEncoding("hash")).isTrue();
+    }
+
+    @Test
+    void constructorRejectsEmptyPool() {
+        assertThatThrownBy(() -> new BoundedPasswordEncoder(delegate, 0, 1, 1, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BoundedPasswordEncoder(delegate, 1, 0, 1, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
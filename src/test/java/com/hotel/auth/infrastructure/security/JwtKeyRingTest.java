@@ -0,0 +1,335 @@
+package com.hotel.auth.infrastructure.security;
+
+import com.hotel.auth.infrastructure.config.EncoderConfig;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    private static final KeyPair FIRST = generateKeyPair();
+    private static final KeyPair SECOND = generateKeyPair();
+    private static final KeyPair THIRD = generateKeyPair();
+    private static final KeyPair EC = generateKeyPair("EC");
+
+    private MockEnvironment environment;
+    private JwtKeyRing keyRing;
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        useActiveKey(FIRST);
+        keyRing = new JwtKeyRing(environment);
+        encoder = new EncoderConfig().jwtEncoder(keyRing);
+        decoder = new EncoderConfig().jwtDecoder(keyRing);
+    }
+
+    // ==================== carga inicial ====================
+
+    @Test
+    void activeKeyIdIsRfc7638Thumbprint() throws Exception {
+        String expected = new RSAKey.Builder((RSAPublicKey) FIRST.getPublic()).build()
+                .computeThumbprint().toString();
+
+        assertThat(keyRing.activeKeyId(JWSAlgorithm.RS256)).isEqualTo(expected);
+    }
+
+    @Test
+    void publicJwkSetContainsActiveKeyWithoutPrivatePart() {
+        assertThat(keyRing.publicJwkSet().getKeys())
+                .singleElement()
+                .satisfies(key -> {
+                    assertThat(key.getKeyID()).isEqualTo(keyRing.activeKeyId(JWSAlgorithm.RS256));
+                    assertThat(key.isPrivate()).isFalse();
+                });
+    }
+
+    @Test
+    void constructorFailsWhenKeyMaterialIsInvalid() {
+        environment.setProperty("application.security.jwt.public-key", "not-a-key");
+
+        assertThatThrownBy(() -> new JwtKeyRing(environment))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void previousPublicKeysAreVerifyOnly() {
+        String firstKid = keyRing.activeKeyId(JWSAlgorithm.RS256);
+        environment.setProperty("application.security.jwt.previous-public-keys",
+                pem(SECOND) + "," + pem(THIRD));
+
+        keyRing.reload();
+
+        assertThat(keyRing.activeKeyId(JWSAlgorithm.RS256)).isEqualTo(firstKid);
+        assertThat(keyRing.publicJwkSet().getKeys()).hasSize(3);
+        assertThat(kidOf(sign())).isEqualTo(firstKid);
+    }
+
+    @Test
+    void optionalEcKeySignsAndVerifiesAlongsideRsa() {
+        environment.setProperty("application.security.jwt.ec.public-key", pem(EC));
+        environment.setProperty("application.security.jwt.ec.private-key", privatePem(EC));
+
+        keyRing.reload();
+        String rs256Token = sign(encoder, SignatureAlgorithm.RS256);
+        String es256Token = sign(encoder, SignatureAlgorithm.ES256);
+
+        assertThat(kidOf(rs256Token)).isEqualTo(keyRing.activeKeyId(JWSAlgorithm.RS256));
+        assertThat(kidOf(es256Token)).isEqualTo(keyRing.activeKeyId(JWSAlgorithm.ES256));
+        assertThat(decoder.decode(rs256Token).getSubject()).isEqualTo("user@luxestay.com");
+        assertThat(decoder.decode(es256Token).getSubject()).isEqualTo("user@luxestay.com");
+        assertThat(keyRing.publicJwkSet().getKeys()).hasSize(2).noneMatch(JWK::isPrivate);
+    }
+
+    @Test
+    void reloadRejectsEcKeyOutsideP256() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(384);
+        KeyPair p384 = generator.generateKeyPair();
+        environment.setProperty("application.security.jwt.ec.public-key", pem(p384));
+        environment.setProperty("application.security.jwt.ec.private-key", privatePem(p384));
+
+        keyRing.reload();
+
+        assertThat(keyRing.activeKeyId(JWSAlgorithm.ES256)).isNull();
+        assertThat(keyRing.activeKeyId(JWSAlgorithm.RS256)).isNotNull();
+    }
+
+    @Test
+    void constructorFailsOnUnsupportedAlgorithm() {
+        environment.setProperty("application.security.jwt.algorithms.access", "PS256");
+
+        assertThatThrownBy(() -> new JwtKeyRing(environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("algorithms.access=PS256");
+    }
+
+    @Test
+    void constructorFailsWhenConfiguredAlgorithmHasNoActiveKey() {
+        environment.setProperty("application.security.jwt.algorithms.service", "ES256");
+
+        assertThatThrownBy(() -> new JwtKeyRing(environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("algorithms.service=ES256");
+    }
+
+    @Test
+    void constructorAcceptsEs256WithEcKey() {
+        environment.setProperty("application.security.jwt.algorithms.access", "ES256");
+        environment.setProperty("application.security.jwt.ec.public-key", pem(EC));
+        environment.setProperty("application.security.jwt.ec.private-key", privatePem(EC));
+
+        assertThat(new JwtKeyRing(environment).activeKeyId(JWSAlgorithm.ES256)).isNotNull();
+    }
+
+    @Test
+    void reloadKeepsEcKeyWhileEs256IsConfigured() {
+        environment.setProperty("application.security.jwt.algorithms.access", "ES256");
+        environment.setProperty("application.security.jwt.ec.public-key", pem(EC));
+        environment.setProperty("application.security.jwt.ec.private-key", privatePem(EC));
+        JwtKeyRing ring = new JwtKeyRing(environment);
+        String ecKid = ring.activeKeyId(JWSAlgorithm.ES256);
+        environment.setProperty("application.security.jwt.ec.public-key", "");
+
+        ring.reload();
+
+        assertThat(ring.activeKeyId(JWSAlgorithm.ES256)).isEqualTo(ecKid);
+    }
+
+    // ==================== rotacion ====================
+
+    @Test
+    void tokensSignedBeforeRotationStillVerify() {
+        String oldToken = sign();
+
+        rotateTo(SECOND, FIRST);
+        String newToken = sign();
+
+        assertThat(kidOf(newToken)).isNotEqualTo(kidOf(oldToken)).isEqualTo(keyRing.activeKeyId(JWSAlgorithm.RS256));
+        assertThat(decoder.decode(oldToken).getSubject()).isEqualTo("user@luxestay.com");
+        assertThat(decoder.decode(newToken).getSubject()).isEqualTo("user@luxestay.com");
+        assertThat(keyRing.publicJwkSet().getKeys()).extracting(JWK::getKeyID)
+                .containsExactlyInAnyOrder(kidOf(oldToken), kidOf(newToken));
+    }
+
+    @Test
+    void tokensSignedBeforeRotationVerifyAfterRestart() {
+        String oldToken = sign();
+        rotateTo(SECOND, FIRST);
+
+        // instancia nueva o reinicio: solo ve la config, no la memoria de la anterior
+        JwtDecoder restarted = new EncoderConfig().jwtDecoder(new JwtKeyRing(environment));
+
+        assertThat(restarted.decode(oldToken).getSubject()).isEqualTo("user@luxestay.com");
+    }
+
+    @Test
+    void rotationWithoutRetainingOutgoingKeyIsRejected() {
+        String kid = keyRing.activeKeyId(JWSAlgorithm.RS256);
+        String oldToken = sign();
+
+        useActiveKey(SECOND);
+        keyRing.reload();
+
+        assertThat(keyRing.activeKeyId(JWSAlgorithm.RS256)).isEqualTo(kid);
+        assertThat(decoder.decode(oldToken).getSubject()).isEqualTo("user@luxestay.com");
+    }
+
+    @Test
+    void retiredKeyIsDroppedWhenRemovedFromPreviousKeys() {
+        String oldToken = sign();
+        rotateTo(SECOND, FIRST);
+
+        environment.setProperty("application.security.jwt.previous-public-keys", "");
+        keyRing.reload();
+
+        assertThatThrownBy(() -> decoder.decode(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void retiredKeySurvivesSecondRotationWhileListed() {
+        String firstToken = sign();
+
+        rotateTo(SECOND, FIRST);
+        rotateTo(THIRD, FIRST, SECOND);
+
+        assertThat(decoder.decode(firstToken).getSubject()).isEqualTo("user@luxestay.com");
+        assertThat(keyRing.publicJwkSet().getKeys()).hasSize(3);
+    }
+
+    @Test
+    void invalidReloadKeepsCurrentKeys() {
+        String kid = keyRing.activeKeyId(JWSAlgorithm.RS256);
+        String token = sign();
+        environment.setProperty("application.security.jwt.private-key", "broken");
+
+        keyRing.reload();
+
+        assertThat(keyRing.activeKeyId(JWSAlgorithm.RS256)).isEqualTo(kid);
+        assertThat(decoder.decode(token).getSubject()).isEqualTo("user@luxestay.com");
+    }
+
+    @Test
+    void tokenFromUnknownKeyIsRejected() {
+        MockEnvironment other = new MockEnvironment()
+                .withProperty("application.security.jwt.public-key", pem(THIRD))
+                .withProperty("application.security.jwt.private-key", privatePem(THIRD));
+        String foreignToken = sign(new EncoderConfig().jwtEncoder(new JwtKeyRing(other)));
+
+        assertThatThrownBy(() -> decoder.decode(foreignToken)).isInstanceOf(JwtException.class);
+    }
+
+    // ==================== onEnvironmentChange ====================
+
+    @Test
+    void environmentChangeOnJwtKeysReloads() {
+        useActiveKey(SECOND);
+        environment.setProperty("application.security.jwt.previous-public-keys", pem(FIRST));
+
+        keyRing.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("application.security.jwt.private-key")));
+
+        assertThat(kidOf(sign())).isEqualTo(keyRing.activeKeyId(JWSAlgorithm.RS256));
+        assertThat(keyRing.publicJwkSet().getKeys()).hasSize(2);
+    }
+
+    @Test
+    void environmentChangeOnOtherKeysIsIgnored() {
+        String kid = keyRing.activeKeyId(JWSAlgorithm.RS256);
+        useActiveKey(SECOND);
+
+        keyRing.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("spring.datasource.url")));
+
+        assertThat(keyRing.activeKeyId(JWSAlgorithm.RS256)).isEqualTo(kid);
+    }
+
+    private void useActiveKey(KeyPair keyPair) {
+        environment.setProperty("application.security.jwt.public-key", pem(keyPair));
+        environment.setProperty("application.security.jwt.private-key", privatePem(keyPair));
+    }
+
+    // Rotacion documentada: clave nueva y la saliente en previous-public-keys en el mismo cambio
+    private void rotateTo(KeyPair next, KeyPair... retired) {
+        useActiveKey(next);
+        environment.setProperty("application.security.jwt.previous-public-keys",
+                String.join(",", Arrays.stream(retired).map(JwtKeyRingTest::pem).toList()));
+        keyRing.reload();
+    }
+
+    private String sign() {
+        return sign(encoder);
+    }
+
+    private static String sign(JwtEncoder jwtEncoder) {
+        return sign(jwtEncoder, SignatureAlgorithm.RS256);
+    }
+
+    private static String sign(JwtEncoder jwtEncoder, JwsAlgorithm algorithm) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("user@luxestay.com")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(
+                JwsHeader.with(algorithm).build(), claims)).getTokenValue();
+    }
+
+    private static String kidOf(String token) {
+        try {
+            return JWSObject.parse(token).getHeader().getKeyID();
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String pem(KeyPair keyPair) {
+        return "-----BEGIN PUBLIC KEY-----\\n"
+                + Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded())
+                + "\\n-----END PUBLIC KEY-----";
+    }
+
+    private static String privatePem(KeyPair keyPair) {
+        return Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded());
+    }
+
+    private static KeyPair generateKeyPair() {
+        return generateKeyPair("RSA");
+    }
+
+    private static KeyPair generateKeyPair(String algorithm) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+            generator.initialize("RSA".equals(algorithm) ? 2048 : 256);
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.hotel.auth.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashCalibratorTest {
+
+    // ==================== bcrypt ====================
+
+    @Test
+    void strengthGrowsOnePointPerDoublingOfBudget() {
+        Duration cost = Duration.ofMillis(50);
+
+        assertThat(PasswordHashCalibrator.strengthFor(Duration.ofMillis(50), cost)).isEqualTo(10);
+        assertThat(PasswordHashCalibrator.strengthFor(Duration.ofMillis(99), cost)).isEqualTo(10);
+        assertThat(PasswordHashCalibrator.strengthFor(Duration.ofMillis(100), cost)).isEqualTo(11);
+        assertThat(PasswordHashCalibrator.strengthFor(Duration.ofMillis(400), cost)).isEqualTo(13);
+    }
+
+    @Test
+    void strengthIsClampedToSafeRange() {
+        assertThat(PasswordHashCalibrator.strengthFor(Duration.ofMillis(10), Duration.ofMillis(80)))
+                .isEqualTo(PasswordHashCalibrator.MIN_BCRYPT_STRENGTH);
+        assertThat(PasswordHashCalibrator.strengthFor(Duration.ofSeconds(60), Duration.ofMillis(1)))
+                .isEqualTo(PasswordHashCalibrator.MAX_BCRYPT_STRENGTH);
+    }
+
+    // ==================== argon2 ====================
+
+    @Test
+    void iterationsScaleLinearlyWithBudget() {
+        assertThat(PasswordHashCalibrator.iterationsFor(Duration.ofMillis(100), Duration.ofMillis(20))).isEqualTo(5);
+        assertThat(PasswordHashCalibrator.iterationsFor(Duration.ofMillis(10), Duration.ofMillis(20)))
+                .isEqualTo(PasswordHashCalibrator.MIN_ARGON2_ITERATIONS);
+        assertThat(PasswordHashCalibrator.iterationsFor(Duration.ofSeconds(10), Duration.ofMillis(20)))
+                .isEqualTo(PasswordHashCalibrator.MAX_ARGON2_ITERATIONS);
+    }
+
+    @Test
+    void argon2EncoderUsesRequestedParameters() {
+        Argon2PasswordEncoder encoder = PasswordHashCalibrator.argon2(1024, 1, 2);
+
+        String hash = encoder.encode("Password123");
+
+        assertThat(hash).startsWith("$argon2id$").contains("m=1024,t=2,p=1");
+        assertThat(encoder.matches("Password123", hash)).isTrue();
+        assertThat(PasswordHashCalibrator.argon2(1024, 1, 3).upgradeEncoding(hash)).isTrue();
+    }
+}
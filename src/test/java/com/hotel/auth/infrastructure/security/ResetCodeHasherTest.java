@@ -0,0 +1,48 @@
+package com.hotel.auth.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResetCodeHasherTest {
+
+    private final ResetCodeHasher hasher = new ResetCodeHasher("pepper");
+
+    @Test
+    void hashNeverContainsCode() {
+        String hash = hasher.hash(1L, "123456");
+
+        assertThat(hash).doesNotContain("123456").hasSize(43);
+    }
+
+    @Test
+    void matchesSameUserAndCode() {
+        String hash = hasher.hash(1L, "123456");
+
+        assertThat(hasher.matches(hash, 1L, "123456")).isTrue();
+        assertThat(hasher.matches(hash, 1L, "123457")).isFalse();
+    }
+
+    @Test
+    void hashIsBoundToUser() {
+        String hash = hasher.hash(1L, "123456");
+
+        assertThat(hasher.matches(hash, 2L, "123456")).isFalse();
+    }
+
+    @Test
+    void pepperChangesHash() {
+        assertThat(new ResetCodeHasher("other").hash(1L, "123456")).isNotEqualTo(hasher.hash(1L, "123456"));
+    }
+
+    @Test
+    void blankPepperFallsBackToFixedKey() {
+        assertThat(new ResetCodeHasher("").hash(1L, "123456")).isEqualTo(new ResetCodeHasher(null).hash(1L, "123456"));
+    }
+
+    @Test
+    void nullInputsNeverMatch() {
+        assertThat(hasher.matches(null, 1L, "123456")).isFalse();
+        assertThat(hasher.matches(hasher.hash(1L, "123456"), 1L, null)).isFalse();
+    }
+}